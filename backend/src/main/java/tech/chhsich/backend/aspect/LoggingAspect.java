@@ -1,29 +1,48 @@
 package tech.chhsich.backend.aspect;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import tech.chhsich.backend.entity.OperationLog;
+import tech.chhsich.backend.service.OperationLogWriter;
 
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 日志切面
  * 记录API请求和用户操作日志
  *
+ * <p>控制器调用的耗时用 {@code System.nanoTime} 计量，并按控制器、方法和结果记入
+ * {@code http.controller.requests} 直方图。完整的请求日志按接口采样（{@code app.request-log.*}），
+ * 高频只读接口可以配置为只记直方图；失败的请求始终输出日志。</p>
+ *
+ * <p>后台管理的写操作（见 {@link #operationLogPointcut()}）另外生成一条操作日志，交给
+ * {@link OperationLogWriter} 异步批量写入 {@code operation_log}。日志只保存参数名和类型，不保存参数值，
+ * 登录、改密等接口的明文密码不会落库；参数描述每个方法只生成一次，请求线程上不做字符串拼接。</p>
+ *
  * @author chhsich
  * @since 2025-09-19
  */
@@ -32,11 +51,67 @@ import java.util.Map;
 public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 操作日志中请求参数和错误信息的最大长度
+     */
+    private static final int MAX_PARAMS_LENGTH = 2000;
+    private static final int MAX_ERROR_LENGTH = 1000;
 
     @Autowired
     private HttpServletRequest request;
 
+    private final OperationLogWriter operationLogWriter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 控制器日志的默认采样率（0~1），1表示每次调用都输出完整日志
+     */
+    private final double defaultSampleRate;
+
+    /**
+     * 按接口配置的采样率，键为 控制器.方法 或 控制器.*
+     */
+    private final Map<String, Double> sampleRates;
+
+    /**
+     * 不输出完整日志的高频接口，只记录延迟直方图和失败日志
+     */
+    private final Set<String> quietEndpoints;
+
+    /**
+     * 参数渲染的最大长度
+     */
+    private final int maxArgsLength;
+
+    /**
+     * 是否为延迟计时器发布百分位直方图，与 {@link MetricsAspect} 共用配置
+     */
+    private final boolean percentileHistogram;
+
+    private final Map<Method, EndpointPolicy> policies = new ConcurrentHashMap<>();
+
+    /**
+     * 方法到操作日志参数描述（参数名和类型）的缓存
+     */
+    private final Map<Method, String> parameterSignatures = new ConcurrentHashMap<>();
+
+    public LoggingAspect(OperationLogWriter operationLogWriter,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.request-log.sample-rate:1.0}") double defaultSampleRate,
+                         @Value("${app.request-log.sample-rates:}") String[] sampleRates,
+                         @Value("${app.request-log.quiet-endpoints:}") String[] quietEndpoints,
+                         @Value("${app.request-log.max-args-length:512}") int maxArgsLength,
+                         @Value("${app.metrics.percentile-histogram:true}") boolean percentileHistogram) {
+        this.operationLogWriter = operationLogWriter;
+        this.meterRegistry = meterRegistry;
+        this.defaultSampleRate = defaultSampleRate;
+        this.sampleRates = parseSampleRates(sampleRates);
+        this.quietEndpoints = parseEndpoints(quietEndpoints);
+        this.maxArgsLength = Math.max(16, maxArgsLength);
+        this.percentileHistogram = percentileHistogram;
+    }
+
     /**
      * 定义切点：拦截所有Controller方法
      */
@@ -44,33 +119,69 @@ public class LoggingAspect {
     public void controllerPointcut() {}
 
     /**
-     * 定义切点：拦截需要记录操作日志的方法
+     * 定义切点：后台管理控制器（菜单、类别、管理员、订单历史）和订单批量状态转换
      */
-    @Pointcut("@annotation(tech.chhsich.backend.annotation.RequirePermission) || " +
+    @Pointcut("within(tech.chhsich.backend.controller.admin..*) || " +
+            "within(tech.chhsich.backend.controller.AdminController) || " +
+            "within(tech.chhsich.backend.controller.MenuController) || " +
+            "within(tech.chhsich.backend.controller.OrderHistoryController) || " +
+            "execution(* tech.chhsich.backend.controller.OrderController.bulkTransition(..))")
+    public void adminControllerPointcut() {}
+
+    /**
+     * 定义切点：会修改数据的映射方法（POST、PUT、PATCH、DELETE）
+     */
+    @Pointcut("@annotation(org.springframework.web.bind.annotation.PostMapping) || " +
+            "@annotation(org.springframework.web.bind.annotation.PutMapping) || " +
+            "@annotation(org.springframework.web.bind.annotation.PatchMapping) || " +
+            "@annotation(org.springframework.web.bind.annotation.DeleteMapping)")
+    public void mutatingMappingPointcut() {}
+
+    /**
+     * 定义切点：拦截需要记录操作日志的方法，即后台管理的写操作以及带权限注解的方法
+     */
+    @Pointcut("(adminControllerPointcut() && mutatingMappingPointcut()) || " +
+            "@annotation(tech.chhsich.backend.annotation.RequirePermission) || " +
             "@annotation(tech.chhsich.backend.annotation.RequireRole)")
     public void operationLogPointcut() {}
 
     /**
      * 控制器方法日志环绕通知
+     * 每次调用都记录延迟直方图；完整日志按接口采样，请求信息只在需要输出日志时采集一次
      */
     @Around("controllerPointcut()")
     public Object aroundControllerAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
+        EndpointPolicy policy = policyFor(joinPoint);
+        boolean sampled = policy.sample();
+        RequestInfo info = null;
+
+        if (sampled) {
+            info = captureRequestInfo();
+            if (logger.isDebugEnabled()) {
+                logger.debug("API请求开始 - {}, 接口: {}, 参数: {}",
+                        info, policy.name, new LazyArgs(joinPoint.getArgs(), maxArgsLength));
+            }
+        }
 
+        long startNanos = System.nanoTime();
         try {
-            // 记录请求开始
-            logRequestStart(joinPoint);
-
-            // 执行目标方法
             Object result = joinPoint.proceed();
-
-            // 记录请求结束
-            logRequestEnd(joinPoint, result, startTime, null);
-
+            long elapsedNanos = System.nanoTime() - startNanos;
+            policy.successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (sampled) {
+                logger.info("API请求成功 - {}, 接口: {}, 执行时间: {}ms",
+                        info, policy.name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            }
             return result;
-        } catch (Exception e) {
-            // 记录异常
-            logRequestEnd(joinPoint, null, startTime, e);
+        } catch (Throwable e) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            policy.errorTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            // 失败请求不参与采样，始终输出
+            if (info == null) {
+                info = captureRequestInfo();
+            }
+            logger.error("API请求失败 - {}, 接口: {}, 执行时间: {}ms, 异常: {}",
+                    info, policy.name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), e.getMessage());
             throw e;
         }
     }
@@ -98,109 +209,156 @@ public class LoggingAspect {
     }
 
     /**
-     * 记录请求开始日志
+     * 获取接口的日志策略，每个控制器方法只解析一次
      */
-    private void logRequestStart(ProceedingJoinPoint joinPoint) {
-        try {
-            String className = joinPoint.getTarget().getClass().getSimpleName();
-            String methodName = joinPoint.getSignature().getName();
-            Object[] args = joinPoint.getArgs();
+    private EndpointPolicy policyFor(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return policies.computeIfAbsent(signature.getMethod(), this::createPolicy);
+    }
 
-            // 获取当前用户信息
-            String username = getCurrentUsername();
-            String userRole = getCurrentUserRole();
+    private EndpointPolicy createPolicy(Method method) {
+        String controller = method.getDeclaringClass().getSimpleName();
+        String name = controller + "." + method.getName();
+        double sampleRate;
+        if (quietEndpoints.contains(name) || quietEndpoints.contains(controller + ".*")) {
+            sampleRate = 0.0;
+        } else {
+            sampleRate = sampleRates.getOrDefault(name,
+                    sampleRates.getOrDefault(controller + ".*", defaultSampleRate));
+        }
+        Timer successTimer = controllerTimer(controller, method.getName(), "success");
+        Timer errorTimer = controllerTimer(controller, method.getName(), "error");
+        return new EndpointPolicy(name, sampleRate, successTimer, errorTimer);
+    }
 
-            // 获取请求信息
-            String requestUri = request.getRequestURI();
-            String method = request.getMethod();
-            String ip = getClientIp();
+    private Timer controllerTimer(String controller, String method, String outcome) {
+        Timer.Builder builder = Timer.builder("http.controller.requests")
+                .description("控制器方法执行耗时")
+                .tag("controller", controller)
+                .tag("method", method)
+                .tag("outcome", outcome);
+        if (percentileHistogram) {
+            builder.publishPercentileHistogram();
+        }
+        return builder.register(meterRegistry);
+    }
 
-            logger.info("API请求开始 - 用户: {}, 角色: {}, URI: {}, 方法: {}, IP: {}, 控制器: {}, 方法名: {}, 参数: {}",
-                    username, userRole, requestUri, method, ip, className, methodName,
-                    args.length > 0 ? Arrays.toString(args) : "无参数");
+    /**
+     * 解析"接口=采样率"形式的配置，接口写作 控制器.方法 或 控制器.*
+     */
+    private static Map<String, Double> parseSampleRates(String[] entries) {
+        Map<String, Double> rates = new HashMap<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("无效的日志采样率配置: " + trimmed);
+            }
+            rates.put(trimmed.substring(0, separator).trim(),
+                    Double.parseDouble(trimmed.substring(separator + 1).trim()));
+        }
+        return rates;
+    }
 
-        } catch (Exception e) {
-            logger.error("记录请求开始日志失败", e);
+    private static Set<String> parseEndpoints(String[] entries) {
+        Set<String> endpoints = new HashSet<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (!trimmed.isEmpty()) {
+                endpoints.add(trimmed);
+            }
         }
+        return endpoints;
     }
 
     /**
-     * 记录请求结束日志
+     * 采集一次请求信息，供本次调用的开始、结束日志共用
      */
-    private void logRequestEnd(ProceedingJoinPoint joinPoint, Object result, long startTime, Exception exception) {
+    private RequestInfo captureRequestInfo() {
         try {
-            String className = joinPoint.getTarget().getClass().getSimpleName();
-            String methodName = joinPoint.getSignature().getName();
-
-            // 获取当前用户信息
-            String username = getCurrentUsername();
-            String userRole = getCurrentUserRole();
-
-            // 获取请求信息
-            String requestUri = request.getRequestURI();
-            String method = request.getMethod();
-            String ip = getClientIp();
-
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            if (exception != null) {
-                logger.error("API请求失败 - 用户: {}, 角色: {}, URI: {}, 方法: {}, IP: {}, 控制器: {}, 方法名: {}, 执行时间: {}ms, 异常: {}",
-                        username, userRole, requestUri, method, ip, className, methodName, executionTime, exception.getMessage());
-            } else {
-                logger.info("API请求成功 - 用户: {}, 角色: {}, URI: {}, 方法: {}, IP: {}, 控制器: {}, 方法名: {}, 执行时间: {}ms",
-                        username, userRole, requestUri, method, ip, className, methodName, executionTime);
-            }
-
+            return new RequestInfo(getCurrentUsername(), getCurrentUserRole(),
+                    request.getRequestURI(), request.getMethod(), getClientIp());
         } catch (Exception e) {
-            logger.error("记录请求结束日志失败", e);
+            logger.debug("获取请求信息失败", e);
+            return new RequestInfo(getCurrentUsername(), getCurrentUserRole(), "未知URI", "未知方法", "未知IP");
         }
     }
 
     /**
      * 记录操作日志
+     * 只在请求线程上组装一个OperationLog对象并放入异步写入器的缓冲区，不做序列化和数据库写入
      */
     private void logOperation(ProceedingJoinPoint joinPoint, Object result, long startTime, Exception exception) {
         try {
-            String className = joinPoint.getTarget().getClass().getSimpleName();
-            String methodName = joinPoint.getSignature().getName();
-            Object[] args = joinPoint.getArgs();
-
-            // 获取当前用户信息
-            String username = getCurrentUsername();
-            String userRole = getCurrentUserRole();
-
-            // 获取请求信息
-            String requestUri = request.getRequestURI();
-            String ip = getClientIp();
-
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            // 构造操作日志信息
-            Map<String, Object> operationLog = new HashMap<>();
-            operationLog.put("username", username);
-            operationLog.put("role", userRole);
-            operationLog.put("operationType", className + "." + methodName);
-            operationLog.put("description", "用户操作");
-            operationLog.put("method", requestUri);
-            operationLog.put("params", args.length > 0 ? Arrays.toString(args) : "无参数");
-            operationLog.put("result", result != null ? "成功" : "失败");
-            operationLog.put("executionTime", executionTime);
-            operationLog.put("ip", ip);
-            operationLog.put("status", exception == null ? 1 : 0);
-            operationLog.put("errorMessage", exception != null ? exception.getMessage() : "");
-            operationLog.put("createTime", LocalDateTime.now());
-
-            if (exception != null) {
-                logger.warn("用户操作异常 - 操作日志: {}", objectMapper.writeValueAsString(operationLog), exception);
-            } else {
-                logger.info("用户操作成功 - 操作日志: {}", objectMapper.writeValueAsString(operationLog));
-            }
-
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            boolean authenticated = authentication != null && authentication.isAuthenticated();
+
+            OperationLog operationLog = new OperationLog();
+            operationLog.setUsername(authenticated ? authentication.getName() : "匿名用户");
+            operationLog.setRole(authenticated ? resolveRole(authentication) : null);
+            operationLog.setOperationType(signature.getDeclaringType().getSimpleName() + "." + signature.getName());
+            operationLog.setDescription("用户操作");
+            operationLog.setMethod(request.getRequestURI());
+            operationLog.setParams(parameterSignatures.computeIfAbsent(signature.getMethod(),
+                    method -> describeParameters(signature)));
+            operationLog.setResult(exception == null ? "成功" : "失败");
+            operationLog.setExecutionTime(System.currentTimeMillis() - startTime);
+            operationLog.setIp(getClientIp());
+            operationLog.setStatus(exception == null ? 1 : 0);
+            operationLog.setErrorMessage(exception != null ? truncate(exception.getMessage(), MAX_ERROR_LENGTH) : null);
+            operationLog.setCreateTime(LocalDateTime.now());
+
+            operationLogWriter.publish(operationLog);
         } catch (Exception e) {
             logger.error("记录操作日志失败", e);
         }
     }
 
+    /**
+     * 生成参数描述，形如 {@code (Long id, Menu menu)}；取不到参数名时只列类型
+     */
+    private static String describeParameters(MethodSignature signature) {
+        Class<?>[] types = signature.getParameterTypes();
+        if (types.length == 0) {
+            return "无参数";
+        }
+        String[] names = signature.getParameterNames();
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(types[i].getSimpleName());
+            if (names != null && i < names.length) {
+                builder.append(' ').append(names[i]);
+            }
+        }
+        return truncate(builder.append(')').toString(), MAX_PARAMS_LENGTH);
+    }
+
+    /**
+     * 把认证信息中的角色转换为操作日志的角色代码（1管理员，0普通用户）
+     */
+    private static Integer resolveRole(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
     /**
      * 获取当前用户名
      */
@@ -254,4 +412,93 @@ public class LoggingAspect {
             return "未知IP";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 单个接口的日志策略和计时器
+     */
+    private static final class EndpointPolicy {
+
+        private final String name;
+        private final double sampleRate;
+        private final Timer successTimer;
+        private final Timer errorTimer;
+
+        private EndpointPolicy(String name, double sampleRate, Timer successTimer, Timer errorTimer) {
+            this.name = name;
+            this.sampleRate = sampleRate;
+            this.successTimer = successTimer;
+            this.errorTimer = errorTimer;
+        }
+
+        private boolean sample() {
+            if (sampleRate >= 1.0) {
+                return true;
+            }
+            if (sampleRate <= 0.0) {
+                return false;
+            }
+            return ThreadLocalRandom.current().nextDouble() < sampleRate;
+        }
+    }
+
+    /**
+     * 一次请求的用户和来源信息
+     */
+    private static final class RequestInfo {
+
+        private final String username;
+        private final String role;
+        private final String uri;
+        private final String method;
+        private final String ip;
+
+        private RequestInfo(String username, String role, String uri, String method, String ip) {
+            this.username = username;
+            this.role = role;
+            this.uri = uri;
+            this.method = method;
+            this.ip = ip;
+        }
+
+        @Override
+        public String toString() {
+            return "用户: " + username + ", 角色: " + role + ", URI: " + uri + ", 方法: " + method + ", IP: " + ip;
+        }
+    }
+
+    /**
+     * 延迟渲染的方法参数，只有日志真正输出时才拼接字符串，并按长度截断
+     */
+    static final class LazyArgs {
+
+        private final Object[] args;
+        private final int maxLength;
+
+        LazyArgs(Object[] args, int maxLength) {
+            this.args = args;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public String toString() {
+            if (args == null || args.length == 0) {
+                return "无参数";
+            }
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(args[i]);
+                if (builder.length() > maxLength) {
+                    break;
+                }
+            }
+            if (builder.length() > maxLength) {
+                builder.setLength(maxLength);
+                return builder.append("...(已截断)").toString();
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package tech.chhsich.backend.aspect;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标切面
+ *
+ * <p>为核心服务（OrderService、OrderStateMachine、MenuService、ShoppingCartService）和所有Mapper调用
+ * 记录耗时直方图，标签为类名、方法名、结果和异常类型：</p>
+ * <ul>
+ *     <li>{@code service.method.duration}：服务方法耗时</li>
+ *     <li>{@code db.mapper.duration}：Mapper方法耗时</li>
+ *     <li>{@code http.request.db.calls}：每个HTTP请求（按控制器方法）调用Mapper的次数，用于发现N+1查询</li>
+ * </ul>
+ *
+ * <p>成功调用的计时器按方法缓存，热路径上只有一次Map查找；失败调用按异常类型注册计时器。
+ * 服务内部的自调用不经过代理，不会被计时。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ERROR = "error";
+    private static final String NO_EXCEPTION = "none";
+
+    /**
+     * 当前线程正在处理的HTTP请求的Mapper调用次数，不在请求中时为null
+     */
+    private static final ThreadLocal<int[]> REQUEST_DB_CALLS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean percentileHistogram;
+
+    private final Map<Class<?>, Map<Method, Timer>> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Method, Timer>> mapperTimers = new ConcurrentHashMap<>();
+    private final Map<Method, DistributionSummary> requestDbCalls = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry meterRegistry,
+                         @Value("${app.metrics.percentile-histogram:true}") boolean percentileHistogram) {
+        this.meterRegistry = meterRegistry;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * 定义切点：需要计时的服务
+     */
+    @Pointcut("execution(public * tech.chhsich.backend.service.OrderService.*(..)) || " +
+            "execution(public * tech.chhsich.backend.service.OrderStateMachine.*(..)) || " +
+            "execution(public * tech.chhsich.backend.service.MenuService.*(..)) || " +
+            "execution(public * tech.chhsich.backend.service.ShoppingCartService.*(..))")
+    public void servicePointcut() {}
+
+    /**
+     * 定义切点：所有Mapper方法（包括继承自BaseMapper的方法）
+     */
+    @Pointcut("execution(* tech.chhsich.backend.mapper..*.*(..)) || " +
+            "execution(* com.baomidou.mybatisplus.core.mapper.BaseMapper+.*(..))")
+    public void mapperPointcut() {}
+
+    /**
+     * 定义切点：所有Controller方法
+     */
+    @Pointcut("execution(* tech.chhsich.backend.controller..*.*(..))")
+    public void controllerPointcut() {}
+
+    /**
+     * 服务方法计时
+     */
+    @Around("servicePointcut()")
+    public Object aroundService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, "service.method.duration", serviceTimers);
+    }
+
+    /**
+     * Mapper方法计时，并累加当前请求的数据库调用次数
+     */
+    @Around("mapperPointcut()")
+    public Object aroundMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] calls = REQUEST_DB_CALLS.get();
+        if (calls != null) {
+            calls[0]++;
+        }
+        return timed(joinPoint, "db.mapper.duration", mapperTimers);
+    }
+
+    /**
+     * 统计每个HTTP请求的数据库调用次数
+     */
+    @Around("controllerPointcut()")
+    public Object aroundController(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (REQUEST_DB_CALLS.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        int[] calls = new int[1];
+        REQUEST_DB_CALLS.set(calls);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            REQUEST_DB_CALLS.remove();
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            requestDbCalls.computeIfAbsent(method, this::requestDbCallsSummary).record(calls[0]);
+        }
+    }
+
+    private Object timed(ProceedingJoinPoint joinPoint, String name,
+                         Map<Class<?>, Map<Method, Timer>> cache) throws Throwable {
+        long startNanos = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimer(joinPoint, name, cache).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(name, componentName(joinPoint), joinPoint.getSignature().getName(),
+                    OUTCOME_ERROR, e.getClass().getSimpleName())
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer successTimer(ProceedingJoinPoint joinPoint, String name,
+                               Map<Class<?>, Map<Method, Timer>> cache) {
+        Class<?> targetClass = joinPoint.getTarget() != null ? joinPoint.getTarget().getClass() : Object.class;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return cache.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> timer(name, componentName(joinPoint), method.getName(),
+                        OUTCOME_SUCCESS, NO_EXCEPTION));
+    }
+
+    private Timer timer(String name, String component, String method, String outcome, String exception) {
+        Timer.Builder builder = Timer.builder(name)
+                .tag("class", component)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .tag("exception", exception);
+        if (percentileHistogram) {
+            builder.publishPercentileHistogram();
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private DistributionSummary requestDbCallsSummary(Method method) {
+        DistributionSummary.Builder builder = DistributionSummary.builder("http.request.db.calls")
+                .description("每个HTTP请求调用Mapper的次数")
+                .tag("controller", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName());
+        if (percentileHistogram) {
+            builder.publishPercentileHistogram();
+        }
+        return builder.register(meterRegistry);
+    }
+
+    /**
+     * 获取被调用组件的名称；Mapper由MyBatis的JDK动态代理实现，取其接口名
+     */
+    private static String componentName(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        if (target == null) {
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        }
+        Class<?> targetClass = target.getClass();
+        if (Proxy.isProxyClass(targetClass) && targetClass.getInterfaces().length > 0) {
+            return targetClass.getInterfaces()[0].getSimpleName();
+        }
+        return targetClass.getSimpleName();
+    }
+}
@@ -0,0 +1,67 @@
+package tech.chhsich.backend.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 缓存值编解码器
+ *
+ * <p>使用Jackson的Smile二进制格式：字段名和重复字符串以back-reference压缩，体积明显小于JSON，
+ * 也不要求实体实现 {@link java.io.Serializable}。未知字段被忽略，实体增加字段后旧缓存仍可读取。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class CacheCodec {
+
+    private final ObjectMapper objectMapper = new ObjectMapper(new SmileFactory())
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * @param type 值类型
+     * @return 对应的Jackson类型
+     */
+    public JavaType type(Class<?> type) {
+        return objectMapper.constructType(type);
+    }
+
+    /**
+     * @param elementType 元素类型
+     * @return 元素类型的List对应的Jackson类型
+     */
+    public JavaType listOf(Class<?> elementType) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    /**
+     * @param value 要编码的值
+     * @return 编码后的字节
+     */
+    public byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("缓存值编码失败: " + value.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * @param bytes 编码后的字节
+     * @param type 值类型
+     * @return 解码后的值
+     */
+    public <T> T decode(byte[] bytes, JavaType type) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("缓存值解码失败: " + type, e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tech.chhsich.backend.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的共享缓存实现
+ *
+ * <p>单节点部署和测试时使用，不需要Redis。广播消息同步投递给本进程的订阅者。
+ * 条目数达到上限时先清理过期条目，仍然已满则不再写入新键。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class InMemorySharedCache implements SharedCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemorySharedCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void publish(String message) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return 当前条目数（包括尚未清理的过期条目）
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static final class Entry {
+
+        private final byte[] value;
+        private final long expiresAtMillis;
+
+        private Entry(byte[] value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package tech.chhsich.backend.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于Redis的共享缓存实现
+ *
+ * <p>值以原始字节保存在 {@code 前缀 + 键} 下，广播通过Redis发布/订阅完成。
+ * Redis不可用时读取按未命中处理，写入和广播被跳过，并累加 {@code cache.l2.errors} 计数，
+ * 请求仍然可以从数据库得到结果。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class RedisSharedCache implements SharedCache, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedCache.class);
+
+    private final String keyPrefix;
+    private final String channel;
+    private final MeterRegistry meterRegistry;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisSharedCache(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                            String keyPrefix, String channel) {
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+        this.meterRegistry = meterRegistry;
+
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        this.stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            for (Consumer<String> listener : listeners) {
+                try {
+                    listener.accept(body);
+                } catch (RuntimeException e) {
+                    logger.warn("处理缓存广播消息失败: {}", e.getMessage());
+                }
+            }
+        }, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            return redisTemplate.opsForValue().get(keyPrefix + key);
+        } catch (RuntimeException e) {
+            failed("get", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + key, value, ttl);
+        } catch (RuntimeException e) {
+            failed("put", e);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        try {
+            redisTemplate.delete(keyPrefix + key);
+        } catch (RuntimeException e) {
+            failed("evict", e);
+        }
+    }
+
+    @Override
+    public void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            failed("publish", e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        meterRegistry.counter("cache.l2.errors", "operation", operation).increment();
+        logger.debug("Redis缓存操作失败: {} {}", operation, e.getMessage());
+    }
+}
@@ -0,0 +1,48 @@
+package tech.chhsich.backend.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * 多节点共享的二级缓存
+ *
+ * <p>保存序列化后的字节，并提供一个广播通道，用于通知所有节点清除各自的本地缓存。
+ * 实现必须容忍后端不可用：读取失败按未命中处理，写入和广播失败只记录，不抛出异常。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public interface SharedCache {
+
+    /**
+     * @param key 缓存键
+     * @return 缓存的字节，未命中或出错时返回null
+     */
+    byte[] get(String key);
+
+    /**
+     * @param key 缓存键
+     * @param value 序列化后的值
+     * @param ttl 过期时间
+     */
+    void put(String key, byte[] value, Duration ttl);
+
+    /**
+     * @param key 缓存键
+     */
+    void evict(String key);
+
+    /**
+     * 向所有节点（包括自身）广播一条消息
+     *
+     * @param message 消息内容
+     */
+    void publish(String message);
+
+    /**
+     * 订阅广播消息
+     *
+     * @param listener 消息处理器，在接收线程上调用
+     */
+    void subscribe(Consumer<String> listener);
+}
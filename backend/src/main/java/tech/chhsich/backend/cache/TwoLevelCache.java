@@ -0,0 +1,244 @@
+package tech.chhsich.backend.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 两级缓存
+ *
+ * <p>一级为本节点内存中的已解码对象，二级为 {@link SharedCache}（Redis或进程内实现）中的
+ * Smile字节。读取顺序为一级、二级、数据库，加载结果回填两级缓存。</p>
+ *
+ * <p>写操作调用 {@link #invalidate(String)}：清除本节点的两级缓存，并通过共享缓存的广播通道
+ * 通知其他节点清除各自的一级缓存。处于事务中时，事务结束后会再清除并广播一次，避免事务期间
+ * 本节点或其他节点的读取把提交前的旧数据留在缓存中。</p>
+ *
+ * <p>一级缓存中的对象被所有请求共享，调用方不得修改；需要修改的数据（如购物车）应只使用二级缓存，
+ * 每次读取都会得到新解码的对象。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class TwoLevelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private static final char MESSAGE_SEPARATOR = '|';
+
+    private final SharedCache sharedCache;
+    private final CacheCodec codec = new CacheCodec();
+    private final int localMaxSize;
+    private final Duration defaultTtl;
+
+    /**
+     * 本节点标识，用于忽略自己发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, LocalEntry> local = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter localHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+
+    public TwoLevelCache(SharedCache sharedCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.cache.l1.max-size:10000}") int localMaxSize,
+                         @Value("${app.cache.ttl:3600}") long ttlSeconds) {
+        this.sharedCache = sharedCache;
+        this.localMaxSize = Math.max(1, localMaxSize);
+        this.defaultTtl = Duration.ofSeconds(Math.max(1, ttlSeconds));
+        this.localHits = meterRegistry.counter("cache.requests", "level", "l1", "result", "hit");
+        this.sharedHits = meterRegistry.counter("cache.requests", "level", "l2", "result", "hit");
+        this.misses = meterRegistry.counter("cache.requests", "level", "l2", "result", "miss");
+        sharedCache.subscribe(this::onMessage);
+    }
+
+    /**
+     * @return 值编解码器，用于构造值类型
+     */
+    public CacheCodec codec() {
+        return codec;
+    }
+
+    /**
+     * 读取缓存，未命中时加载并回填
+     *
+     * @param key 缓存键
+     * @param type 值类型
+     * @param useLocal 是否使用一级缓存
+     * @param ttl 过期时间，为null时使用 {@code app.cache.ttl}
+     * @param loader 未命中时的加载函数；返回null时不缓存
+     * @return 缓存值或加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, JavaType type, boolean useLocal, Duration ttl, Supplier<T> loader) {
+        Duration effectiveTtl = ttl != null ? ttl : defaultTtl;
+        if (useLocal) {
+            LocalEntry entry = local.get(key);
+            if (entry != null) {
+                if (entry.expiresAtMillis > currentTimeMillis()) {
+                    localHits.increment();
+                    return (T) entry.value;
+                }
+                local.remove(key, entry);
+            }
+        }
+
+        byte[] bytes = sharedCache.get(key);
+        if (bytes != null) {
+            try {
+                T value = codec.decode(bytes, type);
+                sharedHits.increment();
+                if (useLocal) {
+                    putLocal(key, value, effectiveTtl);
+                }
+                return value;
+            } catch (IllegalStateException e) {
+                logger.debug("缓存值无法解码，重新加载: {}", key, e);
+                sharedCache.evict(key);
+            }
+        }
+
+        misses.increment();
+        T value = loader.get();
+        if (value != null) {
+            sharedCache.put(key, codec.encode(value), effectiveTtl);
+            if (useLocal) {
+                putLocal(key, value, effectiveTtl);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 直接写入共享缓存，不通知其他节点
+     *
+     * @param key 缓存键
+     * @param value 新值
+     */
+    public void putShared(String key, Object value) {
+        sharedCache.put(key, codec.encode(value), defaultTtl);
+    }
+
+    /**
+     * 直接写入共享缓存，并通知其他节点该键已变化
+     *
+     * @param key 缓存键
+     * @param value 新值
+     */
+    public void putAndBroadcast(String key, Object value) {
+        sharedCache.put(key, codec.encode(value), defaultTtl);
+        local.remove(key);
+        broadcast(key);
+    }
+
+    /**
+     * 使缓存键失效：清除本节点两级缓存并通知其他节点清除一级缓存
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(String key) {
+        evictBoth(key);
+        broadcast(key);
+        afterTransaction(() -> {
+            evictBoth(key);
+            broadcast(key);
+        });
+    }
+
+    /**
+     * 只清除共享缓存中的键，用于不进入一级缓存的数据
+     *
+     * @param key 缓存键
+     */
+    public void invalidateShared(String key) {
+        sharedCache.evict(key);
+        afterTransaction(() -> sharedCache.evict(key));
+    }
+
+    /**
+     * 注册其他节点使缓存键失效时的回调
+     *
+     * @param listener 回调，参数为失效的缓存键
+     */
+    public void onRemoteInvalidation(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void evictBoth(String key) {
+        local.remove(key);
+        sharedCache.evict(key);
+    }
+
+    private void broadcast(String key) {
+        sharedCache.publish(nodeId + MESSAGE_SEPARATOR + key);
+    }
+
+    private void afterTransaction(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private void onMessage(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+            return;
+        }
+        String key = message.substring(separator + 1);
+        local.remove(key);
+        for (Consumer<String> listener : invalidationListeners) {
+            listener.accept(key);
+        }
+    }
+
+    private void putLocal(String key, Object value, Duration ttl) {
+        if (local.size() >= localMaxSize && !local.containsKey(key)) {
+            long now = currentTimeMillis();
+            local.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            if (local.size() >= localMaxSize) {
+                return;
+            }
+        }
+        local.put(key, new LocalEntry(value, currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private static final class LocalEntry {
+
+        private final Object value;
+        private final long expiresAtMillis;
+
+        private LocalEntry(Object value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
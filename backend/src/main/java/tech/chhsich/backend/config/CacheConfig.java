@@ -0,0 +1,41 @@
+package tech.chhsich.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import tech.chhsich.backend.cache.InMemorySharedCache;
+import tech.chhsich.backend.cache.RedisSharedCache;
+import tech.chhsich.backend.cache.SharedCache;
+
+/**
+ * 二级缓存配置
+ * {@code app.cache.l2.type=redis} 时使用Redis，多节点共享缓存并广播失效消息；
+ * 默认使用进程内实现，单节点部署和测试不需要Redis
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 提供共享缓存
+     *
+     * @return SharedCache实例
+     */
+    @Bean
+    public SharedCache sharedCache(@Value("${app.cache.l2.type:memory}") String type,
+                                   @Value("${app.cache.l2.key-prefix:weborder:}") String keyPrefix,
+                                   @Value("${app.cache.l2.channel:weborder:cache:invalidate}") String channel,
+                                   @Value("${app.cache.l2.max-entries:100000}") int maxEntries,
+                                   ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                   MeterRegistry meterRegistry) {
+        if ("redis".equalsIgnoreCase(type)) {
+            return new RedisSharedCache(connectionFactory.getObject(), meterRegistry, keyPrefix, channel);
+        }
+        return new InMemorySharedCache(maxEntries);
+    }
+}
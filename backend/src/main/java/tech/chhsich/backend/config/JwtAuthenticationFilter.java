@@ -1,10 +1,13 @@
 package tech.chhsich.backend.config;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,12 +17,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import tech.chhsich.backend.utils.JwtPrincipal;
 import tech.chhsich.backend.utils.JwtUtil;
+import tech.chhsich.backend.utils.VerifiedTokenCache;
 import tech.chhsich.backend.exception.AuthenticationException;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Map;
 
 /**
  * JWT认证过滤器
@@ -31,11 +34,19 @@ import java.util.Map;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // GenericFilterBean已有名为logger的commons-logging字段，这里使用log避免遮蔽
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PublicPathMatcher publicPathMatcher;
     private UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache,
+                                   PublicPathMatcher publicPathMatcher) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.publicPathMatcher = publicPathMatcher;
     }
 
     @Autowired
@@ -58,33 +69,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // 3. 验证token有效性
-            if (!jwtUtil.validateToken(token)) {
-                throw new AuthenticationException("无效的JWT token");
-            }
-
-            // 4. 检查token是否过期
-            if (jwtUtil.isTokenExpired(token)) {
-                throw new AuthenticationException("JWT token已过期");
+            // 3. 一次性校验签名和过期时间，并提取用户信息（已校验过的token直接取缓存结果）
+            JwtPrincipal principal = verifiedTokenCache.get(token);
+            if (principal == null) {
+                try {
+                    principal = jwtUtil.verifyAndExtract(token);
+                } catch (TokenExpiredException e) {
+                    throw new AuthenticationException("JWT token已过期");
+                } catch (JWTVerificationException e) {
+                    throw new AuthenticationException("无效的JWT token");
+                }
+                verifiedTokenCache.put(token, principal);
             }
 
-            // 5. 从token中获取用户名
-            String username = jwtUtil.getUsernameFromToken(token);
+            // 4. 检查用户名
+            String username = principal.getUsername();
             if (username == null) {
                 throw new AuthenticationException("无法从token中获取用户信息");
             }
 
-            // 6. 如果用户还未认证，则进行认证
+            // 5. 如果用户还未认证，则进行认证
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                // 从token中获取角色信息
-                Map<String, Object> claims = jwtUtil.getClaimsFromToken(token);
-                Integer role = claims != null && claims.containsKey("role") ? (Integer) claims.get("role") : null;
-
                 // 创建自定义的UserDetails，包含角色信息
                 UserDetails userDetails = org.springframework.security.core.userdetails.User
                     .withUsername(username)
                     .password("") // JWT认证不需要密码
-                    .authorities(role != null && role == 1 ? "ROLE_ADMIN" : "ROLE_USER")
+                    .authorities(principal.isAdmin() ? "ROLE_ADMIN" : "ROLE_USER")
                     .build();
 
                 // 创建认证令牌
@@ -103,7 +113,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
 
-            // 7. 继续过滤器链
+            // 6. 继续过滤器链
             filterChain.doFilter(request, response);
 
         } catch (AuthenticationException e) {
@@ -135,45 +145,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     /**
      * 判断是否应该过滤该请求
-     * 跳过公开接口的JWT验证
+     * 跳过公开接口的JWT验证，公开路径由PublicPathMatcher在启动时编译
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        String contextPath = request.getContextPath();
-
-        // Debug logging
-        System.out.println("[JWT Filter] Path: " + path);
-        System.out.println("[JWT Filter] ContextPath: " + contextPath);
-
-        // 处理上下文路径，如果contextPath为空，则使用空字符串
-        String apiPrefix = contextPath.isEmpty() ? "/api" : contextPath + "/api";
-
-        System.out.println("[JWT Filter] API Prefix: " + apiPrefix);
-
-        // 检查是否是登录路径
-        boolean isLoginPath = path.startsWith(apiPrefix + "/user/login");
-        System.out.println("[JWT Filter] Is login path: " + isLoginPath);
-
-        // 不需要验证的公开路径（处理上下文路径）
-        boolean shouldNotFilter = path.startsWith(apiPrefix + "/user/register") ||
-               path.startsWith(apiPrefix + "/user/login") ||
-               path.startsWith(apiPrefix + "/admin/login") ||
-               path.startsWith("/swagger-ui") ||
-               path.startsWith("/v3/api-docs") ||
-               path.startsWith("/api-docs") ||
-               path.startsWith("/swagger-resources") ||
-               path.startsWith("/webjars") ||
-               path.startsWith("/actuator") ||
-               path.equals(apiPrefix + "/menu") ||
-               path.equals(apiPrefix + "/categories") ||
-               path.startsWith(apiPrefix + "/menu/") ||
-               path.startsWith(apiPrefix + "/categories/") ||
-               path.startsWith(apiPrefix + "/frontend/") ||
-               path.startsWith(apiPrefix + "/cart/");
-
-        System.out.println("[JWT Filter] Should not filter: " + shouldNotFilter);
-
-        return shouldNotFilter;
+        boolean publicPath = publicPathMatcher.matches(request.getRequestURI(), request.getContextPath());
+        if (log.isTraceEnabled()) {
+            log.trace("JWT过滤器 path={}, contextPath={}, publicPath={}",
+                    request.getRequestURI(), request.getContextPath(), publicPath);
+        }
+        return publicPath;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package tech.chhsich.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 公开路径匹配器
+ *
+ * <p>公开路径只在 {@code app.security.public-paths} 中配置一份，SecurityConfig据此放行，
+ * JwtAuthenticationFilter据此跳过token校验。支持两种写法：
+ * {@code /api/user/login} 精确匹配；{@code /api/menu/**} 匹配该路径本身及其下所有路径。</p>
+ *
+ * <p>启动时把所有模式按路径段编译成前缀树，匹配时沿请求路径逐段下行，耗时与路径长度成正比，
+ * 与公开路径的数量无关。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class PublicPathMatcher {
+
+    private static final String WILDCARD_SUFFIX = "/**";
+
+    private final String[] patterns;
+    private final Node root = new Node();
+
+    public PublicPathMatcher(@Value("${app.security.public-paths:}") String[] patterns) {
+        List<String> normalized = new ArrayList<>(patterns.length);
+        for (String pattern : patterns) {
+            String trimmed = pattern.trim();
+            if (!trimmed.isEmpty()) {
+                normalized.add(trimmed);
+                add(trimmed);
+            }
+        }
+        this.patterns = normalized.toArray(new String[0]);
+    }
+
+    /**
+     * @return 配置的公开路径模式（Ant风格），供Spring Security的requestMatchers使用
+     */
+    public String[] getPatterns() {
+        return patterns.clone();
+    }
+
+    /**
+     * 判断请求路径是否为公开路径
+     *
+     * @param requestUri 请求URI
+     * @param contextPath 应用上下文路径，可以为空字符串
+     * @return 是公开路径返回true
+     */
+    public boolean matches(String requestUri, String contextPath) {
+        int start = 0;
+        if (contextPath != null && !contextPath.isEmpty() && requestUri.startsWith(contextPath)) {
+            start = contextPath.length();
+        }
+        return matches(requestUri, start);
+    }
+
+    /**
+     * 判断路径（不含上下文路径）是否为公开路径
+     *
+     * @param path 请求路径
+     * @return 是公开路径返回true
+     */
+    public boolean matches(String path) {
+        return matches(path, 0);
+    }
+
+    private boolean matches(String path, int start) {
+        Node node = root;
+        int length = path.length();
+        int position = start;
+        while (position < length) {
+            if (node.prefixTerminal) {
+                return true;
+            }
+            if (path.charAt(position) != '/') {
+                return false;
+            }
+            int end = path.indexOf('/', position + 1);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(path.substring(position + 1, end));
+            if (node == null) {
+                return false;
+            }
+            position = end;
+        }
+        return node.exactTerminal || node.prefixTerminal;
+    }
+
+    private void add(String pattern) {
+        boolean prefix = pattern.endsWith(WILDCARD_SUFFIX);
+        String path = prefix ? pattern.substring(0, pattern.length() - WILDCARD_SUFFIX.length()) : pattern;
+        if (!path.isEmpty() && !path.startsWith("/")) {
+            throw new IllegalArgumentException("公开路径必须以/开头: " + pattern);
+        }
+        if (path.contains("*")) {
+            throw new IllegalArgumentException("公开路径只支持末尾的/**通配: " + pattern);
+        }
+        Node node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        if (prefix) {
+            node.prefixTerminal = true;
+        } else {
+            node.exactTerminal = true;
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean exactTerminal;
+        boolean prefixTerminal;
+    }
+}
@@ -0,0 +1,16 @@
+package tech.chhsich.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 启用 {@code @Scheduled} 注解支持，用于销量刷新等后台任务
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -40,11 +40,14 @@ public class SecurityConfig {
      * - 管理员接口：需要ADMIN角色
      *
      * @param http HttpSecurity配置对象
+     * @param jwtAuthenticationFilter JWT认证过滤器
+     * @param publicPathMatcher 公开路径配置
      * @return 配置好的SecurityFilterChain
      * @throws Exception 配置失败时抛出异常
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   PublicPathMatcher publicPathMatcher) throws Exception {
         http
                 // 配置CSRF保护 - 为JWT API端点豁免CSRF
                 .csrf(csrf -> csrf
@@ -72,48 +75,22 @@ public class SecurityConfig {
                         // 放行OPTIONS请求（CORS预检）
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
-                        // 放行Swagger相关路径
-                        .requestMatchers(
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**",
-                                "/api-docs/**",
-                                "/swagger-ui.html",
-                                "/webjars/**",
-                                "/swagger-resources/**",
-                                "/swagger-config/**"
-                        ).permitAll()
+                        // 公开接口（Swagger、actuator、登录注册、菜单分类等），与JWT过滤器共用同一份配置
+                        .requestMatchers(publicPathMatcher.getPatterns()).permitAll()
 
-                        // 放行actuator健康检查端点
-                        .requestMatchers("/actuator/**").permitAll()
-
-                        // 公开接口 - 登录注册（必须放在管理员接口规则之前）
-                        .requestMatchers("/api/user/register").permitAll()
-                        .requestMatchers("/api/user/login").permitAll()
-                        .requestMatchers("/api/admin/login").permitAll()
-                        .requestMatchers("/api/admin/auth/login").permitAll()
+                        // 不强制认证但依赖JWT过滤器填充认证信息的接口
                         .requestMatchers("/api/admin/info").permitAll()
-                        .requestMatchers("/admin/login").permitAll()
-                        .requestMatchers("/admin/auth/login").permitAll()
                         .requestMatchers("/admin/info").permitAll()
-                        .requestMatchers("/WebOrderSystem/api/admin/login").permitAll()
-                        .requestMatchers("/WebOrderSystem/api/admin/auth/login").permitAll()
                         .requestMatchers("/WebOrderSystem/api/admin/info").permitAll()
-                        .requestMatchers("/WebOrderSystem/admin/login").permitAll()
-                        .requestMatchers("/WebOrderSystem/admin/auth/login").permitAll()
                         .requestMatchers("/WebOrderSystem/admin/info").permitAll()
 
-                        // 公开接口 - 菜单相关
-                        .requestMatchers("/api/menu/**").permitAll()
-                        .requestMatchers("/api/categories/**").permitAll()
-                        .requestMatchers("/api/frontend/**").permitAll()
-                        .requestMatchers("/api/cart/**").permitAll()
-                        // 由于有context-path，也需要匹配完整路径
-                        .requestMatchers("/WebOrderSystem/api/menu/**").permitAll()
-                        .requestMatchers("/WebOrderSystem/api/categories/**").permitAll()
-                        .requestMatchers("/WebOrderSystem/api/frontend/**").permitAll()
-                        .requestMatchers("/WebOrderSystem/api/cart/**").permitAll()
-
-                        // 需要认证的接口
+                        // actuator除公开的health和info外（如metrics）需要ADMIN角色
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/WebOrderSystem/actuator/**").hasRole("ADMIN")
+
+                        // 需要认证的接口（订单管理员列表需要ADMIN角色，必须在通用订单规则之前）
+                        .requestMatchers("/api/orders/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/WebOrderSystem/api/orders/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/orders/**").authenticated()
                         .requestMatchers("/WebOrderSystem/api/orders/**").authenticated()
 
@@ -2,7 +2,9 @@ package tech.chhsich.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import tech.chhsich.backend.interceptor.SqlBudgetInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -37,4 +39,20 @@ public class WebConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Registers the per-request SQL budget interceptor for all handler mappings.
+     *
+     * @param sqlBudgetInterceptor interceptor that counts statements per request and reports budget overruns
+     * @return a WebMvcConfigurer that adds the interceptor
+     */
+    @Bean
+    public WebMvcConfigurer sqlBudgetConfigurer(SqlBudgetInterceptor sqlBudgetInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(sqlBudgetInterceptor);
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package tech.chhsich.backend.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 公开只读接口的HTTP缓存响应
+ *
+ * <p>响应带强ETag和 {@code Cache-Control: public}，允许浏览器和CDN缓存。
+ * 请求的 {@code If-None-Match} 与ETag匹配时，Spring MVC直接返回304，不会序列化响应体；
+ * ETag来自内存中的目录快照或类别缓存，整个304过程不访问数据库。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class CacheableResponses {
+
+    private final CacheControl cacheControl;
+
+    public CacheableResponses(@Value("${app.http-cache.max-age:30}") long maxAgeSeconds,
+                              @Value("${app.http-cache.s-max-age:60}") long sharedMaxAgeSeconds) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                .cachePublic();
+    }
+
+    /**
+     * 构造可缓存的200响应
+     *
+     * @param etag 不含引号的ETag；为null时（如未启用缓存）返回不带缓存头的普通响应
+     * @param body 响应体
+     * @return 响应实体
+     */
+    public <T> ResponseEntity<T> ok(String etag, T body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+
+    /**
+     * 构造直接写出预渲染字节的可缓存200响应
+     *
+     * <p>请求接受gzip时写出压缩字节并带 {@code Content-Encoding: gzip}，否则写出原始JSON；
+     * 两种情况都带 {@code Vary: Accept-Encoding}，ETag随编码不同。</p>
+     *
+     * @param body 预渲染的响应体
+     * @param acceptEncoding 请求的 {@code Accept-Encoding} 头，可以为null
+     * @return 响应实体
+     */
+    public ResponseEntity<byte[]> ok(PrerenderedBody body, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (PrerenderedBody.acceptsGzip(acceptEncoding)) {
+            return builder.eTag(body.getGzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(body.getGzip());
+        }
+        return builder.eTag(body.getETag()).body(body.getJson());
+    }
+}
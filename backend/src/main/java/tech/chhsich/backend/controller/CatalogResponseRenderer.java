@@ -0,0 +1,85 @@
+package tech.chhsich.backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.entity.ResponseMessage;
+import tech.chhsich.backend.service.CatalogSnapshot;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 目录快照对应的预渲染响应
+ *
+ * <p>菜品列表和推荐菜品接口的响应体只取决于目录快照，因此每个快照只用Spring的 {@link ObjectMapper}
+ * 序列化一次 {@link ResponseMessage}，并压缩出gzip版本；之后同一快照的请求直接写出字节，不再经过Jackson。
+ * 结果按快照实例缓存，快照被替换后的第一次请求重新渲染。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class CatalogResponseRenderer {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Rendered rendered;
+
+    public CatalogResponseRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param snapshot 当前目录快照
+     * @return 所有上架菜品的响应体
+     */
+    public PrerenderedBody allMenus(CatalogSnapshot snapshot) {
+        return rendered(snapshot).allMenus;
+    }
+
+    /**
+     * @param snapshot 当前目录快照
+     * @return 推荐菜品的响应体
+     */
+    public PrerenderedBody recommendedMenus(CatalogSnapshot snapshot) {
+        return rendered(snapshot).recommendedMenus;
+    }
+
+    private Rendered rendered(CatalogSnapshot snapshot) {
+        Rendered current = rendered;
+        if (current != null && current.snapshot == snapshot) {
+            return current;
+        }
+        // 并发时可能重复渲染，结果相同；不用旧快照的结果覆盖新快照的
+        Rendered fresh = new Rendered(snapshot,
+                render(snapshot.getETag(), snapshot.getMenus()),
+                render(snapshot.getETag(), snapshot.getRecommended()));
+        current = rendered;
+        if (current == null || current.snapshot.getVersion() <= snapshot.getVersion()) {
+            rendered = fresh;
+        }
+        return fresh;
+    }
+
+    private PrerenderedBody render(String etag, List<?> data) {
+        try {
+            return PrerenderedBody.of(etag, objectMapper.writeValueAsBytes(ResponseMessage.success(data)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Rendered {
+
+        private final CatalogSnapshot snapshot;
+        private final PrerenderedBody allMenus;
+        private final PrerenderedBody recommendedMenus;
+
+        private Rendered(CatalogSnapshot snapshot, PrerenderedBody allMenus, PrerenderedBody recommendedMenus) {
+            this.snapshot = snapshot;
+            this.allMenus = allMenus;
+            this.recommendedMenus = recommendedMenus;
+        }
+    }
+}
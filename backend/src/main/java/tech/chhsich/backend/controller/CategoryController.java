@@ -17,26 +17,30 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CacheableResponses cacheableResponses;
 
     /**
      * Creates a CategoryController wired with the required CategoryService.
      */
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CacheableResponses cacheableResponses) {
         this.categoryService = categoryService;
+        this.cacheableResponses = cacheableResponses;
     }
 
     /**
      * Retrieve all available dish categories.
      *
      * Returns an HTTP 200 response containing a list of Ltype objects representing all categories.
+     * The response carries a strong ETag; a matching If-None-Match yields HTTP 304 without a body.
      *
      * @return ResponseEntity<List<Ltype>> with the list of categories (HTTP 200)
      */
     @Operation(summary = "获取所有分类", description = "获取所有可用的菜品分类")
     @GetMapping
     public ResponseEntity<List<Ltype>> getAllCategories() {
+        String etag = categoryService.getAllCategoriesETag();
         List<Ltype> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return cacheableResponses.ok(etag, categories);
     }
 
     /**
@@ -4,15 +4,20 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import tech.chhsich.backend.dto.MenuSuggestion;
+import tech.chhsich.backend.dto.TrendingMenuDTO;
 import tech.chhsich.backend.entity.Menu;
 import tech.chhsich.backend.entity.ResponseMessage;
+import tech.chhsich.backend.service.CatalogSnapshot;
+import tech.chhsich.backend.service.HotSalesBoard;
 import tech.chhsich.backend.service.MenuService;
+import tech.chhsich.backend.service.MenuSuggester;
+import tech.chhsich.backend.service.TrendingService;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 前台菜单管理控制器
@@ -34,6 +39,18 @@ public class FrontendMenuController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private CacheableResponses cacheableResponses;
+
+    @Autowired
+    private CatalogResponseRenderer catalogResponseRenderer;
+
+    @Autowired
+    private MenuSuggester menuSuggester;
+
+    @Autowired
+    private TrendingService trendingService;
+
     /**
      * 获取所有可用的菜品列表
      *
@@ -41,16 +58,24 @@ public class FrontendMenuController {
      * 基于项目设计文档第6.3.1节系统主页面实现，
      * 支持普通用户的菜单浏览需求。
      *
+     * 响应带目录ETag，If-None-Match匹配时返回304。响应体在每个目录快照上只序列化一次，
+     * 按Accept-Encoding直接写出JSON或gzip字节。
+     *
+     * @param acceptEncoding 请求的Accept-Encoding头
      * @return ResponseMessage 包含可用菜品列表的响应对象
      */
     @GetMapping
     @Operation(summary = "获取所有可用菜品", description = "获取系统中所有上架的可供用户浏览的菜品列表")
-    public ResponseMessage getAllAvailableMenus() {
+    public ResponseEntity<?> getAllAvailableMenus(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Menu> menus = menuService.getAllAvailableMenus();
-            return ResponseMessage.success(menus);
+            CatalogSnapshot snapshot = menuService.getCatalogSnapshot();
+            if (snapshot != null) {
+                return cacheableResponses.ok(catalogResponseRenderer.allMenus(snapshot), acceptEncoding);
+            }
+            return ResponseEntity.ok(ResponseMessage.success(menuService.getAllAvailableMenus()));
         } catch (Exception e) {
-            return ResponseMessage.error("获取菜品列表失败: " + e.getMessage());
+            return ResponseEntity.ok(ResponseMessage.error("获取菜品列表失败: " + e.getMessage()));
         }
     }
 
@@ -111,72 +136,78 @@ public class FrontendMenuController {
      * 基于项目设计文档第5.4节菜单信息表设计中的newstuijian字段，
      * 为用户提供推荐菜品浏览。
      *
+     * 响应带目录ETag，If-None-Match匹配时返回304。响应体与菜品列表一样按目录快照预渲染。
+     *
+     * @param acceptEncoding 请求的Accept-Encoding头
      * @return ResponseMessage 包含推荐菜品列表的响应对象
      */
     @GetMapping("/recommended")
     @Operation(summary = "获取推荐菜品", description = "获取系统中标记为推荐的菜品列表")
-    public ResponseMessage getRecommendedMenus() {
+    public ResponseEntity<?> getRecommendedMenus(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Menu> menus = menuService.getRecommendedMenus();
-            System.out.println("DEBUG: 获取到 " + menus.size() + " 个推荐菜品");
-
-            // 手动转换为包含价格字段的Map列表
-            List<Map<String, Object>> result = new ArrayList<>();
-            for (Menu menu : menus) {
-                Map<String, Object> item = new HashMap<>();
-                item.put("id", menu.getId());
-                item.put("createTime", menu.getCreateTime());
-                item.put("imgPath", menu.getImgPath());
-                item.put("info", menu.getInfo());
-                item.put("name", menu.getName());
-                item.put("isRecommend", menu.getIsRecommend());
-                item.put("originalPrice", menu.getOriginalPrice());
-                item.put("hotPrice", menu.getHotPrice());
-                item.put("productLock", menu.getProductLock());
-                item.put("sales", menu.getSales());
-                item.put("categoryId", menu.getCategoryId());
-                result.add(item);
-
-                System.out.println("DEBUG: 菜品 " + menu.getName() + " 价格字段: originalPrice=" + menu.getOriginalPrice() + ", hotPrice=" + menu.getHotPrice());
+            CatalogSnapshot snapshot = menuService.getCatalogSnapshot();
+            if (snapshot != null) {
+                return cacheableResponses.ok(catalogResponseRenderer.recommendedMenus(snapshot), acceptEncoding);
             }
-
-            return ResponseMessage.success(result);
+            return ResponseEntity.ok(ResponseMessage.success(menuService.getRecommendedMenus()));
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseMessage.error("获取推荐菜品失败: " + e.getMessage());
+            return ResponseEntity.ok(ResponseMessage.error("获取推荐菜品失败: " + e.getMessage()));
         }
     }
 
     /**
      * 搜索菜品
      *
-     * 提供菜品名称搜索功能。
+     * 提供菜品名称和简介的关键词搜索功能，结果按匹配程度和销量排序，支持分页。
      * 基于项目设计文档第6.3.1节系统主页面实现，
      * 支持用户通过关键词搜索菜品。
      *
-     * @param keyword 搜索关键词，进行URL编码处理
+     * @param keyword 搜索关键词，由Spring完成URL解码，为空时返回所有上架菜品
+     * @param page 页码，从1开始，默认第1页
+     * @param size 每页条数，默认及最大为 {@link MenuService#MAX_SEARCH_PAGE_SIZE}
      * @return ResponseMessage 包含搜索结果菜品列表的响应对象
      */
     @GetMapping("/search")
-    @Operation(summary = "搜索菜品", description = "根据菜品名称关键词搜索菜品，支持URL编码")
+    @Operation(summary = "搜索菜品", description = "根据关键词搜索菜品名称和简介，按匹配程度和销量排序，支持分页")
     public ResponseMessage searchMenus(
-            @RequestParam @Parameter(description = "搜索关键词") String keyword) {
+            @RequestParam @Parameter(description = "搜索关键词") String keyword,
+            @RequestParam(required = false) @Parameter(description = "页码，从1开始") Integer page,
+            @RequestParam(required = false) @Parameter(description = "每页条数") Integer size) {
         try {
-            // 处理URL编码和空值
-            if (keyword == null || keyword.trim().isEmpty()) {
-                List<Menu> menus = menuService.getAllAvailableMenus();
-                return ResponseMessage.success(menus);
-            }
-
-            // URL解码处理中文编码问题
-            String decodedKeyword = java.net.URLDecoder.decode(keyword, "UTF-8");
-            List<Menu> menus = menuService.searchMenus(decodedKeyword);
+            List<Menu> menus = menuService.searchMenus(keyword, page, size);
             return ResponseMessage.success(menus);
         } catch (Exception e) {
             return ResponseMessage.error("搜索菜品失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 搜索框输入提示
+     *
+     * 根据用户已输入的前缀返回匹配的菜品名称和类别名称，按销量从高到低排列，
+     * 供前台搜索框逐字输入时调用，不访问数据库。
+     *
+     * @param prefix 已输入的前缀，为空时返回空列表
+     * @param limit 返回数量限制，默认及最大为 app.suggest.top-k
+     * @return ResponseMessage 包含提示项列表的响应对象
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "搜索输入提示", description = "根据前缀返回匹配的菜品和分类名称，按销量排序")
+    public ResponseMessage suggest(
+            @RequestParam(defaultValue = "") @Parameter(description = "已输入的前缀") String prefix,
+            @RequestParam(required = false) @Parameter(description = "返回数量限制") Integer limit) {
+        try {
+            int max = menuSuggester.getTopK();
+            List<MenuSuggestion> suggestions = menuSuggester.suggest(prefix,
+                    limit == null || limit < 1 ? max : Math.min(limit, max));
+            return ResponseMessage.success(suggestions);
+        } catch (Exception e) {
+            return ResponseMessage.error("获取搜索提示失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取热销菜品列表
      *
@@ -184,18 +215,47 @@ public class FrontendMenuController {
      * 基于项目设计文档第5.4节菜单信息表设计中的xiaoliang字段，
      * 为用户展示销量高的热门菜品。
      *
+     * 响应带实时排名的ETag，If-None-Match匹配时返回304。
+     *
      * @param limit 返回数量限制，默认返回前10个热销菜品
      * @return ResponseMessage 包含热销菜品列表的响应对象
      */
     @GetMapping("/hot-sales")
     @Operation(summary = "获取热销菜品", description = "获取销量最高的菜品列表")
-    public ResponseMessage getHotSalesMenus(
+    public ResponseEntity<ResponseMessage> getHotSalesMenus(
+            @RequestParam(defaultValue = "10") @Parameter(description = "返回数量限制") Integer limit) {
+        try {
+            HotSalesBoard.Ranking ranking = menuService.getHotSalesRanking(limit);
+            if (ranking == null) {
+                return cacheableResponses.ok(null, ResponseMessage.success(menuService.getHotSalesMenus(limit)));
+            }
+            return cacheableResponses.ok(ranking.getETag(), ResponseMessage.success(ranking.getMenus()));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ResponseMessage.error("获取热销菜品失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取趋势菜品列表
+     *
+     * 按最近一段时间内的下单份数排序，与按累计销量排序的热销菜品不同，
+     * 反映近期的点单趋势。数据来自内存中的滑动窗口计数器，不访问订单表。
+     *
+     * @param window 统计窗口：1h、24h或7d，默认24h
+     * @param limit 返回数量限制，默认返回前10个
+     * @return ResponseMessage 包含趋势菜品列表的响应对象，每项带窗口内下单份数
+     */
+    @GetMapping("/trending")
+    @Operation(summary = "获取趋势菜品", description = "获取最近1小时、24小时或7天内下单份数最多的菜品")
+    public ResponseMessage getTrendingMenus(
+            @RequestParam(defaultValue = "24h") @Parameter(description = "统计窗口：1h、24h、7d") String window,
             @RequestParam(defaultValue = "10") @Parameter(description = "返回数量限制") Integer limit) {
         try {
-            List<Menu> menus = menuService.getHotSalesMenus(limit);
+            List<TrendingMenuDTO> menus = trendingService.getTrending(
+                    TrendingService.Window.fromParam(window), limit == null ? 0 : limit);
             return ResponseMessage.success(menus);
         } catch (Exception e) {
-            return ResponseMessage.error("获取热销菜品失败: " + e.getMessage());
+            return ResponseMessage.error("获取趋势菜品失败: " + e.getMessage());
         }
     }
 
@@ -206,17 +266,19 @@ public class FrontendMenuController {
      * 基于项目设计文档第6.3.1节系统主页面实现，
      * 支持用户按分类浏览菜品。
      *
+     * 响应带类别ETag，If-None-Match匹配时返回304。
+     *
      * @return ResponseMessage 包含分类列表的响应对象
      */
     @GetMapping("/categories")
     @Operation(summary = "获取所有菜品分类", description = "获取系统中所有的菜品分类信息")
-    public ResponseMessage getAllCategories() {
+    public ResponseEntity<ResponseMessage> getAllCategories() {
         try {
-            // 需要注入CategoryService
+            String etag = menuService.getCategoriesETag();
             List<tech.chhsich.backend.entity.Ltype> categories = menuService.getAllCategories();
-            return ResponseMessage.success(categories);
+            return cacheableResponses.ok(etag, ResponseMessage.success(categories));
         } catch (Exception e) {
-            return ResponseMessage.error("获取分类失败: " + e.getMessage());
+            return ResponseEntity.ok(ResponseMessage.error("获取分类失败: " + e.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package tech.chhsich.backend.controller;
 
 import lombok.Data;
+import tech.chhsich.backend.dto.OrderDetailDTO;
+import tech.chhsich.backend.dto.OrderTransitionResult;
 import tech.chhsich.backend.entity.OrderInfo;
 import tech.chhsich.backend.entity.OrderEntry;
 import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.exception.OrderIngestionRejectedException;
 import tech.chhsich.backend.exception.OrderStatusTransitionException;
+import tech.chhsich.backend.service.OrderIngestionPipeline;
 import tech.chhsich.backend.service.OrderService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,6 +26,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import java.util.Map;
 
@@ -30,14 +36,17 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIngestionPipeline orderIngestionPipeline;
 
     /**
      * Create a new OrderController wired with an OrderService.
      *
      * The provided OrderService is used to perform order-related operations delegated by this controller.
+     * When group-commit ingestion is enabled, order creation is routed through the OrderIngestionPipeline instead.
      */
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderIngestionPipeline orderIngestionPipeline) {
         this.orderService = orderService;
+        this.orderIngestionPipeline = orderIngestionPipeline;
     }
 
     // 创建订单请求DTO
@@ -61,65 +70,125 @@ public class OrderController {
     /**
      * Create a new order from the provided request payload.
      *
-     * The request is validated with Jakarta Bean Validation annotations on the DTO.
+     * The request is validated with Jakarta Bean Validation annotations on the DTO. When
+     * {@code app.order.ingest.enabled} is set, the order is committed together with other
+     * concurrent orders by the OrderIngestionPipeline.
      *
      * @param request the order creation payload (username, items, address, phone)
-     * @return 200 OK with the created OrderInfo on success; 400 Bad Request with an error message on failure
+     * @return 200 OK with the created OrderInfo on success; 400 Bad Request with an error message on failure;
+     *         429 Too Many Requests when the ingestion queue is full
      */
     @Operation(summary = "创建订单", description = "创建新的订单")
     @ApiResponse(responseCode = "200", description = "订单创建成功")
     @ApiResponse(responseCode = "400", description = "订单创建失败")
+    @ApiResponse(responseCode = "429", description = "下单请求过多")
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderCreateRequest request) {
         try {
-            OrderInfo order = orderService.createOrder(
-                    request.getUsername(),
-                    request.getItems(),
-                    request.getAddress(),
-                    request.getPhone()
-            );
+            OrderInfo order;
+            if (orderIngestionPipeline.isEnabled()) {
+                order = orderIngestionPipeline.createOrder(
+                        request.getUsername(),
+                        request.getItems(),
+                        request.getAddress(),
+                        request.getPhone()
+                );
+            } else {
+                order = orderService.createOrder(
+                        request.getUsername(),
+                        request.getItems(),
+                        request.getAddress(),
+                        request.getPhone()
+                );
+            }
             return ResponseEntity.ok(order);
+        } catch (OrderIngestionRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     /**
-     * Retrieve all orders for a given user.
+     * Retrieve one page of orders for a given user, newest first.
      *
-     * Returns the list of OrderInfo for the specified username.
+     * Pagination is cursor-based: pass the {@code nextCursor} of the previous response as {@code cursor}
+     * to fetch the next page. Page size is capped at {@link OrderService#MAX_PAGE_SIZE}.
      *
      * @param username the username whose orders are requested
-     * @return a ResponseEntity containing a list of OrderInfo (HTTP 200)
+     * @param status optional status code filter
+     * @param cursor continuation token from the previous page; omit for the first page
+     * @param size page size
+     * @return 200 OK with the page of OrderInfo; 400 Bad Request if the cursor is invalid
      */
-    @Operation(summary = "获取用户订单", description = "根据用户名获取所有订单")
+    @Operation(summary = "获取用户订单", description = "根据用户名分页获取订单，按创建时间倒序")
+    @ApiResponse(responseCode = "200", description = "获取成功")
+    @ApiResponse(responseCode = "400", description = "分页游标无效")
     @GetMapping("/user/{username}")
-    public ResponseEntity<List<OrderInfo>> getUserOrders(
-            @Parameter(description = "用户名", required = true) @PathVariable String username) {
-        List<OrderInfo> orders = orderService.getUserOrders(username);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getUserOrders(
+            @Parameter(description = "用户名", required = true) @PathVariable String username,
+            @Parameter(description = "订单状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "分页游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(orderService.getUserOrdersPage(username, status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
-     * Retrieve orders for the currently authenticated user.
+     * Retrieve one page of orders for the currently authenticated user.
      *
-     * <p>Finds the username from the security context, looks up their orders,
-     * and returns the list. If no user is found or no orders exist, returns
-     * empty list.</p>
+     * <p>Finds the username from the security context and returns a cursor page of their orders,
+     * newest first. If no orders exist, the page is empty.</p>
      *
-     * @return ResponseEntity containing a list of OrderInfo for the current user
+     * @param status optional status code filter
+     * @param cursor continuation token from the previous page; omit for the first page
+     * @param size page size
+     * @return 200 OK with the page of OrderInfo; 400 Bad Request if the cursor is invalid
      */
-    @Operation(summary = "获取当前用户订单", description = "获取当前登录用户的订单列表")
+    @Operation(summary = "获取当前用户订单", description = "分页获取当前登录用户的订单列表，按创建时间倒序")
     @ApiResponse(responseCode = "200", description = "获取成功")
+    @ApiResponse(responseCode = "400", description = "分页游标无效")
     @GetMapping
-    public ResponseEntity<List<OrderInfo>> getCurrentUserOrders() {
+    public ResponseEntity<?> getCurrentUserOrders(
+            @Parameter(description = "订单状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "分页游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(required = false) Integer size) {
         // 1. 获取当前认证用户信息
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = auth.getName();
 
         // 2. 获取用户订单
-        List<OrderInfo> orders = orderService.getUserOrders(currentUsername);
-        return ResponseEntity.ok(orders);
+        try {
+            return ResponseEntity.ok(orderService.getUserOrdersPage(currentUsername, status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve one page of all orders for the admin view, optionally filtered by status.
+     *
+     * @param status optional status code filter
+     * @param cursor continuation token from the previous page; omit for the first page
+     * @param size page size
+     * @return 200 OK with the page of OrderInfo; 400 Bad Request if the cursor is invalid
+     */
+    @Operation(summary = "管理员获取订单列表", description = "按状态分页获取所有订单，按创建时间倒序")
+    @ApiResponse(responseCode = "200", description = "获取成功")
+    @ApiResponse(responseCode = "400", description = "分页游标无效")
+    @GetMapping("/admin/all")
+    public ResponseEntity<?> getAllOrders(
+            @Parameter(description = "订单状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "分页游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPage(status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -144,6 +213,29 @@ public class OrderController {
         }
     }
 
+    /**
+     * Retrieve the full detail of an order in one call.
+     *
+     * Returns the order, its items, its status history, the available status transitions and whether the
+     * status is final, loaded with a fixed three queries.
+     *
+     * @param orderId the ID of the order to retrieve
+     * @return a ResponseEntity containing the OrderDetailDTO (200) or a 404 Not Found response if not present
+     */
+    @Operation(summary = "获取订单完整详情", description = "一次性获取订单、订单项、状态历史、可用状态转换和是否最终状态")
+    @ApiResponse(responseCode = "200", description = "获取成功")
+    @ApiResponse(responseCode = "404", description = "订单不存在")
+    @GetMapping("/{orderId}/detail")
+    public ResponseEntity<OrderDetailDTO> getOrderDetail(
+            @Parameter(description = "订单ID", required = true) @PathVariable String orderId) {
+        OrderDetailDTO detail = orderService.getOrderDetail(orderId);
+        if (detail != null) {
+            return ResponseEntity.ok(detail);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Retrieve all items for a given order.
      *
@@ -178,8 +270,7 @@ public class OrderController {
     public ResponseEntity<?> payOrder(
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId) {
         try {
-            OrderInfo order = orderService.payOrder(orderId);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.payOrder(orderId));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -195,8 +286,7 @@ public class OrderController {
     public ResponseEntity<?> startDelivery(
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId) {
         try {
-            OrderInfo order = orderService.startDelivery(orderId);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.startDelivery(orderId));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -212,8 +302,7 @@ public class OrderController {
     public ResponseEntity<?> confirmDelivery(
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId) {
         try {
-            OrderInfo order = orderService.confirmDelivery(orderId);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.confirmDelivery(orderId));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -230,8 +319,7 @@ public class OrderController {
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId,
             @Parameter(description = "取消原因", required = true) @RequestParam String reason) {
         try {
-            OrderInfo order = orderService.cancelOrder(orderId, reason);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.cancelOrder(orderId, reason));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -248,8 +336,7 @@ public class OrderController {
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId,
             @Parameter(description = "退款原因", required = true) @RequestParam String reason) {
         try {
-            OrderInfo order = orderService.requestRefund(orderId, reason);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.requestRefund(orderId, reason));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -266,13 +353,42 @@ public class OrderController {
             @Parameter(description = "订单ID", required = true) @PathVariable String orderId,
             @Parameter(description = "退款完成原因", required = true) @RequestParam String reason) {
         try {
-            OrderInfo order = orderService.completeRefund(orderId, reason);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.completeRefund(orderId, reason));
         } catch (OrderStatusTransitionException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * 批量状态转换（调度员批量派单等场景），仅管理员可用，操作人记入订单历史
+     */
+    @Operation(summary = "批量状态转换", description = "将多个订单批量转换到目标状态，逐个返回处理结果")
+    @ApiResponse(responseCode = "200", description = "处理完成")
+    @ApiResponse(responseCode = "400", description = "请求参数错误")
+    @PostMapping("/admin/bulk-transition")
+    public ResponseEntity<?> bulkTransition(@Valid @RequestBody BulkTransitionRequest request) {
+        OrderStatus targetStatus;
+        try {
+            targetStatus = OrderStatus.fromCode(request.getTargetStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("无效的目标状态: " + request.getTargetStatus());
+        }
+        String reason = request.getReason() != null ? request.getReason() : "批量" + targetStatus.getDescription();
+        try {
+            String operator = SecurityContextHolder.getContext().getAuthentication().getName();
+            List<OrderTransitionResult> results = orderService.bulkTransitionOrders(
+                    request.getOrderIds(), targetStatus, reason, operator);
+            long succeeded = results.stream().filter(OrderTransitionResult::isSuccess).count();
+            return ResponseEntity.ok(Map.of(
+                    "succeeded", succeeded,
+                    "failed", results.size() - succeeded,
+                    "results", results
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // ========== 订单条目管理 API ==========
 
     /**
@@ -400,6 +516,21 @@ public class OrderController {
 
     // ========== DTO 类定义 ==========
 
+    /**
+     * 批量状态转换请求DTO
+     */
+    @Data
+    public static class BulkTransitionRequest {
+        @NotEmpty(message = "订单ID列表不能为空")
+        @Size(max = OrderService.MAX_BULK_TRANSITION_SIZE, message = "单次最多处理500个订单")
+        private List<String> orderIds;
+
+        @NotNull(message = "目标状态不能为空")
+        private Integer targetStatus;
+
+        private String reason;
+    }
+
     /**
      * 创建订单条目请求DTO
      */
@@ -0,0 +1,100 @@
+package tech.chhsich.backend.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预先序列化的JSON响应体
+ *
+ * <p>同时保存原始字节和gzip压缩后的字节，按请求的 {@code Accept-Encoding} 选择其一直接写出。
+ * 两种表示的ETag不同（gzip版本带 {@code -gzip} 后缀），缓存不会把一种表示的304用于另一种。
+ * 对象构建后不再修改，字节数组为所有请求共享，调用方不得修改。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class PrerenderedBody {
+
+    private final String etag;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private PrerenderedBody(String etag, byte[] json, byte[] gzip) {
+        this.etag = etag;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * 由JSON字节构建，同时生成gzip版本
+     *
+     * @param etag 不含引号的ETag
+     * @param json UTF-8编码的JSON
+     * @return 预渲染响应体
+     */
+    public static PrerenderedBody of(String etag, byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PrerenderedBody(etag, json, buffer.toByteArray());
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    public String getGzipETag() {
+        return etag + "-gzip";
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * 判断 {@code Accept-Encoding} 是否接受gzip：{@code q=0} 表示拒绝，明确列出的gzip优先于通配符
+     *
+     * @param acceptEncoding 请求头的值，可以为null
+     * @return 是否接受gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return accepted(tokens);
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted(tokens);
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean accepted(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim()) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
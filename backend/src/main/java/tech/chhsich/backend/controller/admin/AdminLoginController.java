@@ -14,6 +14,7 @@ import tech.chhsich.backend.entity.Administrator;
 import tech.chhsich.backend.entity.ResponseMessage;
 import tech.chhsich.backend.mapper.AdminMapper;
 import tech.chhsich.backend.utils.JwtUtil;
+import tech.chhsich.backend.utils.VerifiedTokenCache;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,11 +31,14 @@ public class AdminLoginController {
     private final AdminMapper adminMapper;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public AdminLoginController(AdminMapper adminMapper, AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AdminLoginController(AdminMapper adminMapper, AuthenticationManager authenticationManager, JwtUtil jwtUtil,
+                                VerifiedTokenCache verifiedTokenCache) {
         this.adminMapper = adminMapper;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     /**
@@ -122,12 +126,15 @@ public class AdminLoginController {
 
     /**
      * 管理员登出
+     * 同时移除该token在已校验token缓存中的条目
      *
+     * @param authHeader Authorization请求头
      * @return 登出结果
      */
     @Operation(summary = "管理员登出", description = "管理员登出系统")
     @PostMapping("/logout")
-    public ResponseEntity<ResponseMessage> logout() {
+    public ResponseEntity<ResponseMessage> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        verifiedTokenCache.invalidate(jwtUtil.extractTokenFromHeader(authHeader));
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(ResponseMessage.success("登出成功"));
     }
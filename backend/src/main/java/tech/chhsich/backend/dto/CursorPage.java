@@ -0,0 +1,21 @@
+package tech.chhsich.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标（keyset）分页结果
+ *
+ * <p>{@code nextCursor} 是不透明的续页令牌，原样传回即可获取下一页；没有更多数据时为null。</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> records;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,15 @@
+package tech.chhsich.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单个订单条目的销量记录：菜品ID、份数和所属订单的创建时间
+ */
+@Data
+public class MenuSaleRecord {
+    private Long productId;
+    private Integer productNum;
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,19 @@
+package tech.chhsich.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索框输入提示项
+ *
+ * <p>{@code type} 为 {@code menu} 时 {@code id} 是菜品ID，为 {@code category} 时是类别ID。</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSuggestion {
+    private String text;
+    private String type;
+    private Long id;
+}
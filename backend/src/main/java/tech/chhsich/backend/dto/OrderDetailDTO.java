@@ -0,0 +1,28 @@
+package tech.chhsich.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.entity.OrderHistory;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * 订单详情聚合结果：订单、订单项、状态历史以及由当前状态推导出的可用转换和是否最终状态
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetailDTO {
+    private OrderInfo order;
+    private List<OrderEntry> items;
+    private List<OrderHistory> history;
+    private String statusDescription;
+    private OrderStatus[] availableTransitions;
+    @JsonProperty("isFinal")
+    private boolean finalStatus;
+}
@@ -0,0 +1,27 @@
+package tech.chhsich.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 订单状态转换结果，单个订单的状态接口和批量转换中的每个订单共用
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionResult {
+    private String orderId;
+    private boolean success;
+    private Integer fromStatus;
+    private Integer toStatus;
+    private String message;
+
+    public static OrderTransitionResult success(String orderId, int fromStatus, int toStatus) {
+        return new OrderTransitionResult(orderId, true, fromStatus, toStatus, "success");
+    }
+
+    public static OrderTransitionResult failure(String orderId, Integer currentStatus, String message) {
+        return new OrderTransitionResult(orderId, false, currentStatus, null, message);
+    }
+}
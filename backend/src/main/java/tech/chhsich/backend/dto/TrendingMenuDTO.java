@@ -0,0 +1,26 @@
+package tech.chhsich.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 趋势菜品
+ *
+ * <p>菜品字段与 {@link MenuDTO} 相同，{@code windowSales} 为统计窗口内下单的份数。</p>
+ */
+@Data
+public class TrendingMenuDTO {
+    private Long id;
+    private LocalDateTime createTime;
+    private String imgPath;
+    private String info;
+    private String name;
+    private Integer isRecommend;
+    private Double originalPrice;
+    private Double hotPrice;
+    private Integer productLock;
+    private Integer sales;
+    private Long categoryId;
+    private Long windowSales;
+}
@@ -1,5 +1,10 @@
 package tech.chhsich.backend.enums;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 订单状态枚举
  *
@@ -57,6 +62,23 @@ public enum OrderStatus {
     private final int code;
     private final String description;
 
+    /**
+     * 各目标状态的合法前驱状态，由 {@link #isValidTransition} 推导并在类加载时计算一次
+     */
+    private static final Map<OrderStatus, OrderStatus[]> PREDECESSORS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus target : values()) {
+            List<OrderStatus> predecessors = new ArrayList<>();
+            for (OrderStatus source : values()) {
+                if (source != target && isValidTransition(source, target)) {
+                    predecessors.add(source);
+                }
+            }
+            PREDECESSORS.put(target, predecessors.toArray(new OrderStatus[0]));
+        }
+    }
+
     OrderStatus(int code, String description) {
         this.code = code;
         this.description = description;
@@ -148,6 +170,18 @@ public enum OrderStatus {
         }
     }
 
+    /**
+     * 获取可以转换到目标状态的前驱状态列表
+     *
+     * 与 {@link #isValidTransition} 保持一致，不包含目标状态本身。
+     *
+     * @param targetStatus 目标状态
+     * @return 合法的前驱状态数组（按声明顺序）
+     */
+    public static OrderStatus[] getValidPredecessors(OrderStatus targetStatus) {
+        return PREDECESSORS.get(targetStatus).clone();
+    }
+
     /**
      * 检查状态是否为最终状态
      *
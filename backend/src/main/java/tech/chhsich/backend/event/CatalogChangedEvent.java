@@ -0,0 +1,31 @@
+package tech.chhsich.backend.event;
+
+import tech.chhsich.backend.service.CatalogSnapshot;
+
+/**
+ * 菜品目录变更事件
+ *
+ * 菜品目录快照重建并替换后发布，供搜索索引等依赖目录数据的组件同步重建。
+ * 事件在执行重建的线程上同步分发，监听方不应执行耗时操作。
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class CatalogChangedEvent {
+
+    private final CatalogSnapshot snapshot;
+
+    /**
+     * 构造函数
+     *
+     * @param snapshot 新的目录快照
+     */
+    public CatalogChangedEvent(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,29 @@
+package tech.chhsich.backend.event;
+
+/**
+ * 菜品类别变更事件
+ *
+ * 类别新增、修改、删除或恢复成功后发布，供搜索提示等依赖类别名称的组件重建。
+ * 监听方应使用 {@code @TransactionalEventListener}，在事务结束后再处理。
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    /**
+     * 构造函数
+     *
+     * @param categoryId 发生变化的类别ID
+     */
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,41 @@
+package tech.chhsich.backend.event;
+
+import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.entity.OrderInfo;
+
+import java.util.List;
+
+/**
+ * 订单创建事件
+ *
+ * 订单及其条目写入数据库后发布，供超时取消、销量统计等后台组件订阅。
+ * 监听方应使用 {@code @TransactionalEventListener}，在事务提交后再处理。
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderCreatedEvent {
+
+    private final OrderInfo order;
+    private final List<OrderEntry> entries;
+
+    /**
+     * 构造函数
+     *
+     * @param order 订单主信息
+     * @param entries 订单条目
+     */
+    public OrderCreatedEvent(OrderInfo order, List<OrderEntry> entries) {
+        this.order = order;
+        this.entries = entries;
+    }
+
+    public OrderInfo getOrder() {
+        return order;
+    }
+
+    public List<OrderEntry> getEntries() {
+        return entries;
+    }
+}
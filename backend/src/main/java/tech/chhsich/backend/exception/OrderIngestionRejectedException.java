@@ -0,0 +1,22 @@
+package tech.chhsich.backend.exception;
+
+/**
+ * 订单写入队列已满异常
+ *
+ * 批量写入模式下，当待写入订单队列已满时抛出此异常，调用方应稍后重试（HTTP 429）。
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderIngestionRejectedException extends RuntimeException {
+
+    /**
+     * 构造函数
+     *
+     * @param message 异常消息
+     */
+    public OrderIngestionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,198 @@
+package tech.chhsich.backend.interceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每请求SQL预算检查
+ *
+ * <p>请求进入控制器前开始 {@link SqlStatementStats} 统计，请求完成后按接口（HTTP方法 + 路由模式，
+ * 如 {@code POST /api/orders}）记录语句数和数据库耗时，并检查两项预算：</p>
+ * <ul>
+ *     <li>语句总数不超过接口预算（{@code app.sql-budget.budgets}，未配置时用 {@code max-statements}）</li>
+ *     <li>同一语句形状的执行次数不超过 {@code max-repeats}，超过视为N+1嫌疑</li>
+ * </ul>
+ * <p>超出预算时输出WARN日志并累加 {@code sql.budget.exceeded} 计数。</p>
+ *
+ * <p>如果当前线程已经有进行中的统计（例如集成测试先开始了统计），则沿用它且不在请求结束时清除，
+ * 测试可以在请求之后读取完整结果。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+
+    private static final String OWNER_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".OWNER";
+    private static final String UNMAPPED_ENDPOINT = "UNMAPPED";
+    private static final int MAX_SHAPE_LENGTH = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultMaxStatements;
+    private final int maxRepeats;
+    private final Map<String, Integer> budgets;
+
+    private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    public SqlBudgetInterceptor(MeterRegistry meterRegistry,
+                                @Value("${app.sql-budget.enabled:true}") boolean enabled,
+                                @Value("${app.sql-budget.max-statements:20}") int defaultMaxStatements,
+                                @Value("${app.sql-budget.max-repeats:5}") int maxRepeats,
+                                @Value("${app.sql-budget.budgets:}") String[] budgets) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.maxRepeats = Math.max(2, maxRepeats);
+        this.budgets = parseBudgets(budgets);
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (enabled && SqlStatementStats.current() == null) {
+            SqlStatementStats.begin();
+            request.setAttribute(OWNER_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return;
+        }
+        try {
+            report(endpointOf(request), stats);
+        } catch (Exception e) {
+            logger.debug("记录SQL预算失败", e);
+        } finally {
+            if (request.getAttribute(OWNER_ATTRIBUTE) != null) {
+                SqlStatementStats.end();
+                request.removeAttribute(OWNER_ATTRIBUTE);
+            }
+        }
+    }
+
+    /**
+     * 检查一次请求的统计结果是否超出预算
+     *
+     * @param endpoint 接口，如 {@code POST /api/orders}
+     * @param stats 请求的SQL统计
+     * @return 违反预算的说明，未超出时为空列表
+     */
+    public List<String> checkBudget(String endpoint, SqlStatementStats stats) {
+        List<String> violations = new ArrayList<>();
+        int budget = budgetFor(endpoint);
+        if (stats.getStatementCount() > budget) {
+            violations.add(String.format("语句数 %d 超出预算 %d", stats.getStatementCount(), budget));
+        }
+        for (Map.Entry<String, Integer> entry : stats.getRepeatedStatements(maxRepeats + 1).entrySet()) {
+            violations.add(String.format("疑似N+1，同一语句执行 %d 次: %s",
+                    entry.getValue(), abbreviate(entry.getKey())));
+        }
+        return violations;
+    }
+
+    /**
+     * @param endpoint 接口
+     * @return 该接口允许的最大语句数
+     */
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultMaxStatements);
+    }
+
+    private void report(String endpoint, SqlStatementStats stats) {
+        EndpointMeters meters = endpointMeters.computeIfAbsent(endpoint, this::createMeters);
+        meters.statements.record(stats.getStatementCount());
+        meters.dbTime.record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatementCount() <= Math.min(budgetFor(endpoint), maxRepeats)) {
+            // 语句数不超过预算且不可能有形状重复超过阈值，跳过逐条检查
+            return;
+        }
+        List<String> violations = checkBudget(endpoint, stats);
+        if (!violations.isEmpty()) {
+            meterRegistry.counter("sql.budget.exceeded", "endpoint", endpoint).increment();
+            logger.warn("SQL预算超出 - 接口: {}, 语句数: {}, 数据库耗时: {}ms, 问题: {}",
+                    endpoint, stats.getStatementCount(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()), violations);
+        }
+    }
+
+    private EndpointMeters createMeters(String endpoint) {
+        DistributionSummary statements = DistributionSummary.builder("sql.request.statements")
+                .description("每个HTTP请求执行的SQL语句数")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Timer dbTime = Timer.builder("sql.request.time")
+                .description("每个HTTP请求的数据库总耗时")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return new EndpointMeters(statements, dbTime);
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return UNMAPPED_ENDPOINT;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SHAPE_LENGTH ? sql : sql.substring(0, MAX_SHAPE_LENGTH) + "...";
+    }
+
+    /**
+     * 解析"接口=语句数"形式的配置，如 {@code POST /api/orders=40}
+     */
+    private static Map<String, Integer> parseBudgets(String[] entries) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("无效的SQL预算配置: " + trimmed);
+            }
+            budgets.put(trimmed.substring(0, separator).trim().replaceAll("\\s+", " "),
+                    Integer.parseInt(trimmed.substring(separator + 1).trim()));
+        }
+        return budgets;
+    }
+
+    private static final class EndpointMeters {
+
+        private final DistributionSummary statements;
+        private final Timer dbTime;
+
+        private EndpointMeters(DistributionSummary statements, Timer dbTime) {
+            this.statements = statements;
+            this.dbTime = dbTime;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package tech.chhsich.backend.interceptor;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+
+/**
+ * MyBatis语句计数插件
+ *
+ * <p>拦截实际发往数据库的每条语句，把SQL和耗时记入当前请求的 {@link SqlStatementStats}。
+ * 当前线程没有进行中的统计时直接放行，开销只有一次ThreadLocal读取。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlStatementInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return invocation.proceed();
+        }
+
+        String sql = ((StatementHandler) invocation.getTarget()).getBoundSql().getSql();
+        long startNanos = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            stats.record(sql, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package tech.chhsich.backend.interceptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个HTTP请求内的SQL语句统计
+ *
+ * <p>由 {@link SqlBudgetInterceptor} 在请求开始时绑定到当前线程，{@link SqlStatementInterceptor}
+ * 在每条语句执行后累加。只统计请求线程上执行的语句；异步线程（如订单批量写入）中的语句不计入。</p>
+ *
+ * <p>语句"形状"是去掉多余空白后的预编译SQL（参数为 ?），同一形状在一次请求中重复多次即为N+1嫌疑。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long totalNanos;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+
+    /**
+     * 为当前线程开始一次新的统计
+     *
+     * @return 新的统计对象
+     */
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return 当前线程的统计对象，未开始统计时返回null
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束当前线程的统计
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录一条已执行的语句
+     *
+     * @param sql 预编译SQL
+     * @param elapsedNanos 执行耗时（纳秒）
+     */
+    void record(String sql, long elapsedNanos) {
+        statementCount++;
+        totalNanos += elapsedNanos;
+        shapeCounts.merge(normalize(sql), 1, Integer::sum);
+    }
+
+    /**
+     * @return 语句总数
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return 数据库总耗时（纳秒）
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * 获取重复次数达到阈值的语句形状，按次数从多到少排列
+     *
+     * @param threshold 重复次数阈值
+     * @return 语句形状到执行次数的映射
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shapeCounts.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                repeated.add(entry);
+            }
+        }
+        if (repeated.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : repeated) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 把连续空白压缩为一个空格
+     */
+    static String normalize(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    builder.append(' ');
+                    pendingSpace = false;
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
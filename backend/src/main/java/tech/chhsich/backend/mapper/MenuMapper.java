@@ -7,6 +7,7 @@ import tech.chhsich.backend.entity.Menu;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface MenuMapper extends BaseMapper<Menu> {
@@ -58,4 +59,25 @@ public interface MenuMapper extends BaseMapper<Menu> {
      */
     @Update("UPDATE menu SET xiaoliang = xiaoliang + #{quantity} WHERE id = #{menuId}")
     int updateSales(@Param("menuId") Long menuId, @Param("quantity") Integer quantity);
+
+    /**
+     * Increment the sales count ("xiaoliang") of several menu rows in a single statement.
+     *
+     * <p>Issues one {@code UPDATE ... SET xiaoliang = xiaoliang + CASE id WHEN ... END WHERE id IN (...)}
+     * so that an order touching N dishes costs one round trip instead of N.</p>
+     *
+     * @param increments map of menu id to the quantity to add; must not be empty
+     * @return the number of rows affected
+     */
+    @Update("<script>" +
+            "UPDATE menu SET xiaoliang = IFNULL(xiaoliang, 0) + CASE id " +
+            "<foreach collection='increments' index='menuId' item='quantity'>" +
+            "WHEN #{menuId} THEN #{quantity} " +
+            "</foreach>" +
+            "ELSE 0 END WHERE id IN " +
+            "<foreach collection='increments' index='menuId' open='(' separator=',' close=')'>" +
+            "#{menuId}" +
+            "</foreach>" +
+            "</script>")
+    int batchUpdateSales(@Param("increments") Map<Long, Integer> increments);
 }
@@ -0,0 +1,29 @@
+package tech.chhsich.backend.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import tech.chhsich.backend.entity.OperationLog;
+
+import java.util.List;
+
+@Mapper
+public interface OperationLogMapper extends BaseMapper<OperationLog> {
+
+    /**
+     * Inserts several OperationLog records with a single multi-row INSERT.
+     *
+     * @param logs the operation logs to insert; must not be empty
+     * @return the number of rows inserted
+     */
+    @Insert("<script>" +
+            "INSERT INTO operation_log (username, role, operation_type, description, method, params, result, " +
+            "execution_time, ip, status, error_message, create_time) VALUES " +
+            "<foreach collection='logs' item='l' separator=','>" +
+            "(#{l.username}, #{l.role}, #{l.operationType}, #{l.description}, #{l.method}, #{l.params}, #{l.result}, " +
+            "#{l.executionTime}, #{l.ip}, #{l.status}, #{l.errorMessage}, #{l.createTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("logs") List<OperationLog> logs);
+}
@@ -1,10 +1,19 @@
 package tech.chhsich.backend.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import tech.chhsich.backend.dto.MenuSaleRecord;
 import tech.chhsich.backend.entity.OrderEntry;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -36,4 +45,38 @@ public interface OrderEntryMapper extends BaseMapper<OrderEntry> {
      */
     @Select("SELECT * FROM the_order_entry WHERE orderid = #{orderId} AND product_id = #{productId}")
     OrderEntry findByOrderIdAndProductId(String orderId, Long productId);
-}
\ No newline at end of file
+
+    /**
+     * 批量插入订单条目（单条多值INSERT语句）
+     *
+     * @param entries 待插入的订单条目，不能为空
+     * @return 插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO the_order_entry (price, productid, productname, productnum, orderid) VALUES " +
+            "<foreach collection='entries' item='e' separator=','>" +
+            "(#{e.price}, #{e.productId}, #{e.productName}, #{e.productNum}, #{e.orderId})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("entries") List<OrderEntry> entries);
+
+    /**
+     * Streams the menu id, quantity and order creation time of every entry whose order was created
+     * in {@code [since, until)}, one row at a time.
+     *
+     * <p>Uses a forward-only result set with MySQL's streaming fetch size, so memory stays flat no matter
+     * how many rows fall in the range. Orders are range-scanned on {@code idx_cg_info_createtime} and
+     * joined to entries through the covering {@code idx_order_entry_orderid_product} index.</p>
+     *
+     * @param since lower bound (inclusive) of the order creation time
+     * @param until upper bound (exclusive) of the order creation time
+     * @param handler receives each row as a {@link MenuSaleRecord}
+     */
+    @Select("SELECT e.productid AS productId, e.productnum AS productNum, o.createtime AS createTime " +
+            "FROM cg_info o JOIN the_order_entry e ON e.orderid = o.orderid " +
+            "WHERE o.createtime >= #{since} AND o.createtime < #{until}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(MenuSaleRecord.class)
+    void streamSalesBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until,
+                            ResultHandler<MenuSaleRecord> handler);
+}
@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
 import tech.chhsich.backend.entity.OrderHistory;
 
 import java.util.List;
@@ -57,4 +59,20 @@ public interface OrderHistoryMapper extends BaseMapper<OrderHistory> {
      */
     @Delete("DELETE FROM order_history WHERE operation_time BETWEEN #{startTime} AND #{endTime}")
     int deleteByTimeRange(java.time.LocalDateTime startTime, java.time.LocalDateTime endTime);
-}
\ No newline at end of file
+
+    /**
+     * 批量插入历史记录（单条多值INSERT语句）
+     *
+     * @param histories 待插入的历史记录，不能为空
+     * @return 插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO order_history (order_id, from_status, to_status, from_status_desc, to_status_desc, " +
+            "change_reason, operator, operation_time, remarks) VALUES " +
+            "<foreach collection='histories' item='h' separator=','>" +
+            "(#{h.orderId}, #{h.fromStatus}, #{h.toStatus}, #{h.fromStatusDesc}, #{h.toStatusDesc}, " +
+            "#{h.changeReason}, #{h.operator}, #{h.operationTime}, #{h.remarks})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("histories") List<OrderHistory> histories);
+}
@@ -1,16 +1,26 @@
 package tech.chhsich.backend.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 import tech.chhsich.backend.entity.OrderInfo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface OrderInfoMapper extends BaseMapper<OrderInfo> {
 
+    String PAGE_COLUMNS = "id, address, createtime, orderid, phone, status, totalprice, username";
+
+    String KEYSET_CONDITION = "<if test='afterCreateTime != null'>" +
+            " AND (createtime &lt; #{afterCreateTime} OR (createtime = #{afterCreateTime} AND id &lt; #{afterId}))" +
+            "</if>";
+
     /**
      * Retrieves all OrderInfo records for the given username from the cg_info table.
      *
@@ -20,6 +30,53 @@ public interface OrderInfoMapper extends BaseMapper<OrderInfo> {
     @Select("SELECT * FROM cg_info WHERE username = #{username}")
     List<OrderInfo> findByUsername(String username);
 
+    /**
+     * Keyset-paginated listing of a user's orders, newest first.
+     *
+     * <p>Reads the rows strictly after the {@code (afterCreateTime, afterId)} position of the previous page, so
+     * the cost of a page does not depend on how far the caller has scrolled. Served by
+     * {@code idx_cg_info_username_createtime}.</p>
+     *
+     * @param username the username to filter orders by
+     * @param status optional status filter; {@code null} for all statuses
+     * @param afterCreateTime creation time of the last order of the previous page; {@code null} for the first page
+     * @param afterId id of the last order of the previous page; ignored when {@code afterCreateTime} is {@code null}
+     * @param limit maximum number of rows to return
+     * @return up to {@code limit} orders ordered by {@code createtime DESC, id DESC}
+     */
+    @Select("<script>" +
+            "SELECT " + PAGE_COLUMNS + " FROM cg_info WHERE username = #{username}" +
+            "<if test='status != null'> AND status = #{status}</if>" +
+            KEYSET_CONDITION +
+            " ORDER BY createtime DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<OrderInfo> findPageByUsername(@Param("username") String username, @Param("status") Integer status,
+                                       @Param("afterCreateTime") LocalDateTime afterCreateTime,
+                                       @Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Keyset-paginated listing of all orders, optionally filtered by status, newest first.
+     *
+     * <p>Served by {@code idx_cg_info_status_createtime_id} when a status is given and by
+     * {@code idx_cg_info_createtime} otherwise. V003's {@code (status, createtime, orderid)} cannot provide the
+     * {@code createtime DESC, id DESC} order.</p>
+     *
+     * @param status optional status filter; {@code null} for all statuses
+     * @param afterCreateTime creation time of the last order of the previous page; {@code null} for the first page
+     * @param afterId id of the last order of the previous page; ignored when {@code afterCreateTime} is {@code null}
+     * @param limit maximum number of rows to return
+     * @return up to {@code limit} orders ordered by {@code createtime DESC, id DESC}
+     */
+    @Select("<script>" +
+            "SELECT " + PAGE_COLUMNS + " FROM cg_info WHERE 1 = 1" +
+            "<if test='status != null'> AND status = #{status}</if>" +
+            KEYSET_CONDITION +
+            " ORDER BY createtime DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<OrderInfo> findPageByStatus(@Param("status") Integer status,
+                                     @Param("afterCreateTime") LocalDateTime afterCreateTime,
+                                     @Param("afterId") Long afterId, @Param("limit") int limit);
+
     /**
      * Retrieves the OrderInfo record with the given order ID.
      *
@@ -48,6 +105,84 @@ public interface OrderInfoMapper extends BaseMapper<OrderInfo> {
     @Update("UPDATE cg_info SET status = #{status} WHERE orderid = #{orderid}")
     int updateStatusByOrderid(@Param("orderid") String orderid, @Param("status") Integer status);
 
+    /**
+     * Conditionally update the status of an order: the row is only changed if its current status is one of
+     * {@code expectedStatuses}. This is a single-statement compare-and-set that needs no prior read or row lock.
+     *
+     * @param orderid the order identifier whose status will be changed
+     * @param status the new status value to set
+     * @param expectedStatuses the status values the order must currently have; must not be empty
+     * @return the number of rows affected (1 if the transition was applied, 0 otherwise)
+     */
+    @Update("<script>" +
+            "UPDATE cg_info SET status = #{status} WHERE orderid = #{orderid} AND status IN " +
+            "<foreach collection='expectedStatuses' item='expected' open='(' separator=',' close=')'>" +
+            "#{expected}" +
+            "</foreach>" +
+            "</script>")
+    int updateStatusByOrderidIfIn(@Param("orderid") String orderid, @Param("status") Integer status,
+                                  @Param("expectedStatuses") Collection<Integer> expectedStatuses);
+
+    /**
+     * Set-based conditional status update: every order in {@code orderids} whose current status equals
+     * {@code expectedStatus} is moved to {@code status} in one statement.
+     *
+     * @param orderids the order identifiers to update; must not be empty
+     * @param status the new status value to set
+     * @param expectedStatus the status value the orders must currently have
+     * @return the number of rows affected
+     */
+    @Update("<script>" +
+            "UPDATE cg_info SET status = #{status} WHERE status = #{expectedStatus} AND orderid IN " +
+            "<foreach collection='orderids' item='orderid' open='(' separator=',' close=')'>" +
+            "#{orderid}" +
+            "</foreach>" +
+            "</script>")
+    int updateStatusByOrderidsIfStatus(@Param("orderids") Collection<String> orderids, @Param("status") Integer status,
+                                       @Param("expectedStatus") Integer expectedStatus);
+
+    /**
+     * Fetches only the order id and status of the given orders, without loading the full rows.
+     *
+     * @param orderids the order identifiers to look up; must not be empty
+     * @return OrderInfo objects with only {@code orderId} and {@code status} populated; missing orders are omitted
+     */
+    @Select("<script>" +
+            "SELECT orderid, status FROM cg_info WHERE orderid IN " +
+            "<foreach collection='orderids' item='orderid' open='(' separator=',' close=')'>" +
+            "#{orderid}" +
+            "</foreach>" +
+            "</script>")
+    List<OrderInfo> findStatusByOrderids(@Param("orderids") Collection<String> orderids);
+
+    /**
+     * Same as {@link #findStatusByOrderids} but takes row locks ({@code SELECT ... FOR UPDATE}) on the found orders,
+     * so their status cannot change until the surrounding transaction ends.
+     *
+     * @param orderids the order identifiers to look up and lock; must not be empty
+     * @return OrderInfo objects with only {@code orderId} and {@code status} populated; missing orders are omitted
+     */
+    @Select("<script>" +
+            "SELECT orderid, status FROM cg_info WHERE orderid IN " +
+            "<foreach collection='orderids' item='orderid' open='(' separator=',' close=')'>" +
+            "#{orderid}" +
+            "</foreach>" +
+            " FOR UPDATE" +
+            "</script>")
+    List<OrderInfo> findStatusByOrderidsForUpdate(@Param("orderids") Collection<String> orderids);
+
+    /**
+     * Fetches the order id and creation time of every order in the given status, in creation order.
+     *
+     * <p>Served entirely from the {@code idx_cg_info_status_createtime} covering index, so it is a single
+     * index range scan regardless of table size.</p>
+     *
+     * @param status numeric status code of the orders to fetch
+     * @return OrderInfo objects with only {@code orderId} and {@code createTime} populated
+     */
+    @Select("SELECT orderid, createtime FROM cg_info WHERE status = #{status} ORDER BY createtime")
+    List<OrderInfo> findOrderidAndCreatetimeByStatus(@Param("status") Integer status);
+
     /**
      * Retrieves all OrderInfo records with the given status from the cg_info table.
      *
@@ -56,4 +191,19 @@ public interface OrderInfoMapper extends BaseMapper<OrderInfo> {
      */
     @Select("SELECT * FROM cg_info WHERE status = #{status}")
     List<OrderInfo> findByStatus(Integer status);
-}
\ No newline at end of file
+
+    /**
+     * Inserts several OrderInfo records with a single multi-row INSERT and back-fills their generated ids.
+     *
+     * @param orders the orders to insert; must not be empty
+     * @return the number of rows inserted
+     */
+    @Insert("<script>" +
+            "INSERT INTO cg_info (address, createtime, orderid, phone, status, totalprice, username) VALUES " +
+            "<foreach collection='orders' item='o' separator=','>" +
+            "(#{o.address}, #{o.createTime}, #{o.orderId}, #{o.phone}, #{o.status}, #{o.totalPrice}, #{o.username})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "orders.id", keyColumn = "id")
+    int insertBatch(@Param("orders") List<OrderInfo> orders);
+}
@@ -0,0 +1,210 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.chhsich.backend.cache.TwoLevelCache;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 菜品目录读穿缓存
+ *
+ * <p>首次读取时加载所有上架菜品并构建 {@link CatalogSnapshot}，之后的浏览请求直接读取快照，
+ * 不访问数据库。菜品写操作提交后调用 {@link #invalidate()}，快照被整体重建并原子替换；
+ * {@code app.cache.ttl} 作为兜底，过期后由一个读请求重建，其他读请求在重建期间继续使用旧快照。</p>
+ *
+ * <p>所有上架菜品同时保存在共享的二级缓存中：冷启动时先读二级缓存；本节点的写操作从数据库重建后
+ * 写回二级缓存并广播，其他节点收到广播后从二级缓存重建，不访问数据库。</p>
+ *
+ * <p>每次重建后发布 {@link CatalogChangedEvent}，快照版本号随之递增。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    private static final Integer PRODUCT_STATUS_ACTIVE = 0;
+
+    /**
+     * 二级缓存中所有上架菜品的键
+     */
+    static final String CATALOG_KEY = "catalog:menus";
+
+    private final MenuMapper menuMapper;
+    private final TwoLevelCache twoLevelCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long ttlMillis;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter rebuilds;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogCache(MenuMapper menuMapper,
+                        TwoLevelCache twoLevelCache,
+                        ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.enabled:true}") boolean enabled,
+                        @Value("${app.cache.ttl:3600}") long ttlSeconds) {
+        this.menuMapper = menuMapper;
+        this.twoLevelCache = twoLevelCache;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.rebuilds = Counter.builder("catalog.rebuilds")
+                .description("菜品目录快照重建次数")
+                .register(meterRegistry);
+        Gauge.builder("catalog.version", versions, AtomicLong::get)
+                .description("当前菜品目录快照版本")
+                .register(meterRegistry);
+        if (enabled) {
+            twoLevelCache.onRemoteInvalidation(key -> {
+                if (CATALOG_KEY.equals(key)) {
+                    refreshFromShared();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return 是否启用目录缓存；未启用时菜品服务直接查询数据库
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取当前目录快照，必要时重建
+     *
+     * @return 目录快照
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            rebuildLock.lock();
+            try {
+                if (snapshot == null) {
+                    return rebuild(loadShared());
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+            return snapshot;
+        }
+        if (ttlMillis > 0 && currentTimeMillis() - current.getBuiltAtMillis() >= ttlMillis
+                && rebuildLock.tryLock()) {
+            try {
+                if (snapshot == current) {
+                    List<Menu> menus = loadFromDatabase();
+                    twoLevelCache.putShared(CATALOG_KEY, menus);
+                    return rebuild(menus);
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 菜品数据发生变化后调用
+     *
+     * <p>处于事务中时在事务提交后重建，回滚的修改不会进入快照；否则立即重建。</p>
+     */
+    public void invalidate() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * 立即从数据库重建快照，写回二级缓存并通知其他节点
+     *
+     * @return 新快照
+     */
+    public CatalogSnapshot refresh() {
+        rebuildLock.lock();
+        try {
+            List<Menu> menus = loadFromDatabase();
+            twoLevelCache.putAndBroadcast(CATALOG_KEY, menus);
+            return rebuild(menus);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前快照版本号，尚未构建时为0
+     */
+    public long getVersion() {
+        return versions.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 其他节点修改菜品后，从二级缓存重建
+     */
+    private void refreshFromShared() {
+        rebuildLock.lock();
+        try {
+            rebuild(loadShared());
+        } catch (RuntimeException e) {
+            logger.warn("根据广播重建菜品目录失败: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private List<Menu> loadShared() {
+        return twoLevelCache.get(CATALOG_KEY, twoLevelCache.codec().listOf(Menu.class), false, null,
+                this::loadFromDatabase);
+    }
+
+    private List<Menu> loadFromDatabase() {
+        return menuMapper.findByProductLock(PRODUCT_STATUS_ACTIVE);
+    }
+
+    private CatalogSnapshot rebuild(List<Menu> activeMenus) {
+        long startNanos = System.nanoTime();
+        CatalogSnapshot rebuilt = CatalogSnapshot.build(versions.get() + 1, currentTimeMillis(), activeMenus);
+        snapshot = rebuilt;
+        versions.set(rebuilt.getVersion());
+        rebuilds.increment();
+        logger.debug("菜品目录快照已重建: 版本 {}, {} 个菜品, 耗时 {}ms", rebuilt.getVersion(),
+                rebuilt.getMenus().size(), (System.nanoTime() - startNanos) / 1_000_000);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(rebuilt));
+        return rebuilt;
+    }
+}
@@ -0,0 +1,168 @@
+package tech.chhsich.backend.service;
+
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.utils.ETagUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 菜品目录快照
+ *
+ * <p>某一时刻所有上架菜品的不可变视图，包含按ID和按类别的索引、推荐列表和按销量排序的列表。
+ * 快照构建后不再修改，由 {@link CatalogCache} 整体替换；读取方之间无需任何同步。
+ * 快照中的 {@link Menu} 对象为所有请求共享，调用方不得修改。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class CatalogSnapshot {
+
+    private static final int RECOMMENDED = 1;
+
+    /**
+     * 销量从高到低，销量相同时按ID升序，保证顺序稳定
+     */
+    static final Comparator<Menu> BY_SALES_DESC = Comparator
+            .comparingInt((Menu menu) -> menu.getSales() == null ? 0 : menu.getSales()).reversed()
+            .thenComparing(Menu::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final long version;
+    private final long builtAtMillis;
+    private final String etag;
+    private final List<Menu> menus;
+    private final Map<Long, Menu> byId;
+    private final Map<Long, List<Menu>> byCategory;
+    private final List<Menu> recommended;
+    private final List<Menu> bySales;
+
+    private CatalogSnapshot(long version, long builtAtMillis, String etag, List<Menu> menus, Map<Long, Menu> byId,
+                            Map<Long, List<Menu>> byCategory, List<Menu> recommended, List<Menu> bySales) {
+        this.version = version;
+        this.builtAtMillis = builtAtMillis;
+        this.etag = etag;
+        this.menus = menus;
+        this.byId = byId;
+        this.byCategory = byCategory;
+        this.recommended = recommended;
+        this.bySales = bySales;
+    }
+
+    /**
+     * 由上架菜品构建快照
+     *
+     * @param version 快照版本号，每次重建递增
+     * @param builtAtMillis 构建时间（毫秒）
+     * @param activeMenus 所有上架菜品
+     * @return 新快照
+     */
+    public static CatalogSnapshot build(long version, long builtAtMillis, List<Menu> activeMenus) {
+        List<Menu> menus = new ArrayList<>(activeMenus);
+        menus.sort(Comparator.comparing(Menu::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<Long, Menu> byId = new HashMap<>(menus.size() * 2);
+        Map<Long, List<Menu>> categoryLists = new HashMap<>();
+        List<Menu> recommended = new ArrayList<>();
+        for (Menu menu : menus) {
+            byId.put(menu.getId(), menu);
+            if (menu.getCategoryId() != null) {
+                categoryLists.computeIfAbsent(menu.getCategoryId(), key -> new ArrayList<>()).add(menu);
+            }
+            if (menu.getIsRecommend() != null && menu.getIsRecommend() == RECOMMENDED) {
+                recommended.add(menu);
+            }
+        }
+
+        Map<Long, List<Menu>> byCategory = new HashMap<>(categoryLists.size() * 2);
+        categoryLists.forEach((categoryId, list) -> byCategory.put(categoryId, Collections.unmodifiableList(list)));
+
+        List<Menu> bySales = new ArrayList<>(menus);
+        bySales.sort(BY_SALES_DESC);
+
+        return new CatalogSnapshot(version, builtAtMillis, ETagUtil.fingerprint(menus),
+                Collections.unmodifiableList(menus),
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(byCategory),
+                Collections.unmodifiableList(recommended),
+                Collections.unmodifiableList(bySales));
+    }
+
+    /**
+     * @return 快照版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return 构建时间（毫秒）
+     */
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    /**
+     * 菜品内容的指纹，用作公开菜品接口的ETag
+     *
+     * <p>与版本号不同，内容相同的快照在所有节点上得到相同的值。</p>
+     *
+     * @return 不含引号的十六进制字符串
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * @return 所有上架菜品，按ID升序
+     */
+    public List<Menu> getMenus() {
+        return menus;
+    }
+
+    /**
+     * @param id 菜品ID
+     * @return 上架菜品，不存在或已下架时返回null
+     */
+    public Menu getMenu(Long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @param categoryId 类别ID
+     * @return 该类别下的上架菜品，没有时返回空列表
+     */
+    public List<Menu> getMenusByCategory(Long categoryId) {
+        return byCategory.getOrDefault(categoryId, Collections.emptyList());
+    }
+
+    /**
+     * @return 推荐的上架菜品
+     */
+    public List<Menu> getRecommended() {
+        return recommended;
+    }
+
+    /**
+     * @return 按销量从高到低排序的上架菜品
+     */
+    public List<Menu> getBySales() {
+        return bySales;
+    }
+
+    /**
+     * 获取销量最高的若干菜品，返回列表视图，不复制元素
+     *
+     * @param limit 数量，null或不大于0时返回全部
+     * @return 按销量排序的菜品
+     */
+    public List<Menu> getTopSales(Integer limit) {
+        if (limit == null || limit <= 0 || limit >= bySales.size()) {
+            return bySales;
+        }
+        return bySales.subList(0, limit);
+    }
+}
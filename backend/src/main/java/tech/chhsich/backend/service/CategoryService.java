@@ -1,9 +1,13 @@
 package tech.chhsich.backend.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import tech.chhsich.backend.cache.TwoLevelCache;
+import tech.chhsich.backend.utils.ETagUtil;
 import tech.chhsich.backend.entity.Ltype;
 import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CategoryChangedEvent;
 import tech.chhsich.backend.mapper.LtypeMapper;
 import tech.chhsich.backend.mapper.MenuMapper;
 
@@ -15,17 +19,35 @@ public class CategoryService {
     private static final Integer CATEGORY_STATUS_ACTIVE = 0;
     private static final Integer CATEGORY_STATUS_DELETED = 1;
 
+    /**
+     * 二级缓存中未删除类别列表的键
+     */
+    static final String ACTIVE_CATEGORIES_KEY = "category:active";
+    private static final String CATEGORY_KEY_PREFIX = "category:id:";
+
     private final LtypeMapper ltypeMapper;
     private final MenuMapper menuMapper;
+    private final TwoLevelCache twoLevelCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 最近一次计算ETag的类别列表及其ETag；一级缓存命中时列表对象不变，无需重新计算
+     */
+    private volatile CategoriesETag categoriesETag;
 
     /**
      * Creates a CategoryService wired with the given LtypeMapper and MenuMapper.
      *
      * The mappers are used for category data access operations and consistency checking.
+     * Category lookups are served through the two-level cache and invalidated on every category write,
+     * after which a {@link CategoryChangedEvent} is published.
      */
-    public CategoryService(LtypeMapper ltypeMapper, MenuMapper menuMapper) {
+    public CategoryService(LtypeMapper ltypeMapper, MenuMapper menuMapper, TwoLevelCache twoLevelCache,
+                           ApplicationEventPublisher eventPublisher) {
         this.ltypeMapper = ltypeMapper;
         this.menuMapper = menuMapper;
+        this.twoLevelCache = twoLevelCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -33,10 +55,28 @@ public class CategoryService {
      *
      * Retrieves Ltype records whose `catelock` flag equals 0 (non-deleted).
      *
-     * @return a list of non-deleted Ltype categories
+     * @return a list of non-deleted Ltype categories; shared with other callers and must not be modified
      */
     public List<Ltype> getAllCategories() {
-        return ltypeMapper.findByCatelock(CATEGORY_STATUS_ACTIVE);
+        return twoLevelCache.get(ACTIVE_CATEGORIES_KEY, twoLevelCache.codec().listOf(Ltype.class), true, null,
+                () -> ltypeMapper.findByCatelock(CATEGORY_STATUS_ACTIVE));
+    }
+
+    /**
+     * Returns the ETag of the active category list, derived from its content.
+     *
+     * <p>The tag is recomputed only when the cached list instance changes.
+     *
+     * @return the unquoted ETag
+     */
+    public String getAllCategoriesETag() {
+        List<Ltype> categories = getAllCategories();
+        CategoriesETag current = categoriesETag;
+        if (current == null || current.categories != categories) {
+            current = new CategoriesETag(categories, ETagUtil.fingerprint(categories));
+            categoriesETag = current;
+        }
+        return current.etag;
     }
 
     /**
@@ -60,10 +100,12 @@ public class CategoryService {
      * Retrieve a category by its database ID.
      *
      * @param id the category's primary key
-     * @return the Ltype with the given id, or null if no matching category exists
+     * @return the Ltype with the given id, or null if no matching category exists;
+     *         shared with other callers and must not be modified
      */
     public Ltype getCategoryById(Long id) {
-        return ltypeMapper.findById(id);
+        return twoLevelCache.get(CATEGORY_KEY_PREFIX + id, twoLevelCache.codec().type(Ltype.class), true, null,
+                () -> ltypeMapper.findById(id));
     }
 
     /**
@@ -77,7 +119,7 @@ public class CategoryService {
         }
 
         category.setCateLock(CATEGORY_STATUS_ACTIVE);
-        return ltypeMapper.insert(category) > 0;
+        return invalidateIf(ltypeMapper.insert(category) > 0, category.getId());
     }
 
     /**
@@ -95,7 +137,7 @@ public class CategoryService {
             throw new RuntimeException("类别名称已存在");
         }
 
-        return ltypeMapper.updateById(category) > 0;
+        return invalidateIf(ltypeMapper.updateById(category) > 0, category.getId());
     }
 
     /**
@@ -116,7 +158,7 @@ public class CategoryService {
         }
 
         category.setCateLock(CATEGORY_STATUS_DELETED);
-        return ltypeMapper.updateById(category) > 0;
+        return invalidateIf(ltypeMapper.updateById(category) > 0, id);
     }
 
     /**
@@ -129,14 +171,14 @@ public class CategoryService {
         }
 
         category.setCateLock(CATEGORY_STATUS_ACTIVE);
-        return ltypeMapper.updateById(category) > 0;
+        return invalidateIf(ltypeMapper.updateById(category) > 0, id);
     }
 
     /**
      * 检查类别是否存在
      */
     public boolean categoryExists(Long id) {
-        return ltypeMapper.findById(id) != null;
+        return getCategoryById(id) != null;
     }
 
     /**
@@ -159,4 +201,29 @@ public class CategoryService {
         queryWrapper.eq("catelock", CATEGORY_STATUS_ACTIVE);
         return ltypeMapper.selectCount(queryWrapper);
     }
+
+    /**
+     * 写操作成功后使类别缓存失效，并发布类别变更事件
+     */
+    private boolean invalidateIf(boolean success, Long id) {
+        if (success) {
+            twoLevelCache.invalidate(ACTIVE_CATEGORIES_KEY);
+            if (id != null) {
+                twoLevelCache.invalidate(CATEGORY_KEY_PREFIX + id);
+            }
+            eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        }
+        return success;
+    }
+
+    private static final class CategoriesETag {
+
+        private final List<Ltype> categories;
+        private final String etag;
+
+        private CategoriesETag(List<Ltype> categories, String etag) {
+            this.categories = categories;
+            this.etag = etag;
+        }
+    }
 }
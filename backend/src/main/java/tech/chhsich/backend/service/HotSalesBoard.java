@@ -0,0 +1,301 @@
+package tech.chhsich.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.utils.ETagUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热销菜品排行榜
+ *
+ * <p>在内存中按实时销量维护所有上架菜品的有序集合（按销量降序、ID升序的红黑树，另有按ID的索引），
+ * 下单提交后由 {@link SalesAccumulator} 调用 {@link #increment(Long, int)} 更新，单次更新为O(log n)。
+ * 读取前 {@code app.sales.hot-board-size} 名时直接返回缓存的列表，前K名变化后的第一次读取以O(K)重新生成，
+ * 列表中的菜品是带实时销量的副本。只有进入或位于前K名的菜品销量变化才会使缓存失效；
+ * 同一份缓存下各个数量限制的视图及其ETag也只生成一次。</p>
+ *
+ * <p>ETag由目录快照的ETag和排名中每个菜品的（ID, 销量）计算，不需要序列化整份菜品。</p>
+ *
+ * <p>排行榜的菜品集合和展示字段跟随目录快照；销量在启动时从数据库载入，之后按
+ * {@code app.sales.board-resync-interval} 周期与数据库对齐，使其他节点刷新到数据库的销量也能反映出来。
+ * 对齐时取两者中较大的值，本节点尚未刷新到数据库的增量不会丢失。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class HotSalesBoard {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotSalesBoard.class);
+
+    private static final Integer PRODUCT_STATUS_ACTIVE = 0;
+
+    /**
+     * 销量从高到低，销量相同时按ID升序，与 {@link CatalogSnapshot#BY_SALES_DESC} 一致
+     */
+    private static final Comparator<Entry> BY_SALES_DESC = Comparator
+            .comparingLong((Entry entry) -> entry.sales).reversed()
+            .thenComparing(entry -> entry.menu.getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final MenuMapper menuMapper;
+    private final CatalogCache catalogCache;
+    private final int boardSize;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(BY_SALES_DESC);
+    private boolean seeded;
+
+    /**
+     * 当前目录快照的ETag，参与排名ETag的计算
+     */
+    private String catalogETag = "";
+
+    /**
+     * 缓存的前K名中的最后一名；为null时表示全部菜品都在前K名内，任何销量变化都会使缓存失效
+     */
+    private Entry topBoundary;
+
+    /**
+     * 前 {@link #boardSize} 名的缓存，排名变化后置为null
+     */
+    private volatile Ranking top;
+
+    public HotSalesBoard(MenuMapper menuMapper,
+                         CatalogCache catalogCache,
+                         @Value("${app.sales.hot-board-size:50}") int boardSize) {
+        this.menuMapper = menuMapper;
+        this.catalogCache = catalogCache;
+        this.boardSize = Math.max(1, boardSize);
+    }
+
+    /**
+     * 获取销量最高的若干菜品
+     *
+     * @param limit 数量，null或不大于0时返回全部
+     * @return 排名及其ETag
+     */
+    public Ranking getTop(Integer limit) {
+        Ranking current = top;
+        if (current == null) {
+            current = materializeTop();
+        }
+        if (limit != null && limit > 0 && limit <= boardSize) {
+            return current.limit(limit);
+        }
+        if (current.menus.size() < boardSize) {
+            return current;
+        }
+        return materialize(Integer.MAX_VALUE);
+    }
+
+    /**
+     * 累加菜品销量；不在排行榜中的菜品（已下架或尚未载入）被忽略
+     *
+     * @param menuId 菜品ID
+     * @param quantity 增加的数量
+     */
+    public synchronized void increment(Long menuId, int quantity) {
+        Entry entry = entries.get(menuId);
+        if (entry == null || quantity <= 0) {
+            return;
+        }
+        Entry updated = new Entry(entry.menu, entry.sales + quantity);
+        replace(entry, updated);
+        // 销量只增不减：更新后仍排在前K名之后的菜品，更新前也不在前K名内，缓存不受影响
+        if (topBoundary == null || BY_SALES_DESC.compare(updated, topBoundary) <= 0) {
+            invalidateTop();
+        }
+    }
+
+    /**
+     * 启动时从数据库载入销量
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        resync();
+    }
+
+    /**
+     * 目录快照变化后同步菜品集合和展示字段
+     *
+     * @param event 目录变更事件
+     */
+    @EventListener
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        reconcile(event.getSnapshot(), Collections.emptyMap());
+    }
+
+    /**
+     * 与数据库中的销量对齐
+     */
+    @Scheduled(fixedDelayString = "${app.sales.board-resync-interval:60000}",
+            initialDelayString = "${app.sales.board-resync-interval:60000}")
+    public void resync() {
+        List<Menu> active = menuMapper.findByProductLock(PRODUCT_STATUS_ACTIVE);
+        Map<Long, Long> databaseSales = new HashMap<>(active.size() * 2);
+        for (Menu menu : active) {
+            databaseSales.put(menu.getId(), salesOf(menu));
+        }
+        CatalogSnapshot snapshot = catalogCache.snapshot();
+        synchronized (this) {
+            reconcile(snapshot, databaseSales);
+            seeded = true;
+        }
+        logger.debug("热销排行榜已与数据库对齐: {} 个菜品", databaseSales.size());
+    }
+
+    private synchronized Ranking materializeTop() {
+        Ranking current = top;
+        if (current == null) {
+            current = materialize(boardSize);
+            topBoundary = ranking.size() > boardSize ? entries.get(current.menus.get(boardSize - 1).getId()) : null;
+            top = current;
+        }
+        return current;
+    }
+
+    private synchronized Ranking materialize(int limit) {
+        if (!seeded && entries.isEmpty()) {
+            reconcile(catalogCache.snapshot(), Collections.emptyMap());
+        }
+        List<Menu> menus = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<Entry> iterator = ranking.iterator();
+        while (menus.size() < limit && iterator.hasNext()) {
+            menus.add(iterator.next().toMenu());
+        }
+        return new Ranking(catalogETag, Collections.unmodifiableList(menus));
+    }
+
+    private void invalidateTop() {
+        top = null;
+        topBoundary = null;
+    }
+
+    /**
+     * 以目录快照为准更新菜品集合，销量取现有值、快照值和数据库值中最大的
+     */
+    private void reconcile(CatalogSnapshot snapshot, Map<Long, Long> databaseSales) {
+        Map<Long, Entry> previous = new HashMap<>(entries);
+        entries.clear();
+        ranking.clear();
+        catalogETag = snapshot.getETag();
+        for (Menu menu : snapshot.getMenus()) {
+            Entry old = previous.get(menu.getId());
+            long sales = Math.max(salesOf(menu), databaseSales.getOrDefault(menu.getId(), 0L));
+            if (old != null) {
+                sales = Math.max(sales, old.sales);
+            }
+            Entry entry = new Entry(menu, sales);
+            entries.put(menu.getId(), entry);
+            ranking.add(entry);
+        }
+        invalidateTop();
+    }
+
+    private void replace(Entry old, Entry updated) {
+        ranking.remove(old);
+        ranking.add(updated);
+        entries.put(updated.menu.getId(), updated);
+    }
+
+    private static long salesOf(Menu menu) {
+        return menu.getSales() == null ? 0 : menu.getSales();
+    }
+
+    private static final class Entry {
+
+        /**
+         * 目录快照中的菜品，为所有请求共享，不得修改
+         */
+        private final Menu menu;
+        private final long sales;
+
+        private Entry(Menu menu, long sales) {
+            this.menu = menu;
+            this.sales = sales;
+        }
+
+        private Menu toMenu() {
+            Menu copy = new Menu();
+            copy.setId(menu.getId());
+            copy.setCreateTime(menu.getCreateTime());
+            copy.setImgPath(menu.getImgPath());
+            copy.setInfo(menu.getInfo());
+            copy.setName(menu.getName());
+            copy.setIsRecommend(menu.getIsRecommend());
+            copy.setOriginalPrice(menu.getOriginalPrice());
+            copy.setHotPrice(menu.getHotPrice());
+            copy.setProductLock(menu.getProductLock());
+            copy.setSales((int) Math.min(sales, Integer.MAX_VALUE));
+            copy.setCategoryId(menu.getCategoryId());
+            return copy;
+        }
+    }
+
+    /**
+     * 排行榜的一次不可变视图
+     */
+    public static final class Ranking {
+
+        private final String catalogETag;
+        private final List<Menu> menus;
+        private volatile String etag;
+
+        /**
+         * 按数量限制缓存的前若干名视图，与本排名同生命周期
+         */
+        private final Map<Integer, Ranking> views = new ConcurrentHashMap<>();
+
+        private Ranking(String catalogETag, List<Menu> menus) {
+            this.catalogETag = catalogETag;
+            this.menus = menus;
+        }
+
+        /**
+         * @return 按实时销量排序的菜品，调用方不得修改
+         */
+        public List<Menu> getMenus() {
+            return menus;
+        }
+
+        /**
+         * @return 目录快照ETag与各菜品（ID, 实时销量）的指纹，首次调用时计算
+         */
+        public String getETag() {
+            String current = etag;
+            if (current == null) {
+                StringBuilder content = new StringBuilder(catalogETag.length() + menus.size() * 16).append(catalogETag);
+                for (Menu menu : menus) {
+                    content.append('\n').append(menu.getId()).append(':').append(menu.getSales());
+                }
+                current = ETagUtil.fingerprint(content);
+                etag = current;
+            }
+            return current;
+        }
+
+        private Ranking limit(int limit) {
+            if (limit >= menus.size()) {
+                return this;
+            }
+            return views.computeIfAbsent(limit, size -> new Ranking(catalogETag, menus.subList(0, size)));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package tech.chhsich.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 菜品搜索倒排索引
+ *
+ * <p>对菜品名称和简介建立1~3字的n-gram倒排索引，倒排表为按文档号升序的 {@code int[]}。
+ * 文本先做NFKC归一化（全角转半角）和小写转换，并去掉空白和标点，因此中文按单字/双字/三字切分，
+ * 英文和数字同样按字符切分，不依赖分词。</p>
+ *
+ * <p>查询按空白拆分为多个词，每个词取其最长（不超过3字）的全部n-gram求倒排表交集，
+ * 再对候选菜品做子串校验排除n-gram拼接造成的误命中。结果按匹配程度排序：
+ * 名称完全相同、名称以查询开头、名称包含查询、仅简介包含查询；同一档内按销量从高到低。</p>
+ *
+ * <p>索引随 {@link CatalogChangedEvent} 重建：名称和简介未变化的菜品直接复用上次的切分结果，
+ * 只重新组装倒排表。索引构建完成后整体替换，查询无需加锁。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    private static final int MAX_GRAM = 3;
+
+    private static final int[] EMPTY_POSTINGS = new int[0];
+
+    /**
+     * 匹配程度，数值越大越靠前
+     */
+    private static final int MATCH_NAME_EXACT = 4;
+    private static final int MATCH_NAME_PREFIX = 3;
+    private static final int MATCH_NAME = 2;
+    private static final int MATCH_INFO = 1;
+
+    private volatile Index index;
+
+    /**
+     * 目录快照重建后同步重建索引
+     *
+     * @param event 目录变更事件
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuild(event.getSnapshot());
+    }
+
+    /**
+     * 搜索菜品
+     *
+     * @param snapshot 当前目录快照；与索引对应的快照不同时先重建索引
+     * @param keyword 关键词，可包含多个以空白分隔的词，每个词都必须命中
+     * @param offset 跳过的结果数
+     * @param limit 最多返回的结果数
+     * @return 排序后的菜品，没有匹配时返回空列表
+     */
+    public List<Menu> search(CatalogSnapshot snapshot, String keyword, int offset, int limit) {
+        Index current = index;
+        if (current == null || current.snapshot != snapshot) {
+            current = rebuild(snapshot);
+        }
+        return current.search(keyword, offset, limit);
+    }
+
+    private synchronized Index rebuild(CatalogSnapshot snapshot) {
+        Index current = index;
+        if (current != null && current.snapshot == snapshot) {
+            return current;
+        }
+        long startNanos = System.nanoTime();
+        Index rebuilt = Index.build(snapshot, current);
+        if (current == null || current.snapshot.getVersion() <= snapshot.getVersion()) {
+            index = rebuilt;
+        }
+        logger.debug("菜品搜索索引已重建: 版本 {}, {} 个菜品, {} 个n-gram, 耗时 {}us", snapshot.getVersion(),
+                rebuilt.docs.length, rebuilt.postings.size(), (System.nanoTime() - startNanos) / 1_000);
+        return rebuilt;
+    }
+
+    /**
+     * 归一化文本：NFKC、小写，只保留字母和数字
+     *
+     * @param text 原始文本，可以为null
+     * @return 归一化后的文本
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 切分出文本中所有长度为1到3的n-gram，去重
+     */
+    private static String[] grams(String name, String info) {
+        Set<String> grams = new HashSet<>();
+        addGrams(name, grams);
+        addGrams(info, grams);
+        return grams.toArray(new String[0]);
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int start = 0; start < text.length(); start++) {
+            int maxEnd = Math.min(text.length(), start + MAX_GRAM);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(text.substring(start, end));
+            }
+        }
+    }
+
+    /**
+     * 单个菜品的切分结果，名称和简介不变时跨索引版本复用
+     */
+    private static final class Document {
+
+        private final String rawName;
+        private final String rawInfo;
+        private final String name;
+        private final String info;
+        private final String[] grams;
+
+        private Document(String rawName, String rawInfo) {
+            this.rawName = rawName;
+            this.rawInfo = rawInfo;
+            this.name = normalize(rawName);
+            this.info = normalize(rawInfo);
+            this.grams = grams(name, info);
+        }
+
+        private boolean sameText(Menu menu) {
+            return Objects.equals(rawName, menu.getName()) && Objects.equals(rawInfo, menu.getInfo());
+        }
+    }
+
+    private static final class Index {
+
+        private final CatalogSnapshot snapshot;
+
+        /**
+         * 文档号即数组下标，按销量排名排列，排名靠前的文档号较小
+         */
+        private final Menu[] docs;
+        private final Document[] documents;
+        private final Map<Long, Document> documentsById;
+        private final Map<String, int[]> postings;
+
+        private Index(CatalogSnapshot snapshot, Menu[] docs, Document[] documents,
+                      Map<Long, Document> documentsById, Map<String, int[]> postings) {
+            this.snapshot = snapshot;
+            this.docs = docs;
+            this.documents = documents;
+            this.documentsById = documentsById;
+            this.postings = postings;
+        }
+
+        private static Index build(CatalogSnapshot snapshot, Index previous) {
+            List<Menu> bySales = snapshot.getBySales();
+            Menu[] docs = bySales.toArray(new Menu[0]);
+            Document[] documents = new Document[docs.length];
+            Map<Long, Document> documentsById = new HashMap<>(docs.length * 2);
+            Map<String, PostingsBuilder> builders = new HashMap<>();
+
+            for (int doc = 0; doc < docs.length; doc++) {
+                Menu menu = docs[doc];
+                Document document = previous != null ? previous.documentsById.get(menu.getId()) : null;
+                if (document == null || !document.sameText(menu)) {
+                    document = new Document(menu.getName(), menu.getInfo());
+                }
+                documents[doc] = document;
+                documentsById.put(menu.getId(), document);
+
+                for (String gram : document.grams) {
+                    builders.computeIfAbsent(gram, key -> new PostingsBuilder()).add(doc);
+                }
+            }
+
+            Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+            builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+            return new Index(snapshot, docs, documents, documentsById, postings);
+        }
+
+        private List<Menu> search(String keyword, int offset, int limit) {
+            List<String> terms = new ArrayList<>();
+            if (keyword != null) {
+                for (String part : keyword.trim().split("\\s+")) {
+                    String term = normalize(part);
+                    if (!term.isEmpty()) {
+                        terms.add(term);
+                    }
+                }
+            }
+            if (terms.isEmpty() || limit <= 0) {
+                return Collections.emptyList();
+            }
+
+            int[] candidates = null;
+            for (String term : terms) {
+                int gramLength = Math.min(MAX_GRAM, term.length());
+                for (int start = 0; start + gramLength <= term.length(); start++) {
+                    int[] list = postings.getOrDefault(term.substring(start, start + gramLength), EMPTY_POSTINGS);
+                    candidates = candidates == null ? list : intersect(candidates, list);
+                    if (candidates.length == 0) {
+                        return Collections.emptyList();
+                    }
+                }
+            }
+
+            // 排序键：高位为匹配程度的补数，低位为文档号（即销量排名）
+            String query = String.join("", terms);
+            long[] keys = new long[candidates.length];
+            int matched = 0;
+            for (int doc : candidates) {
+                int quality = quality(documents[doc], terms, query);
+                if (quality > 0) {
+                    keys[matched++] = ((long) (MATCH_NAME_EXACT - quality) << 32) | doc;
+                }
+            }
+            Arrays.sort(keys, 0, matched);
+
+            int from = Math.max(0, offset);
+            int to = (int) Math.min(matched, (long) from + limit);
+            if (from >= to) {
+                return Collections.emptyList();
+            }
+            List<Menu> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(docs[(int) keys[i]]);
+            }
+            return result;
+        }
+
+        private static int quality(Document document, List<String> terms, String query) {
+            boolean allInName = true;
+            for (String term : terms) {
+                if (!document.name.contains(term)) {
+                    allInName = false;
+                    if (!document.info.contains(term)) {
+                        return 0;
+                    }
+                }
+            }
+            if (!allInName) {
+                return MATCH_INFO;
+            }
+            if (document.name.equals(query)) {
+                return MATCH_NAME_EXACT;
+            }
+            return document.name.startsWith(terms.get(0)) ? MATCH_NAME_PREFIX : MATCH_NAME;
+        }
+
+        private static int[] intersect(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return size == result.length ? result : Arrays.copyOf(result, size);
+        }
+    }
+
+    /**
+     * 构建期间使用的可增长倒排表
+     */
+    private static final class PostingsBuilder {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+}
@@ -17,12 +17,24 @@ public class MenuService {
     private static final Integer PRODUCT_STATUS_RECOMMENDED = 1;
     private static final Integer PRODUCT_STATUS_NOT_RECOMMENDED = 0;
 
+    /**
+     * Upper bound for a single page of search results; also used when no page size is given.
+     */
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final MenuMapper menuMapper;
     private final CategoryService categoryService;
+    private final CatalogCache catalogCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final HotSalesBoard hotSalesBoard;
 
-    public MenuService(MenuMapper menuMapper, CategoryService categoryService) {
+    public MenuService(MenuMapper menuMapper, CategoryService categoryService, CatalogCache catalogCache,
+                       MenuSearchIndex menuSearchIndex, HotSalesBoard hotSalesBoard) {
         this.menuMapper = menuMapper;
         this.categoryService = categoryService;
+        this.catalogCache = catalogCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.hotSalesBoard = hotSalesBoard;
     }
 
     /**
@@ -32,6 +44,9 @@ public class MenuService {
      * @return a list of menus in the specified category that are marked active
      */
     public List<Menu> getMenusByCategory(Long categoryId) {
+        if (catalogCache.isEnabled()) {
+            return catalogCache.snapshot().getMenusByCategory(categoryId);
+        }
         return menuMapper.findByCategoryIdAndProductLock(categoryId, PRODUCT_STATUS_ACTIVE);
     }
 
@@ -43,6 +58,9 @@ public class MenuService {
      * @return a list of recommended, active Menu objects; an empty list if none are found
      */
     public List<Menu> getRecommendedMenus() {
+        if (catalogCache.isEnabled()) {
+            return catalogCache.snapshot().getRecommended();
+        }
         return menuMapper.findByNewStuijianAndProductLock(PRODUCT_STATUS_RECOMMENDED, PRODUCT_STATUS_ACTIVE);
     }
 
@@ -54,6 +72,9 @@ public class MenuService {
      * @return a list of active Menu objects; never null (may be empty)
      */
     public List<Menu> getAllAvailableMenus() {
+        if (catalogCache.isEnabled()) {
+            return catalogCache.snapshot().getMenus();
+        }
         QueryWrapper<Menu> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("productlock", PRODUCT_STATUS_ACTIVE);
         return menuMapper.selectList(queryWrapper);
@@ -63,9 +84,17 @@ public class MenuService {
      * Retrieve a Menu by its primary key.
      *
      * @param id the Menu's id
+     * <p>Active menus are served from the catalog snapshot; inactive or unknown ids fall back to the database.
+     *
      * @return the Menu with the given id, or null if not found
      */
     public Menu getMenuById(Long id) {
+        if (catalogCache.isEnabled()) {
+            Menu menu = catalogCache.snapshot().getMenu(id);
+            if (menu != null) {
+                return menu;
+            }
+        }
         return menuMapper.selectById(id);
     }
 
@@ -87,7 +116,7 @@ public class MenuService {
         menu.setCreateTime(LocalDateTime.now());
         menu.setProductLock(PRODUCT_STATUS_ACTIVE);
         menu.setSales(0);
-        return menuMapper.insert(menu) > 0;
+        return invalidateIf(menuMapper.insert(menu) > 0);
     }
 
     /**
@@ -101,7 +130,7 @@ public class MenuService {
 
         // 保持创建时间不变
         menu.setCreateTime(existingMenu.getCreateTime());
-        return menuMapper.updateById(menu) > 0;
+        return invalidateIf(menuMapper.updateById(menu) > 0);
     }
 
     /**
@@ -114,7 +143,7 @@ public class MenuService {
         }
 
         menu.setProductLock(PRODUCT_STATUS_INACTIVE);
-        return menuMapper.updateById(menu) > 0;
+        return invalidateIf(menuMapper.updateById(menu) > 0);
     }
 
     /**
@@ -127,7 +156,7 @@ public class MenuService {
         }
 
         menu.setIsRecommend(recommend);
-        return menuMapper.updateById(menu) > 0;
+        return invalidateIf(menuMapper.updateById(menu) > 0);
     }
 
     /**
@@ -140,7 +169,17 @@ public class MenuService {
         }
 
         menu.setProductLock(status);
-        return menuMapper.updateById(menu) > 0;
+        return invalidateIf(menuMapper.updateById(menu) > 0);
+    }
+
+    /**
+     * 写操作成功后使目录快照失效
+     */
+    private boolean invalidateIf(boolean success) {
+        if (success) {
+            catalogCache.invalidate();
+        }
+        return success;
     }
 
     /**
@@ -178,16 +217,21 @@ public class MenuService {
             }
         }
 
-        for (Long menuId : menuIds) {
-            Menu menu = menuMapper.selectById(menuId);
-            if (menu != null) {
-                menu.setCategoryId(newCategoryId);
-                if (menuMapper.updateById(menu) <= 0) {
-                    return false;
+        try {
+            for (Long menuId : menuIds) {
+                Menu menu = menuMapper.selectById(menuId);
+                if (menu != null) {
+                    menu.setCategoryId(newCategoryId);
+                    if (menuMapper.updateById(menu) <= 0) {
+                        return false;
+                    }
                 }
             }
+            return true;
+        } finally {
+            // 中途失败时已更新的菜品同样需要反映到目录快照
+            catalogCache.invalidate();
         }
-        return true;
     }
 
     /**
@@ -201,11 +245,47 @@ public class MenuService {
      * @return 匹配的菜品列表
      */
     public List<Menu> searchMenus(String keyword) {
+        return searchMenus(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Searches active menus by keyword, one page at a time.
+     *
+     * <p>With the catalog cache enabled the query is answered from {@link MenuSearchIndex}: name and
+     * description are matched, results are ranked by match quality and then by sales. Otherwise falls back
+     * to a {@code LIKE} query on the name ordered by sales. A blank keyword returns all active menus by sales.
+     *
+     * @param keyword the search keyword; multiple whitespace-separated terms must all match
+     * @param page 1-based page number; {@code null} or less than 1 means the first page
+     * @param size page size; {@code null} or less than 1 means {@link #MAX_SEARCH_PAGE_SIZE}, larger values
+     *             are capped at {@link #MAX_SEARCH_PAGE_SIZE}
+     * @return the requested page of matching menus; empty when there are no more results
+     */
+    public List<Menu> searchMenus(String keyword, Integer page, Integer size) {
+        int pageSize = size == null || size < 1 ? MAX_SEARCH_PAGE_SIZE : Math.min(size, MAX_SEARCH_PAGE_SIZE);
+        long offset = (long) (page == null || page < 1 ? 0 : page - 1) * pageSize;
+        return searchMenus(keyword, (int) Math.min(offset, Integer.MAX_VALUE), pageSize);
+    }
+
+    private List<Menu> searchMenus(String keyword, int offset, int limit) {
+        if (catalogCache.isEnabled()) {
+            CatalogSnapshot snapshot = catalogCache.snapshot();
+            if (keyword == null || keyword.isBlank()) {
+                return slice(snapshot.getBySales(), offset, limit);
+            }
+            return menuSearchIndex.search(snapshot, keyword, offset, limit);
+        }
         QueryWrapper<Menu> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("productlock", PRODUCT_STATUS_ACTIVE)
-                   .like("name", keyword)
+                   .like("name", keyword == null ? "" : keyword.trim())
                    .orderByDesc("xiaoliang");
-        return menuMapper.selectList(queryWrapper);
+        return slice(menuMapper.selectList(queryWrapper), offset, limit);
+    }
+
+    private static List<Menu> slice(List<Menu> menus, int offset, int limit) {
+        int from = Math.min(offset, menus.size());
+        int to = (int) Math.min(menus.size(), (long) from + limit);
+        return menus.subList(from, to);
     }
 
     /**
@@ -214,10 +294,15 @@ public class MenuService {
      * 基于销量字段获取热销菜品，为用户提供热门推荐。
      * 基于项目设计文档第5.4节菜单信息表设计中的xiaoliang字段。
      *
+     * 缓存开启时从内存热销排行榜读取，销量包含尚未刷新到数据库的增量。
+     *
      * @param limit 返回数量限制，如果为null则返回所有热销菜品
      * @return 按销量排序的菜品列表
      */
     public List<Menu> getHotSalesMenus(Integer limit) {
+        if (catalogCache.isEnabled()) {
+            return hotSalesBoard.getTop(limit).getMenus();
+        }
         QueryWrapper<Menu> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("productlock", PRODUCT_STATUS_ACTIVE)
                    .orderByDesc("xiaoliang");
@@ -242,4 +327,57 @@ public class MenuService {
     public List<tech.chhsich.backend.entity.Ltype> getAllCategories() {
         return categoryService.getAllCategories();
     }
+
+    /**
+     * Returns the current catalog snapshot, for callers that serve pre-rendered responses from it.
+     *
+     * @return the snapshot, or null when the catalog cache is disabled
+     */
+    public CatalogSnapshot getCatalogSnapshot() {
+        if (!catalogCache.isEnabled()) {
+            return null;
+        }
+        return catalogCache.snapshot();
+    }
+
+    /**
+     * Returns the ETag of the public menu listings, derived from the current catalog snapshot's content.
+     *
+     * <p>Callers should read the ETag before the body: snapshots only move forward, so a body
+     * read afterwards is never older than the tag.
+     *
+     * @return the unquoted ETag, or null when the catalog cache is disabled
+     */
+    public String getCatalogETag() {
+        if (!catalogCache.isEnabled()) {
+            return null;
+        }
+        return catalogCache.snapshot().getETag();
+    }
+
+    /**
+     * Returns the live hot-sales ranking, whose ETag changes as orders come in even while the catalog
+     * snapshot stays the same.
+     *
+     * <p>Callers should take both the ETag and the body from the returned ranking, so the two always
+     * describe the same list.
+     *
+     * @param limit the same limit accepted by {@link #getHotSalesMenus(Integer)}
+     * @return the ranking, or null when the catalog cache is disabled
+     */
+    public HotSalesBoard.Ranking getHotSalesRanking(Integer limit) {
+        if (!catalogCache.isEnabled()) {
+            return null;
+        }
+        return hotSalesBoard.getTop(limit);
+    }
+
+    /**
+     * Returns the ETag of the active category list.
+     *
+     * @return the unquoted ETag
+     */
+    public String getCategoriesETag() {
+        return categoryService.getAllCategoriesETag();
+    }
 }
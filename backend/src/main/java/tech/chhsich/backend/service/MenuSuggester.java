@@ -0,0 +1,348 @@
+package tech.chhsich.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.chhsich.backend.cache.TwoLevelCache;
+import tech.chhsich.backend.dto.MenuSuggestion;
+import tech.chhsich.backend.entity.Ltype;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+import tech.chhsich.backend.event.CategoryChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 搜索框输入提示
+ *
+ * <p>由上架菜品名称和类别名称构建不可变的前缀树，节点数据平铺在基本类型数组中：
+ * 每个节点的子节点连续存放并按字符排序，逐字二分查找子节点；每个节点预先保存以该前缀开头、
+ * 按销量从高到低的前 {@code app.suggest.top-k} 个提示项。一次查询的时间只与前缀长度有关，
+ * 除返回的列表外不分配对象。菜品权重为其销量，类别权重为其下上架菜品的销量之和。</p>
+ *
+ * <p>字符归一化与搜索一致：全角转半角、转小写、忽略空白和标点。</p>
+ *
+ * <p>目录快照或类别变化后，在单独的后台线程重建并整体替换前缀树，多次变化合并为一次重建；
+ * 重建期间查询继续使用旧的前缀树。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class MenuSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSuggester.class);
+
+    static final String TYPE_MENU = "menu";
+    static final String TYPE_CATEGORY = "category";
+
+    private final CatalogCache catalogCache;
+    private final CategoryService categoryService;
+    private final int topK;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-suggest-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Trie trie;
+
+    public MenuSuggester(CatalogCache catalogCache,
+                         CategoryService categoryService,
+                         TwoLevelCache twoLevelCache,
+                         @Value("${app.suggest.top-k:10}") int topK) {
+        this.catalogCache = catalogCache;
+        this.categoryService = categoryService;
+        this.topK = Math.max(1, topK);
+        twoLevelCache.onRemoteInvalidation(key -> {
+            if (CategoryService.ACTIVE_CATEGORIES_KEY.equals(key)) {
+                scheduleRebuild();
+            }
+        });
+    }
+
+    /**
+     * @return 每个前缀最多返回的提示数
+     */
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * 查询前缀对应的提示
+     *
+     * @param prefix 用户已输入的内容
+     * @param limit 最多返回的条数，不超过 {@link #getTopK()}
+     * @return 按销量从高到低的提示，没有匹配或前缀为空时返回空列表
+     */
+    public List<MenuSuggestion> suggest(String prefix, int limit) {
+        Trie current = trie;
+        if (current == null) {
+            current = rebuildNow();
+        }
+        return current.lookup(prefix, Math.min(limit, topK));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * 类别变化后重建；在事务结束后处理，此时类别缓存已再次清除
+     *
+     * @param event 类别变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        builder.shutdownNow();
+        builder.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 提交一次后台重建；已有尚未开始的重建时不重复提交
+     */
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            builder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuildNow();
+                } catch (RuntimeException e) {
+                    logger.warn("重建搜索提示失败: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private synchronized Trie rebuildNow() {
+        long startNanos = System.nanoTime();
+        Trie rebuilt = Trie.build(catalogCache.snapshot(), categoryService.getAllCategories(), topK);
+        trie = rebuilt;
+        logger.debug("搜索提示前缀树已重建: {} 个节点, 耗时 {}us", rebuilt.labels.length,
+                (System.nanoTime() - startNanos) / 1_000);
+        return rebuilt;
+    }
+
+    /**
+     * 字符归一化：全角ASCII转半角并转小写；空白和标点返回0表示忽略
+     */
+    static char fold(char c) {
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return 0;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * 平铺在数组中的不可变前缀树，节点0为根
+     */
+    static final class Trie {
+
+        /**
+         * 进入该节点的字符
+         */
+        private final char[] labels;
+
+        /**
+         * 第一个子节点的下标，子节点连续存放并按字符升序
+         */
+        private final int[] firstChild;
+        private final int[] childCount;
+
+        /**
+         * 节点的提示项在 {@link #topEntries} 中的范围为 [topOffset[n], topOffset[n + 1])
+         */
+        private final int[] topOffset;
+        private final int[] topEntries;
+
+        private final MenuSuggestion[] entries;
+
+        private Trie(char[] labels, int[] firstChild, int[] childCount, int[] topOffset, int[] topEntries,
+                     MenuSuggestion[] entries) {
+            this.labels = labels;
+            this.firstChild = firstChild;
+            this.childCount = childCount;
+            this.topOffset = topOffset;
+            this.topEntries = topEntries;
+            this.entries = entries;
+        }
+
+        static Trie build(CatalogSnapshot snapshot, List<Ltype> categories, int topK) {
+            List<WeightedEntry> weighted = new ArrayList<>();
+            for (Menu menu : snapshot.getMenus()) {
+                if (menu.getName() != null) {
+                    weighted.add(new WeightedEntry(new MenuSuggestion(menu.getName(), TYPE_MENU, menu.getId()),
+                            menu.getSales() == null ? 0 : menu.getSales()));
+                }
+            }
+            for (Ltype category : categories) {
+                if (category.getCateName() != null) {
+                    long sales = 0;
+                    for (Menu menu : snapshot.getMenusByCategory(category.getId())) {
+                        sales += menu.getSales() == null ? 0 : menu.getSales();
+                    }
+                    weighted.add(new WeightedEntry(
+                            new MenuSuggestion(category.getCateName(), TYPE_CATEGORY, category.getId()), sales));
+                }
+            }
+            weighted.sort(Comparator.comparingLong((WeightedEntry entry) -> entry.weight).reversed()
+                    .thenComparing(entry -> entry.suggestion.getText()));
+
+            // 按权重从高到低插入，每个节点先到的即为前k项
+            MutableNode root = new MutableNode((char) 0);
+            MenuSuggestion[] entries = new MenuSuggestion[weighted.size()];
+            for (int i = 0; i < weighted.size(); i++) {
+                entries[i] = weighted.get(i).suggestion;
+                MutableNode node = root;
+                String text = entries[i].getText();
+                for (int j = 0; j < text.length(); j++) {
+                    char c = fold(text.charAt(j));
+                    if (c == 0) {
+                        continue;
+                    }
+                    node = node.child(c);
+                    if (node.top.size() < topK) {
+                        node.top.add(i);
+                    }
+                }
+            }
+            return pack(root, entries);
+        }
+
+        /**
+         * 按层序把节点写入数组，使每个节点的子节点连续
+         */
+        private static Trie pack(MutableNode root, MenuSuggestion[] entries) {
+            List<MutableNode> order = new ArrayList<>();
+            order.add(root);
+            int topTotal = 0;
+            for (int i = 0; i < order.size(); i++) {
+                MutableNode node = order.get(i);
+                topTotal += node.top.size();
+                order.addAll(node.children.values());
+            }
+
+            int size = order.size();
+            char[] labels = new char[size];
+            int[] firstChild = new int[size];
+            int[] childCount = new int[size];
+            int[] topOffset = new int[size + 1];
+            int[] topEntries = new int[topTotal];
+            int nextChild = 1;
+            int nextTop = 0;
+            for (int i = 0; i < size; i++) {
+                MutableNode node = order.get(i);
+                labels[i] = node.label;
+                firstChild[i] = nextChild;
+                childCount[i] = node.children.size();
+                nextChild += node.children.size();
+                topOffset[i] = nextTop;
+                for (int entry : node.top) {
+                    topEntries[nextTop++] = entry;
+                }
+            }
+            topOffset[size] = nextTop;
+            return new Trie(labels, firstChild, childCount, topOffset, topEntries, entries);
+        }
+
+        List<MenuSuggestion> lookup(String prefix, int limit) {
+            if (prefix == null || limit <= 0) {
+                return Collections.emptyList();
+            }
+            int node = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = fold(prefix.charAt(i));
+                if (c == 0) {
+                    continue;
+                }
+                node = findChild(node, c);
+                if (node < 0) {
+                    return Collections.emptyList();
+                }
+            }
+            if (node == 0) {
+                return Collections.emptyList();
+            }
+            int from = topOffset[node];
+            int to = Math.min(topOffset[node + 1], from + limit);
+            List<MenuSuggestion> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(entries[topEntries[i]]);
+            }
+            return result;
+        }
+
+        private int findChild(int node, char c) {
+            int low = firstChild[node];
+            int high = low + childCount[node] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char label = labels[mid];
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class MutableNode {
+
+        private final char label;
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private final List<Integer> top = new ArrayList<>();
+
+        private MutableNode(char label) {
+            this.label = label;
+        }
+
+        private MutableNode child(char c) {
+            return children.computeIfAbsent(c, MutableNode::new);
+        }
+    }
+
+    private static final class WeightedEntry {
+
+        private final MenuSuggestion suggestion;
+        private final long weight;
+
+        private WeightedEntry(MenuSuggestion suggestion, long weight) {
+            this.suggestion = suggestion;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.entity.OperationLog;
+import tech.chhsich.backend.mapper.OperationLogMapper;
+import tech.chhsich.backend.utils.MpscRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 操作日志异步批量写入器
+ *
+ * <p>请求线程通过 {@link #publish} 把操作日志放入无锁环形缓冲区后立即返回；
+ * 后台写入线程每攒够 {@code batch-size} 条或距该批第一条超过 {@code flush-interval-ms} 毫秒，
+ * 就用一条多值INSERT写入 {@code operation_log}，审计不再占用请求的数据库时间。</p>
+ *
+ * <p>缓冲区满时按 {@code full-policy} 处理：{@code drop} 直接丢弃；{@code block} 让请求线程
+ * 最多等待 {@code block-timeout-ms} 毫秒，仍无空位则丢弃。丢弃数量和写入失败数量通过
+ * audit.log.dropped{reason=buffer_full|write_failed} 暴露，缓冲区深度通过 audit.log.queue.size 暴露。</p>
+ *
+ * <p>写入线程空闲时的休眠时间从1毫秒起逐次翻倍，最长为 {@code flush-interval-ms}；缓冲区积压满一批
+ * 或已满时，生产者会唤醒写入线程，不必等休眠结束。</p>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+@Component
+public class OperationLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogWriter.class);
+
+    /**
+     * 写入线程空闲时的初始休眠时间
+     */
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 阻塞策略下生产者每次重试前的等待时间
+     */
+    private static final long BLOCK_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum FullPolicy {
+        DROP, BLOCK
+    }
+
+    private final OperationLogMapper operationLogMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final FullPolicy fullPolicy;
+    private final long blockTimeoutNanos;
+    private final MpscRingBuffer<OperationLog> buffer;
+    private final Counter droppedFull;
+    private final Counter droppedWriteFailed;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    /**
+     * 写入线程手中尚未写入的日志数，生产者据此判断是否已攒满一批
+     */
+    private volatile int pending;
+
+    /**
+     * 构造函数
+     *
+     * @param operationLogMapper 操作日志Mapper
+     * @param meterRegistry 指标注册中心
+     * @param enabled 是否写入操作日志表
+     * @param bufferSize 环形缓冲区容量（向上取整到2的幂）
+     * @param batchSize 每批最多写入的条数
+     * @param flushIntervalMillis 未攒满一批时的最长等待时间（毫秒）
+     * @param fullPolicy 缓冲区满时的处理策略（drop 或 block）
+     * @param blockTimeoutMillis block策略下的最长等待时间（毫秒）
+     */
+    public OperationLogWriter(OperationLogMapper operationLogMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.audit.enabled:true}") boolean enabled,
+                              @Value("${app.audit.buffer-size:4096}") int bufferSize,
+                              @Value("${app.audit.batch-size:100}") int batchSize,
+                              @Value("${app.audit.flush-interval-ms:1000}") long flushIntervalMillis,
+                              @Value("${app.audit.full-policy:drop}") String fullPolicy,
+                              @Value("${app.audit.block-timeout-ms:50}") long blockTimeoutMillis) {
+        this.operationLogMapper = operationLogMapper;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushIntervalMillis));
+        this.fullPolicy = FullPolicy.valueOf(fullPolicy.trim().toUpperCase());
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMillis));
+        this.buffer = new MpscRingBuffer<>(Math.max(1, bufferSize));
+        this.droppedFull = Counter.builder("audit.log.dropped").tag("reason", "buffer_full")
+                .description("未能写入的操作日志数").register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("audit.log.dropped").tag("reason", "write_failed")
+                .description("未能写入的操作日志数").register(meterRegistry);
+        Gauge.builder("audit.log.queue.size", buffer, MpscRingBuffer::size)
+                .description("等待写入的操作日志数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动写入线程
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "operation-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("操作日志写入器已启动: bufferSize={}, batchSize={}, fullPolicy={}",
+                buffer.capacity(), batchSize, fullPolicy);
+    }
+
+    /**
+     * 停止写入线程，写入线程退出前会写完缓冲区中剩余的日志
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5000);
+        }
+    }
+
+    /**
+     * 提交一条操作日志，不等待写入
+     *
+     * @param operationLog 操作日志
+     * @return 已放入缓冲区返回true；未启用或被丢弃返回false
+     */
+    public boolean publish(OperationLog operationLog) {
+        if (!enabled) {
+            return false;
+        }
+        if (buffer.offer(operationLog)) {
+            if (pending + buffer.size() >= batchSize) {
+                wakeWriter();
+            }
+            return true;
+        }
+        wakeWriter();
+        if (fullPolicy == FullPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_RETRY_NANOS);
+                if (buffer.offer(operationLog)) {
+                    return true;
+                }
+            }
+        }
+        droppedFull.increment();
+        return false;
+    }
+
+    private void wakeWriter() {
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * 写入线程主循环：攒批、按数量或时间触发写入，空闲时逐步延长休眠，停止后写完剩余日志
+     */
+    private void writeLoop() {
+        List<OperationLog> batch = new ArrayList<>(batchSize);
+        long batchStart = 0;
+        long maxIdleParkNanos = Math.max(MIN_IDLE_PARK_NANOS, flushIntervalNanos);
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            boolean wasEmpty = batch.isEmpty();
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (wasEmpty && drained > 0) {
+                batchStart = System.nanoTime();
+            }
+            pending = batch.size();
+            boolean due = !batch.isEmpty()
+                    && (batch.size() >= batchSize || !running || System.nanoTime() - batchStart >= flushIntervalNanos);
+            if (due) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+                pending = 0;
+                idleParkNanos = MIN_IDLE_PARK_NANOS;
+            } else if (drained == 0) {
+                long parkNanos = idleParkNanos;
+                if (!batch.isEmpty()) {
+                    // 未攒满的批次不能等过刷新时间
+                    parkNanos = Math.min(parkNanos, batchStart + flushIntervalNanos - System.nanoTime());
+                }
+                LockSupport.parkNanos(Math.max(parkNanos, MIN_IDLE_PARK_NANOS));
+                idleParkNanos = Math.min(idleParkNanos * 2, maxIdleParkNanos);
+            } else {
+                idleParkNanos = MIN_IDLE_PARK_NANOS;
+            }
+        }
+    }
+
+    /**
+     * 写入一批日志，失败时记录丢弃数量，不影响后续批次
+     */
+    void flush(List<OperationLog> batch) {
+        try {
+            operationLogMapper.insertBatch(batch);
+        } catch (Exception e) {
+            droppedWriteFailed.increment(batch.size());
+            logger.error("操作日志批量写入失败，丢弃{}条", batch.size(), e);
+        }
+    }
+
+    /**
+     * 当前缓冲区中等待写入的日志数
+     *
+     * @return 日志数
+     */
+    public int getQueueSize() {
+        return buffer.size();
+    }
+}
@@ -0,0 +1,198 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.chhsich.backend.dto.OrderTransitionResult;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.event.OrderCreatedEvent;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+import tech.chhsich.backend.utils.HierarchicalTimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 订单超时取消服务
+ *
+ * <p>落实 {@code app.order.timeout}：每个新订单在事务提交后登记到内存中的分层时间轮，
+ * 到期时间为创建时间加超时分钟数。定时任务每个tick推进时间轮，把到期的订单按批通过
+ * {@link OrderService#cancelExpiredOrders} 取消；期间已支付的订单不会被取消。</p>
+ *
+ * <p>应用启动时用一条走覆盖索引的查询扫描所有待支付订单重建时间轮，之后不再轮询数据库。</p>
+ *
+ * <p>取消失败的批次按指数退避重新登记到时间轮；同一订单连续失败 {@code app.order.expiry-max-attempts}
+ * 次后放弃并记录一次日志，不会无限重试。</p>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+@Service
+public class OrderExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExpiryService.class);
+
+    private static final long TICK_MILLIS = 1000L;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000L;
+    private static final int WHEEL_SIZE = 60;
+    private static final int WHEEL_LEVELS = 4;
+    private static final String EXPIRE_REASON = "订单超时未支付，系统自动取消";
+
+    private final OrderService orderService;
+    private final OrderInfoMapper orderInfoMapper;
+    private final long timeoutMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final HierarchicalTimingWheel<String> wheel;
+
+    /**
+     * 取消失败的订单及其已失败的次数
+     */
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    /**
+     * 登记时已经到期、等待下一次处理的订单
+     */
+    private final Queue<String> dueNow = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 构造函数
+     *
+     * @param orderService 订单服务
+     * @param orderInfoMapper 订单信息数据访问层
+     * @param meterRegistry 指标注册中心
+     * @param timeoutMinutes 订单超时时间（分钟）
+     * @param batchSize 每批取消的订单数
+     * @param maxAttempts 同一订单最多尝试取消的次数
+     */
+    public OrderExpiryService(OrderService orderService,
+                              OrderInfoMapper orderInfoMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.order.timeout:30}") long timeoutMinutes,
+                              @Value("${app.order.expiry-batch-size:200}") int batchSize,
+                              @Value("${app.order.expiry-max-attempts:5}") int maxAttempts) {
+        this.orderService = orderService;
+        this.orderInfoMapper = orderInfoMapper;
+        this.timeoutMillis = timeoutMinutes * 60_000L;
+        this.batchSize = Math.min(Math.max(1, batchSize), OrderService.MAX_BULK_TRANSITION_SIZE);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        Gauge.builder("order.expiry.scheduled", wheel, HierarchicalTimingWheel::size)
+                .description("等待超时检查的待支付订单数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动时用一次索引扫描重建时间轮
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<OrderInfo> pending = orderInfoMapper.findOrderidAndCreatetimeByStatus(OrderStatus.PENDING_PAYMENT.getCode());
+        for (OrderInfo order : pending) {
+            schedule(order.getOrderId(), order.getCreateTime());
+        }
+        logger.info("订单超时时间轮已重建: {} 个待支付订单", pending.size());
+    }
+
+    /**
+     * 新订单提交后登记到时间轮
+     *
+     * @param event 订单创建事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        OrderInfo order = event.getOrder();
+        schedule(order.getOrderId(), order.getCreateTime());
+    }
+
+    /**
+     * 推进时间轮并取消到期的订单
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        List<String> expired = wheel.advance(System.currentTimeMillis());
+        String orderId;
+        while ((orderId = dueNow.poll()) != null) {
+            expired.add(orderId);
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        int cancelled = 0;
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<String> batch = new ArrayList<>(expired.subList(from, Math.min(from + batchSize, expired.size())));
+            try {
+                for (OrderTransitionResult result : orderService.cancelExpiredOrders(batch, EXPIRE_REASON)) {
+                    if (result.isSuccess()) {
+                        cancelled++;
+                    }
+                }
+                batch.forEach(failedAttempts::remove);
+            } catch (RuntimeException e) {
+                logger.warn("超时订单批量取消失败，稍后重试: size={}, cause={}", batch.size(), e.getMessage());
+                retryLater(batch);
+            }
+        }
+        logger.debug("超时订单检查完成: 到期 {} 个，取消 {} 个", expired.size(), cancelled);
+    }
+
+    /**
+     * 获取时间轮中等待检查的订单数
+     *
+     * @return 订单数
+     */
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * 按失败次数指数退避重新登记；达到上限的订单不再重试
+     */
+    private void retryLater(List<String> batch) {
+        long now = System.currentTimeMillis();
+        List<String> abandoned = new ArrayList<>();
+        for (String orderId : batch) {
+            int attempts = failedAttempts.merge(orderId, 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                failedAttempts.remove(orderId);
+                abandoned.add(orderId);
+                continue;
+            }
+            long delay = Math.min(TICK_MILLIS << Math.min(attempts, 16), MAX_RETRY_DELAY_MILLIS);
+            if (!wheel.schedule(orderId, now + delay)) {
+                dueNow.add(orderId);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            logger.error("超时订单取消连续失败 {} 次，已放弃: {}", maxAttempts, abandoned);
+        }
+    }
+
+    private void schedule(String orderId, LocalDateTime createTime) {
+        if (orderId == null) {
+            return;
+        }
+        long createdAt = createTime != null
+                ? createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        if (!wheel.schedule(orderId, createdAt + timeoutMillis)) {
+            dueNow.add(orderId);
+        }
+    }
+}
@@ -9,7 +9,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 订单历史记录服务
@@ -49,11 +51,52 @@ public class OrderHistoryService {
      */
     @Transactional
     public void recordStatusChange(OrderInfo order, OrderStatus newStatus, String reason, String operator, String remarks) {
+        recordStatusChange(order.getOrderId(), OrderStatus.fromCode(order.getStatus()), newStatus, reason, operator, remarks);
+    }
+
+    /**
+     * 记录订单状态变更（已知原状态，无需订单对象）
+     *
+     * @param orderId 订单ID
+     * @param fromStatus 原状态
+     * @param newStatus 新状态
+     * @param reason 变更原因
+     * @param operator 操作人员
+     * @param remarks 备注
+     */
+    @Transactional
+    public void recordStatusChange(String orderId, OrderStatus fromStatus, OrderStatus newStatus,
+                                   String reason, String operator, String remarks) {
+        orderHistoryMapper.insert(buildHistory(orderId, fromStatus, newStatus, reason, operator, remarks));
+    }
+
+    /**
+     * 批量记录订单状态变更（单条多值INSERT语句）
+     *
+     * @param fromStatusByOrderId 订单ID到原状态的映射
+     * @param newStatus 新状态
+     * @param reason 变更原因
+     * @param operator 操作人员
+     * @param remarks 备注
+     */
+    @Transactional
+    public void recordStatusChanges(Map<String, OrderStatus> fromStatusByOrderId, OrderStatus newStatus,
+                                    String reason, String operator, String remarks) {
+        if (fromStatusByOrderId.isEmpty()) {
+            return;
+        }
+        List<OrderHistory> histories = new ArrayList<>(fromStatusByOrderId.size());
+        fromStatusByOrderId.forEach((orderId, fromStatus) ->
+                histories.add(buildHistory(orderId, fromStatus, newStatus, reason, operator, remarks)));
+        orderHistoryMapper.insertBatch(histories);
+    }
+
+    private OrderHistory buildHistory(String orderId, OrderStatus fromStatus, OrderStatus newStatus,
+                                      String reason, String operator, String remarks) {
         OrderHistory history = new OrderHistory();
-        history.setOrderId(order.getOrderId());
+        history.setOrderId(orderId);
 
-        // 获取原状态信息
-        OrderStatus fromStatus = OrderStatus.fromCode(order.getStatus());
+        // 设置原状态信息
         history.setFromStatus(fromStatus.getCode());
         history.setFromStatusDesc(fromStatus.getDescription());
 
@@ -66,9 +109,7 @@ public class OrderHistoryService {
         history.setOperator(operator);
         history.setOperationTime(LocalDateTime.now());
         history.setRemarks(remarks);
-
-        // 保存历史记录
-        orderHistoryMapper.insert(history);
+        return history;
     }
 
     /**
@@ -0,0 +1,25 @@
+package tech.chhsich.backend.service;
+
+/**
+ * 订单号生成器
+ *
+ * 负责为新订单生成全局唯一的订单号，可替换不同的生成策略。
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public interface OrderIdGenerator {
+
+    /**
+     * 订单号统一前缀
+     */
+    String PREFIX = "ORD";
+
+    /**
+     * 生成新的订单号
+     *
+     * @return 以 {@link #PREFIX} 开头的唯一订单号
+     */
+    String nextId();
+}
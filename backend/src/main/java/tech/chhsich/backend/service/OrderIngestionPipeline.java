@@ -0,0 +1,254 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.exception.OrderIngestionRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 订单批量写入管道（组提交）
+ *
+ * <p>开启后，下单请求在调用线程上完成校验和定价，然后放入有界队列；少量写入线程从队列中
+ * 每次取出最多 {@code batch-size} 个订单（或等待 {@code linger-ms} 毫秒），在一个事务中用
+ * 多值INSERT写入 {@code cg_info} 和 {@code the_order_entry}，再逐个完成调用方的Future。
+ * 高峰期数百个并发下单只占用与写入线程数相同的数据库连接。</p>
+ *
+ * <p>整批提交失败时，会把该批订单逐个单独重试，一个订单的问题不会导致同批其他订单失败。
+ * 队列已满时立即拒绝并抛出 {@link OrderIngestionRejectedException}。</p>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+@Component
+public class OrderIngestionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestionPipeline.class);
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int writerThreads;
+    private final long timeoutMillis;
+    private final BlockingQueue<PendingOrder> queue;
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    /**
+     * 构造函数
+     *
+     * @param orderService 订单服务
+     * @param meterRegistry 指标注册中心
+     * @param enabled 是否启用批量写入模式
+     * @param batchSize 每个事务最多提交的订单数
+     * @param lingerMillis 凑批的最长等待时间（毫秒）
+     * @param queueCapacity 待写入队列容量
+     * @param writerThreads 写入线程数
+     * @param timeoutMillis 调用方等待写入结果的超时时间（毫秒）
+     */
+    public OrderIngestionPipeline(OrderService orderService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.order.ingest.enabled:false}") boolean enabled,
+                                  @Value("${app.order.ingest.batch-size:50}") int batchSize,
+                                  @Value("${app.order.ingest.linger-ms:5}") long lingerMillis,
+                                  @Value("${app.order.ingest.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${app.order.ingest.writer-threads:2}") int writerThreads,
+                                  @Value("${app.order.ingest.timeout-ms:10000}") long timeoutMillis) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMillis));
+        this.writerThreads = Math.max(1, writerThreads);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        Gauge.builder("order.ingest.queue.size", queue, BlockingQueue::size)
+                .description("等待批量写入的订单数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动写入线程
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::writeLoop, "order-ingest-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+        logger.info("订单批量写入管道已启动: writers={}, batchSize={}", writerThreads, batchSize);
+    }
+
+    /**
+     * 停止写入线程，并在退出前写完队列中剩余的订单
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(timeoutMillis);
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            commit(remaining);
+        }
+    }
+
+    /**
+     * 是否启用了批量写入模式
+     *
+     * @return 启用返回true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 校验订单并放入写入队列
+     *
+     * @param username 用户名
+     * @param items 订单项
+     * @param address 送货地址
+     * @param phone 联系电话
+     * @return 订单写入完成后完成的Future
+     * @throws RuntimeException 如果订单校验失败
+     * @throws OrderIngestionRejectedException 如果写入队列已满
+     */
+    public CompletableFuture<OrderInfo> submit(String username, List<OrderService.OrderItemRequest> items,
+                                               String address, String phone) {
+        OrderService.PreparedOrder prepared = orderService.prepareOrder(username, items, address, phone);
+        PendingOrder pending = new PendingOrder(prepared);
+        if (!queue.offer(pending)) {
+            throw new OrderIngestionRejectedException("下单人数过多，请稍后重试");
+        }
+        return pending.future;
+    }
+
+    /**
+     * 校验订单、放入写入队列并等待写入完成
+     *
+     * @param username 用户名
+     * @param items 订单项
+     * @param address 送货地址
+     * @param phone 联系电话
+     * @return 已持久化的订单
+     * @throws RuntimeException 如果订单校验或写入失败
+     * @throws OrderIngestionRejectedException 如果写入队列已满
+     */
+    public OrderInfo createOrder(String username, List<OrderService.OrderItemRequest> items,
+                                 String address, String phone) {
+        CompletableFuture<OrderInfo> future = submit(username, items, address, phone);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("订单创建失败: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("订单处理超时，请稍后查询订单状态");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("订单处理被中断");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("订单批量写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 整批提交，失败时逐个重试以隔离出错的订单
+     */
+    void commit(List<PendingOrder> batch) {
+        List<OrderService.PreparedOrder> prepared = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            prepared.add(pending.prepared);
+        }
+
+        try {
+            List<OrderInfo> saved = orderService.persistOrders(prepared);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(saved.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(new RuntimeException("订单创建失败: " + e.getMessage(), e));
+                return;
+            }
+            logger.warn("订单整批写入失败，逐个重试: size={}, cause={}", batch.size(), e.getMessage());
+        }
+
+        for (PendingOrder pending : batch) {
+            try {
+                OrderInfo saved = orderService.persistOrders(List.of(pending.prepared)).get(0);
+                pending.future.complete(saved);
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(new RuntimeException("订单创建失败: " + e.getMessage(), e));
+            }
+        }
+    }
+
+    /**
+     * 队列中等待写入的订单
+     */
+    static final class PendingOrder {
+        final OrderService.PreparedOrder prepared;
+        final CompletableFuture<OrderInfo> future = new CompletableFuture<>();
+
+        PendingOrder(OrderService.PreparedOrder prepared) {
+            this.prepared = prepared;
+        }
+    }
+}
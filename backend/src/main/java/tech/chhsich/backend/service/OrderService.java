@@ -1,21 +1,37 @@
 package tech.chhsich.backend.service;
 
+import tech.chhsich.backend.dto.CursorPage;
+import tech.chhsich.backend.dto.OrderDetailDTO;
+import tech.chhsich.backend.dto.OrderTransitionResult;
 import tech.chhsich.backend.entity.Menu;
 import tech.chhsich.backend.entity.OrderInfo;
 import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.entity.OrderHistory;
 import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.event.OrderCreatedEvent;
 import tech.chhsich.backend.exception.OrderStatusTransitionException;
 import tech.chhsich.backend.mapper.MenuMapper;
 import tech.chhsich.backend.mapper.OrderInfoMapper;
 import tech.chhsich.backend.mapper.OrderEntryMapper;
 import tech.chhsich.backend.service.UserService;
+import tech.chhsich.backend.utils.OrderCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class OrderService {
@@ -25,6 +41,25 @@ public class OrderService {
     private final UserService userService;
     private final MenuMapper menuMapper;
     private final OrderStateMachine orderStateMachine;
+    private final OrderIdGenerator orderIdGenerator;
+    private final SalesAccumulator salesAccumulator;
+    private final OrderHistoryService orderHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 批量状态转换单次最多处理的订单数
+     */
+    public static final int MAX_BULK_TRANSITION_SIZE = 500;
+
+    /**
+     * 订单列表默认每页条数
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 订单列表每页最多条数
+     */
+    public static final int MAX_PAGE_SIZE = 100;
 
     /**
      * Constructs an OrderService with the required persistence mappers and user service.
@@ -32,12 +67,18 @@ public class OrderService {
      * These dependencies are used to create and manage orders, order entries, and to validate users.
      */
     public OrderService(OrderInfoMapper orderInfoMapper, OrderEntryMapper orderEntryMapper,
-                       UserService userService, MenuMapper menuMapper, OrderStateMachine orderStateMachine) {
+                       UserService userService, MenuMapper menuMapper, OrderStateMachine orderStateMachine,
+                       OrderIdGenerator orderIdGenerator, SalesAccumulator salesAccumulator,
+                       OrderHistoryService orderHistoryService, ApplicationEventPublisher eventPublisher) {
         this.orderInfoMapper = orderInfoMapper;
         this.orderEntryMapper = orderEntryMapper;
         this.userService = userService;
         this.menuMapper = menuMapper;
         this.orderStateMachine = orderStateMachine;
+        this.orderIdGenerator = orderIdGenerator;
+        this.salesAccumulator = salesAccumulator;
+        this.orderHistoryService = orderHistoryService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -48,6 +89,11 @@ public class OrderService {
      * price from each item's hot price and quantity, inserts the order and its OrderEntry records, and increments the
      * corresponding Menu.sales for each ordered item.</p>
      *
+     * <p>All referenced menus are loaded with a single {@code selectBatchIds} and reused for both pricing and entry
+     * construction, and the entries are written with one multi-row insert, so the number of round trips no longer grows
+     * with the number of items. Sales increments are handed to {@link SalesAccumulator} and flushed to the menu table
+     * in the background after commit, keeping hot menu rows out of the order transaction.</p>
+     *
      * @param username the username of the purchaser
      * @param items a list of OrderItemRequest describing menu IDs and quantities to include in the order
      * @param address delivery address for the order
@@ -57,6 +103,42 @@ public class OrderService {
      */
     @Transactional
     public OrderInfo createOrder(String username, List<OrderItemRequest> items, String address, String phone) {
+        PreparedOrder prepared = prepareOrder(username, items, address, phone);
+
+        try {
+            // 插入订单主信息
+            orderInfoMapper.insert(prepared.getOrder());
+
+            // 批量插入订单项
+            orderEntryMapper.insertBatch(prepared.getEntries());
+
+            // 累加销量，事务提交后由后台任务批量写回
+            salesAccumulator.incrementAll(prepared.getSalesIncrements());
+
+            eventPublisher.publishEvent(new OrderCreatedEvent(prepared.getOrder(), prepared.getEntries()));
+
+            return prepared.getOrder();
+        } catch (Exception e) {
+            // 如果订单创建失败，抛出运行时异常让事务回滚
+            throw new RuntimeException("订单创建失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validates an order request and builds the rows to persist, without writing anything.
+     *
+     * <p>Checks the user and delivery details, loads all referenced menus with one query, prices the items and
+     * builds the {@link OrderInfo} and {@link OrderEntry} objects. The result can be persisted on its own through
+     * {@link #createOrder} or together with other orders through {@link #persistOrders}.</p>
+     *
+     * @param username the username of the purchaser
+     * @param items a list of OrderItemRequest describing menu IDs and quantities to include in the order
+     * @param address delivery address for the order
+     * @param phone contact phone number for the order
+     * @return the validated, not yet persisted order
+     * @throws RuntimeException if the user does not exist or if any referenced menu item is missing or marked off-shelf
+     */
+    public PreparedOrder prepareOrder(String username, List<OrderItemRequest> items, String address, String phone) {
         // 检查用户是否存在
         if (userService.getUserByUsername(username) == null) {
             throw new RuntimeException("用户不存在，无法创建订单");
@@ -69,6 +151,9 @@ public class OrderService {
         if (phone == null || phone.trim().isEmpty()) {
             throw new RuntimeException("联系电话不能为空");
         }
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("订单项不能为空");
+        }
 
         OrderInfo order = new OrderInfo();
         order.setOrderId(generateOrderId());
@@ -78,9 +163,8 @@ public class OrderService {
         order.setCreateTime(LocalDateTime.now());
         order.setStatus(OrderStatus.PENDING_PAYMENT.getCode()); // 待支付
 
-        double totalPrice = 0;
-
-        // 预验证所有菜品并计算总价
+        // 预验证请求参数，并按菜品汇总销量增量（保持请求中的顺序）
+        Map<Long, Integer> salesIncrements = new LinkedHashMap<>();
         for (OrderItemRequest item : items) {
             if (item.getMenuId() == null) {
                 throw new RuntimeException("菜品ID不能为空");
@@ -88,8 +172,18 @@ public class OrderService {
             if (item.getQuantity() == null || item.getQuantity() <= 0) {
                 throw new RuntimeException("菜品数量必须大于0");
             }
+            salesIncrements.merge(item.getMenuId(), item.getQuantity(), Integer::sum);
+        }
+
+        // 一次查询加载所有涉及的菜品
+        Map<Long, Menu> menus = loadMenus(salesIncrements.keySet());
 
-            Menu menu = menuMapper.selectById(item.getMenuId());
+        double totalPrice = 0;
+        List<OrderEntry> entries = new ArrayList<>(items.size());
+
+        // 验证所有菜品、计算总价并构建订单条目
+        for (OrderItemRequest item : items) {
+            Menu menu = menus.get(item.getMenuId());
             if (menu == null) {
                 throw new RuntimeException("菜品不存在: " + item.getMenuId());
             }
@@ -98,6 +192,14 @@ public class OrderService {
             }
 
             totalPrice += menu.getHotPrice() * item.getQuantity();
+
+            OrderEntry entry = new OrderEntry();
+            entry.setProductId(menu.getId());
+            entry.setProductName(menu.getName());
+            entry.setPrice(menu.getHotPrice()); // 使用热销价
+            entry.setProductNum(item.getQuantity());
+            entry.setOrderId(order.getOrderId());
+            entries.add(entry);
         }
 
         // 验证总价
@@ -107,33 +209,39 @@ public class OrderService {
 
         order.setTotalPrice(totalPrice);
 
-        try {
-            // 插入订单主信息
-            orderInfoMapper.insert(order);
-
-            // 插入订单项并更新销量
-            for (OrderItemRequest item : items) {
-                Menu menu = menuMapper.selectById(item.getMenuId());
-
-                OrderEntry entry = new OrderEntry();
-                entry.setProductId(menu.getId());
-                entry.setProductName(menu.getName());
-                entry.setPrice(menu.getHotPrice()); // 使用热销价
-                entry.setProductNum(item.getQuantity());
-                entry.setOrderId(order.getOrderId());
+        return new PreparedOrder(order, entries, salesIncrements);
+    }
 
-                orderEntryMapper.insert(entry);
+    /**
+     * Persists several prepared orders in a single transaction.
+     *
+     * <p>All {@code cg_info} rows are written with one multi-row insert and all {@code the_order_entry} rows with
+     * another, so committing N orders costs a constant number of statements. If any row fails the whole batch is
+     * rolled back; callers that need per-order isolation should retry the orders individually.</p>
+     *
+     * @param orders the prepared orders to persist; must not be empty
+     * @return the persisted orders, in the same order as the input
+     */
+    @Transactional
+    public List<OrderInfo> persistOrders(List<PreparedOrder> orders) {
+        List<OrderInfo> infos = new ArrayList<>(orders.size());
+        List<OrderEntry> entries = new ArrayList<>();
+        Map<Long, Integer> salesIncrements = new HashMap<>();
+        for (PreparedOrder prepared : orders) {
+            infos.add(prepared.getOrder());
+            entries.addAll(prepared.getEntries());
+            prepared.getSalesIncrements().forEach((menuId, quantity) -> salesIncrements.merge(menuId, quantity, Integer::sum));
+        }
 
-                // 更新销量
-                menu.setSales((menu.getSales() != null ? menu.getSales() : 0) + item.getQuantity());
-                menuMapper.updateById(menu);
-            }
+        orderInfoMapper.insertBatch(infos);
+        orderEntryMapper.insertBatch(entries);
+        salesAccumulator.incrementAll(salesIncrements);
 
-            return order;
-        } catch (Exception e) {
-            // 如果订单创建失败，抛出运行时异常让事务回滚
-            throw new RuntimeException("订单创建失败: " + e.getMessage(), e);
+        for (PreparedOrder prepared : orders) {
+            eventPublisher.publishEvent(new OrderCreatedEvent(prepared.getOrder(), prepared.getEntries()));
         }
+
+        return infos;
     }
 
     /**
@@ -146,6 +254,73 @@ public class OrderService {
         return orderInfoMapper.findByUsername(username);
     }
 
+    /**
+     * Retrieves one page of a user's orders, newest first.
+     *
+     * <p>Pagination is keyset-based on {@code (createtime, id)}: pass the {@code nextCursor} of the previous page
+     * to continue, or {@code null} for the first page.</p>
+     *
+     * @param username the username whose orders should be returned
+     * @param status optional status code filter; {@code null} for all statuses
+     * @param cursor continuation token from the previous page, or {@code null}/blank for the first page
+     * @param size requested page size; {@code null} means {@link #DEFAULT_PAGE_SIZE}, larger values are capped at
+     *             {@link #MAX_PAGE_SIZE}
+     * @return the page of orders and the token for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<OrderInfo> getUserOrdersPage(String username, Integer status, String cursor, Integer size) {
+        OrderCursor after = decodeCursor(cursor);
+        int pageSize = resolvePageSize(size);
+        List<OrderInfo> rows = orderInfoMapper.findPageByUsername(username, status,
+                after != null ? after.getCreateTime() : null, after != null ? after.getId() : null, pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Retrieves one page of all orders (admin view), optionally filtered by status, newest first.
+     *
+     * @param status optional status code filter; {@code null} for all statuses
+     * @param cursor continuation token from the previous page, or {@code null}/blank for the first page
+     * @param size requested page size; {@code null} means {@link #DEFAULT_PAGE_SIZE}, larger values are capped at
+     *             {@link #MAX_PAGE_SIZE}
+     * @return the page of orders and the token for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<OrderInfo> getOrdersPage(Integer status, String cursor, Integer size) {
+        OrderCursor after = decodeCursor(cursor);
+        int pageSize = resolvePageSize(size);
+        List<OrderInfo> rows = orderInfoMapper.findPageByStatus(status,
+                after != null ? after.getCreateTime() : null, after != null ? after.getId() : null, pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    private OrderCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return OrderCursor.decode(cursor);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 多查询一行用于判断是否还有下一页，避免额外的COUNT查询
+     */
+    private CursorPage<OrderInfo> toPage(List<OrderInfo> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<OrderInfo> records = new ArrayList<>(rows.subList(0, pageSize));
+        OrderInfo last = records.get(pageSize - 1);
+        String nextCursor = new OrderCursor(last.getCreateTime(), last.getId()).encode();
+        return new CursorPage<>(records, nextCursor, true);
+    }
+
     /**
      * Retrieves an order by its order identifier.
      *
@@ -156,6 +331,37 @@ public class OrderService {
         return orderInfoMapper.findByOrderid(orderid);
     }
 
+    /**
+     * Loads everything needed to render one order: the order row, its line items and its status history.
+     *
+     * <p>Exactly three queries are issued, inside one read-only transaction so that the three reads see the same
+     * snapshot. The status description, available transitions and finality are derived in memory from
+     * {@link OrderStatus} instead of re-reading the order.</p>
+     *
+     * @param orderid the order identifier
+     * @return the aggregated order detail, or {@code null} if no order with the given id exists
+     */
+    @Transactional(readOnly = true)
+    public OrderDetailDTO getOrderDetail(String orderid) {
+        OrderInfo order = orderInfoMapper.findByOrderid(orderid);
+        if (order == null) {
+            return null;
+        }
+        List<OrderEntry> items = orderEntryMapper.findByOrderid(orderid);
+        List<OrderHistory> history = orderHistoryService.getFormattedOrderHistory(orderid);
+
+        OrderStatus status = null;
+        try {
+            status = OrderStatus.fromCode(order.getStatus());
+        } catch (IllegalArgumentException e) {
+            // 未知状态码：不提供转换，也不视为最终状态
+        }
+        return new OrderDetailDTO(order, items, history,
+                status != null ? status.getDescription() : "未知状态",
+                status != null ? OrderStatus.getAvailableTransitions(status) : new OrderStatus[0],
+                status != null && OrderStatus.isFinalStatus(status));
+    }
+
     /**
      * Retrieves all order line items for the specified order.
      *
@@ -244,13 +450,13 @@ public class OrderService {
     /**
      * Generates a new order identifier.
      *
-     * The identifier is "ORD" followed by the first 12 hexadecimal characters of a UUID
-     * (dashes removed) in uppercase, e.g. "ORD3F1A2B4C5D6E".
+     * Delegates to the configured {@link OrderIdGenerator}; the default Snowflake implementation produces
+     * time-ordered, fixed-width IDs such as "ORD0000123456789012345".
      *
      * @return a newly generated order ID string
      */
     private String generateOrderId() {
-        return "ORD" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        return orderIdGenerator.nextId();
     }
 
     public static class OrderItemRequest {
@@ -290,45 +496,66 @@ public Integer getQuantity() { return quantity; }
 public void setQuantity(Integer quantity) { this.quantity = quantity; }
     }
 
+    /**
+     * 已校验、待持久化的订单，包含订单主信息、订单条目以及按菜品汇总的销量增量
+     */
+    public static class PreparedOrder {
+        private final OrderInfo order;
+        private final List<OrderEntry> entries;
+        private final Map<Long, Integer> salesIncrements;
+
+        public PreparedOrder(OrderInfo order, List<OrderEntry> entries, Map<Long, Integer> salesIncrements) {
+            this.order = order;
+            this.entries = entries;
+            this.salesIncrements = salesIncrements;
+        }
+
+        public OrderInfo getOrder() { return order; }
+
+        public List<OrderEntry> getEntries() { return entries; }
+
+        public Map<Long, Integer> getSalesIncrements() { return salesIncrements; }
+    }
+
     // ========== 订单状态管理方法 ==========
+    //
+    // 状态转换均通过 OrderStateMachine.compareAndTransition 以单条条件UPDATE完成，
+    // 返回转换结果（订单ID、原状态和新状态），不再读取完整订单。
 
     /**
      * 支付订单
      *
      * @param orderid 订单ID
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo payOrder(String orderid) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.payOrder(order);
+    public OrderTransitionResult payOrder(String orderid) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.PAID, "用户支付完成", "支付");
     }
 
     /**
      * 开始配送
      *
      * @param orderid 订单ID
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo startDelivery(String orderid) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.startDelivery(order);
+    public OrderTransitionResult startDelivery(String orderid) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.DELIVERING, "开始配送", "开始配送");
     }
 
     /**
      * 确认收货
      *
      * @param orderid 订单ID
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo confirmDelivery(String orderid) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.confirmDelivery(order);
+    public OrderTransitionResult confirmDelivery(String orderid) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.COMPLETED, "用户确认收货", "确认收货");
     }
 
     /**
@@ -336,13 +563,12 @@ public void setQuantity(Integer quantity) { this.quantity = quantity; }
      *
      * @param orderid 订单ID
      * @param reason 取消原因
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo cancelOrder(String orderid, String reason) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.cancelOrder(order, reason);
+    public OrderTransitionResult cancelOrder(String orderid, String reason) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.CANCELLED, reason, "取消");
     }
 
     /**
@@ -350,13 +576,12 @@ public void setQuantity(Integer quantity) { this.quantity = quantity; }
      *
      * @param orderid 订单ID
      * @param reason 退款原因
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo requestRefund(String orderid, String reason) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.requestRefund(order, reason);
+    public OrderTransitionResult requestRefund(String orderid, String reason) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.REFUNDING, reason, "申请退款");
     }
 
     /**
@@ -364,13 +589,116 @@ public void setQuantity(Integer quantity) { this.quantity = quantity; }
      *
      * @param orderid 订单ID
      * @param reason 退款完成原因
-     * @return 更新后的订单信息
+     * @return 状态转换结果
      * @throws OrderStatusTransitionException 如果状态转换不合法
      */
     @Transactional
-    public OrderInfo completeRefund(String orderid, String reason) throws OrderStatusTransitionException {
-        OrderInfo order = getOrderByOrderIdOrThrow(orderid);
-        return orderStateMachine.completeRefund(order, reason);
+    public OrderTransitionResult completeRefund(String orderid, String reason) throws OrderStatusTransitionException {
+        return orderStateMachine.compareAndTransition(orderid, OrderStatus.REFUNDED, reason, "完成退款");
+    }
+
+    /**
+     * 批量状态转换
+     *
+     * <p>先用一条查询读取所有订单的当前状态，按 {@link OrderStatus#getValidPredecessors} 筛选出可转换的订单，
+     * 再按原状态分组执行集合式条件UPDATE（每个原状态一条语句），最后用一条多值INSERT写入所有历史记录。
+     * 每个订单的成功或失败原因单独返回，一个订单失败不影响其他订单。</p>
+     *
+     * <p>读取状态时对订单加行锁（{@code SELECT ... FOR UPDATE}），直到事务结束前状态不会被并发修改，
+     * 因此每组条件UPDATE影响的行恰好是本次读取到的订单，历史记录中的原状态也与实际一致。
+     * 状态码无法识别的订单单独返回失败，不影响其他订单。</p>
+     *
+     * @param orderIds 订单ID列表，最多 {@link #MAX_BULK_TRANSITION_SIZE} 个
+     * @param targetStatus 目标状态
+     * @param reason 状态转换原因
+     * @param operator 操作人员，记入订单历史
+     * @return 每个订单的处理结果，顺序与去重后的输入一致
+     * @throws IllegalArgumentException 如果订单ID列表为空或超过上限
+     */
+    @Transactional
+    public List<OrderTransitionResult> bulkTransitionOrders(List<String> orderIds, OrderStatus targetStatus,
+                                                            String reason, String operator) {
+        Set<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+        predecessors.addAll(Arrays.asList(OrderStatus.getValidPredecessors(targetStatus)));
+        return bulkTransitionOrders(orderIds, targetStatus, reason, operator, predecessors);
+    }
+
+    /**
+     * 取消超时未支付的订单
+     *
+     * <p>只取消仍处于待支付状态的订单；期间已支付或已取消的订单会被跳过，不会误取消已支付订单。</p>
+     *
+     * @param orderIds 订单ID列表，最多 {@link #MAX_BULK_TRANSITION_SIZE} 个
+     * @param reason 取消原因
+     * @return 每个订单的处理结果
+     */
+    @Transactional
+    public List<OrderTransitionResult> cancelExpiredOrders(List<String> orderIds, String reason) {
+        return bulkTransitionOrders(orderIds, OrderStatus.CANCELLED, reason, "系统",
+                EnumSet.of(OrderStatus.PENDING_PAYMENT));
+    }
+
+    private List<OrderTransitionResult> bulkTransitionOrders(List<String> orderIds, OrderStatus targetStatus,
+                                                             String reason, String operator,
+                                                             Set<OrderStatus> predecessors) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("订单ID列表不能为空");
+        }
+        Set<String> uniqueIds = new LinkedHashSet<>(orderIds);
+        if (uniqueIds.size() > MAX_BULK_TRANSITION_SIZE) {
+            throw new IllegalArgumentException("单次最多处理 " + MAX_BULK_TRANSITION_SIZE + " 个订单");
+        }
+
+        Map<String, Integer> currentStatus = new HashMap<>(uniqueIds.size() * 2);
+        for (OrderInfo info : orderInfoMapper.findStatusByOrderidsForUpdate(uniqueIds)) {
+            currentStatus.put(info.getOrderId(), info.getStatus());
+        }
+
+        // 按原状态分组可转换的订单
+        Map<OrderStatus, List<String>> eligible = new EnumMap<>(OrderStatus.class);
+        Map<String, OrderTransitionResult> results = new LinkedHashMap<>();
+        for (String orderId : uniqueIds) {
+            Integer status = currentStatus.get(orderId);
+            if (status == null) {
+                results.put(orderId, OrderTransitionResult.failure(orderId, null, "订单不存在"));
+                continue;
+            }
+            OrderStatus from;
+            try {
+                from = OrderStatus.fromCode(status);
+            } catch (IllegalArgumentException e) {
+                results.put(orderId, OrderTransitionResult.failure(orderId, status, "无法识别的订单状态: " + status));
+                continue;
+            }
+            if (!predecessors.contains(from)) {
+                results.put(orderId, OrderTransitionResult.failure(orderId, status,
+                        String.format("无法从 %s 转换到 %s", from.getDescription(), targetStatus.getDescription())));
+                continue;
+            }
+            results.put(orderId, null);
+            eligible.computeIfAbsent(from, k -> new ArrayList<>()).add(orderId);
+        }
+
+        // 每个原状态一条集合式条件UPDATE
+        Map<String, OrderStatus> transitioned = new LinkedHashMap<>();
+        for (Map.Entry<OrderStatus, List<String>> group : eligible.entrySet()) {
+            OrderStatus from = group.getKey();
+            List<String> ids = group.getValue();
+            int updated = orderInfoMapper.updateStatusByOrderidsIfStatus(ids, targetStatus.getCode(), from.getCode());
+            if (updated != ids.size()) {
+                // 行已加锁，不应出现；回滚整个事务，避免无法确定哪些订单由本次调用转换
+                throw new IllegalStateException(String.format("批量状态转换影响 %d 行，预期 %d 行", updated, ids.size()));
+            }
+            ids.forEach(id -> transitioned.put(id, from));
+        }
+
+        // 一条多值INSERT写入所有历史记录
+        orderHistoryService.recordStatusChanges(transitioned, targetStatus, reason, operator, reason);
+        eligible.forEach((from, ids) -> orderStateMachine.recordTransitions(from, targetStatus, ids.size()));
+        transitioned.forEach((id, from) ->
+                results.put(id, OrderTransitionResult.success(id, from.getCode(), targetStatus.getCode())));
+
+        return new ArrayList<>(results.values());
     }
 
     // ========== 订单条目管理方法 ==========
@@ -542,17 +870,17 @@ public void setQuantity(Integer quantity) { this.quantity = quantity; }
     // ========== 私有辅助方法 ==========
 
     /**
-     * 根据订单ID获取订单，如果不存在则抛出异常
+     * 批量加载菜品并按ID建立索引
      *
-     * @param orderid 订单ID
-     * @return 订单信息
-     * @throws RuntimeException 如果订单不存在
+     * @param menuIds 菜品ID集合
+     * @return 菜品ID到菜品的映射，不存在的ID不会出现在结果中
      */
-    private OrderInfo getOrderByOrderIdOrThrow(String orderid) {
-        OrderInfo order = orderInfoMapper.findByOrderid(orderid);
-        if (order == null) {
-            throw new RuntimeException("订单不存在: " + orderid);
+    private Map<Long, Menu> loadMenus(Collection<Long> menuIds) {
+        List<Menu> menus = menuMapper.selectBatchIds(menuIds);
+        Map<Long, Menu> menuById = new HashMap<>(menus.size() * 2);
+        for (Menu menu : menus) {
+            menuById.put(menu.getId(), menu);
         }
-        return order;
+        return menuById;
     }
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package tech.chhsich.backend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tech.chhsich.backend.dto.OrderTransitionResult;
 import tech.chhsich.backend.enums.OrderStatus;
 import tech.chhsich.backend.entity.OrderInfo;
 import tech.chhsich.backend.exception.OrderStatusTransitionException;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
 import tech.chhsich.backend.service.OrderHistoryService;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * 订单状态机
  *
@@ -20,14 +26,102 @@ import org.springframework.stereotype.Service;
 public class OrderStateMachine {
 
     private final OrderHistoryService orderHistoryService;
+    private final OrderInfoMapper orderInfoMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 每个合法转换的计数器，按 [原状态][目标状态] 的枚举序号索引，启动时注册
+     */
+    private final Counter[][] transitionCounters;
 
     /**
      * 构造函数
      *
      * @param orderHistoryService 订单历史记录服务
+     * @param orderInfoMapper 订单信息数据访问层
+     * @param meterRegistry 指标注册中心
      */
-    public OrderStateMachine(OrderHistoryService orderHistoryService) {
+    public OrderStateMachine(OrderHistoryService orderHistoryService, OrderInfoMapper orderInfoMapper,
+                             MeterRegistry meterRegistry) {
         this.orderHistoryService = orderHistoryService;
+        this.orderInfoMapper = orderInfoMapper;
+        this.meterRegistry = meterRegistry;
+
+        OrderStatus[] statuses = OrderStatus.values();
+        this.transitionCounters = new Counter[statuses.length][statuses.length];
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                if (OrderStatus.isValidTransition(from, to)) {
+                    transitionCounters[from.ordinal()][to.ordinal()] = Counter.builder("order.status.transitions")
+                            .description("订单状态转换次数")
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .register(meterRegistry);
+                }
+            }
+        }
+    }
+
+    /**
+     * 以比较并交换（CAS）方式执行订单状态转换
+     *
+     * <p>直接执行 {@code UPDATE cg_info SET status=? WHERE orderid=? AND status IN (...)}，前驱状态由
+     * {@link OrderStatus#getValidPredecessors} 推导。更新成功时无需读取订单，也不需要行锁；两个并发请求
+     * 中只有一个能成功。只有更新影响0行时才读取订单，用于区分"订单不存在"和"状态不允许"。</p>
+     *
+     * <p>为了在历史记录中保存准确的原状态，存在多个前驱状态时按声明顺序逐个尝试（如取消订单先尝试
+     * 待支付，再尝试已支付），单一前驱的转换始终只有一条UPDATE语句。</p>
+     *
+     * @param orderId 订单ID
+     * @param newStatus 目标状态
+     * @param reason 状态转换原因
+     * @param action 操作名称，用于错误提示（如"支付"）
+     * @return 转换结果（订单ID、原状态和新状态），不包含订单的其他字段
+     * @throws OrderStatusTransitionException 如果订单当前状态不允许转换到目标状态
+     * @throws RuntimeException 如果订单不存在
+     */
+    public OrderTransitionResult compareAndTransition(String orderId, OrderStatus newStatus, String reason, String action)
+            throws OrderStatusTransitionException {
+        OrderStatus fromStatus = null;
+        for (OrderStatus predecessor : OrderStatus.getValidPredecessors(newStatus)) {
+            if (orderInfoMapper.updateStatusByOrderidIfIn(orderId, newStatus.getCode(),
+                    List.of(predecessor.getCode())) > 0) {
+                fromStatus = predecessor;
+                break;
+            }
+        }
+
+        if (fromStatus == null) {
+            OrderInfo current = orderInfoMapper.findByOrderid(orderId);
+            if (current == null) {
+                throw new RuntimeException("订单不存在: " + orderId);
+            }
+            throw rejectTransition(statusName(current.getStatus()), newStatus,
+                String.format("当前状态 %s 不允许%s", getStatusDescription(current.getStatus()), action)
+            );
+        }
+
+        // 记录状态变更历史
+        orderHistoryService.recordStatusChange(orderId, fromStatus, newStatus, reason, "系统", reason);
+
+        logStatusTransition(orderId, fromStatus, newStatus, reason);
+
+        return OrderTransitionResult.success(orderId, fromStatus.getCode(), newStatus.getCode());
+    }
+
+    /**
+     * 计入绕过状态机直接执行的状态转换（如批量转换和超时自动取消），使 {@code order.status.transitions}
+     * 覆盖所有转换路径
+     *
+     * @param fromStatus 原状态
+     * @param toStatus 新状态
+     * @param count 转换的订单数
+     */
+    public void recordTransitions(OrderStatus fromStatus, OrderStatus toStatus, int count) {
+        Counter counter = transitionCounters[fromStatus.ordinal()][toStatus.ordinal()];
+        if (counter != null && count > 0) {
+            counter.increment(count);
+        }
     }
 
     /**
@@ -44,7 +138,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (!OrderStatus.isValidTransition(currentStatus, newStatus)) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), newStatus,
                 String.format("无法从 %s 转换到 %s", currentStatus.getDescription(), newStatus.getDescription())
             );
         }
@@ -56,7 +150,7 @@ public class OrderStateMachine {
         order.setStatus(newStatus.getCode());
 
         // 这里可以添加状态转换的日志记录
-        logStatusTransition(order, currentStatus, newStatus, reason);
+        logStatusTransition(order.getOrderId(), currentStatus, newStatus, reason);
 
         return order;
     }
@@ -104,7 +198,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (!OrderStatus.isCancellable(currentStatus)) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.CANCELLED,
                 String.format("当前状态 %s 不允许取消", currentStatus.getDescription())
             );
         }
@@ -124,7 +218,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (!OrderStatus.isRefundable(currentStatus)) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.REFUNDING,
                 String.format("当前状态 %s 不允许申请退款", currentStatus.getDescription())
             );
         }
@@ -143,7 +237,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (currentStatus != OrderStatus.DELIVERING) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.COMPLETED,
                 String.format("当前状态 %s 不允许确认收货", currentStatus.getDescription())
             );
         }
@@ -162,7 +256,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (currentStatus != OrderStatus.PAID) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.DELIVERING,
                 String.format("当前状态 %s 不允许开始配送", currentStatus.getDescription())
             );
         }
@@ -181,7 +275,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (currentStatus != OrderStatus.PENDING_PAYMENT) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.PAID,
                 String.format("当前状态 %s 不允许支付", currentStatus.getDescription())
             );
         }
@@ -201,7 +295,7 @@ public class OrderStateMachine {
         OrderStatus currentStatus = OrderStatus.fromCode(order.getStatus());
 
         if (currentStatus != OrderStatus.REFUNDING) {
-            throw new OrderStatusTransitionException(
+            throw rejectTransition(currentStatus.name(), OrderStatus.REFUNDED,
                 String.format("当前状态 %s 不允许完成退款", currentStatus.getDescription())
             );
         }
@@ -209,20 +303,46 @@ public class OrderStateMachine {
         return transitionOrderStatus(order, OrderStatus.REFUNDED, reason);
     }
 
+    /**
+     * 记录被拒绝的状态转换并创建对应异常
+     *
+     * @param from 原状态名称
+     * @param to 目标状态
+     * @param message 异常消息
+     * @return 状态转换异常
+     */
+    private OrderStatusTransitionException rejectTransition(String from, OrderStatus to, String message) {
+        meterRegistry.counter("order.status.transitions.rejected", "from", from, "to", to.name()).increment();
+        return new OrderStatusTransitionException(message);
+    }
+
+    private static String statusName(int statusCode) {
+        try {
+            return OrderStatus.fromCode(statusCode).name();
+        } catch (IllegalArgumentException e) {
+            return "UNKNOWN";
+        }
+    }
+
     /**
      * 记录状态转换日志
      *
-     * @param order 订单对象
+     * @param orderId 订单ID
      * @param fromStatus 原状态
      * @param toStatus 新状态
      * @param reason 转换原因
      */
-    private void logStatusTransition(OrderInfo order, OrderStatus fromStatus, OrderStatus toStatus, String reason) {
+    private void logStatusTransition(String orderId, OrderStatus fromStatus, OrderStatus toStatus, String reason) {
+        Counter counter = transitionCounters[fromStatus.ordinal()][toStatus.ordinal()];
+        if (counter != null) {
+            counter.increment();
+        }
+
         // TODO: 实现状态转换日志记录
         // 这里可以将状态转换记录到数据库或日志文件中
         System.out.println(String.format(
             "订单 %s 状态变更: %s -> %s, 原因: %s",
-            order.getOrderId(),
+            orderId,
             fromStatus.getDescription(),
             toStatus.getDescription(),
             reason
@@ -0,0 +1,200 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.chhsich.backend.mapper.MenuMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 菜品销量累加器
+ *
+ * <p>下单时不再逐行读改写 {@code menu.xiaoliang}，而是把销量增量累加到按菜品ID分段的
+ * {@link LongAdder} 中，由定时任务周期性地把聚合后的增量通过
+ * {@link MenuMapper#batchUpdateSales(Map)} 一条语句写回数据库。这样热门菜品的行锁
+ * 不再参与下单事务，并发下单之间也不会相互串行化。</p>
+ *
+ * <p>新销量同时计入 {@link HotSalesBoard}，热销列表无需等待刷新即可反映。</p>
+ *
+ * <p>未刷新的增量通过 {@code menu.sales.pending} 指标暴露，用于观察刷新延迟。</p>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+@Component
+public class SalesAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAccumulator.class);
+
+    private final MenuMapper menuMapper;
+    private final HotSalesBoard hotSalesBoard;
+
+    /**
+     * 待刷新的销量增量，键为菜品ID。累加器只增不删，避免删除与并发累加之间的竞态丢失增量。
+     */
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param menuMapper 菜品数据访问层
+     * @param hotSalesBoard 热销排行榜，增量生效时同步更新
+     * @param meterRegistry 指标注册中心
+     */
+    public SalesAccumulator(MenuMapper menuMapper, HotSalesBoard hotSalesBoard, MeterRegistry meterRegistry) {
+        this.menuMapper = menuMapper;
+        this.hotSalesBoard = hotSalesBoard;
+        Gauge.builder("menu.sales.pending", this, SalesAccumulator::getPendingTotal)
+                .description("尚未刷新到数据库的销量增量")
+                .register(meterRegistry);
+        Gauge.builder("menu.sales.pending.menus", this, SalesAccumulator::getPendingMenuCount)
+                .description("存在未刷新销量增量的菜品数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 累加菜品销量
+     *
+     * <p>如果当前处于事务中，增量在事务提交后才生效，回滚的订单不会计入销量。</p>
+     *
+     * @param menuId 菜品ID
+     * @param quantity 增加的数量
+     */
+    public void increment(Long menuId, int quantity) {
+        if (menuId == null || quantity <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(menuId, quantity);
+                }
+            });
+        } else {
+            record(menuId, quantity);
+        }
+    }
+
+    /**
+     * 批量累加菜品销量
+     *
+     * @param increments 菜品ID到增加数量的映射
+     */
+    public void incrementAll(Map<Long, Integer> increments) {
+        if (increments == null || increments.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, Integer> snapshot = new HashMap<>(increments);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot.forEach(SalesAccumulator.this::record);
+                }
+            });
+        } else {
+            increments.forEach(this::record);
+        }
+    }
+
+    /**
+     * 把累积的销量增量写回数据库
+     *
+     * <p>由定时任务周期调用，应用关闭时也会执行一次。写库失败时增量会重新放回累加器，
+     * 等待下一次刷新。</p>
+     *
+     * @return 本次刷新的菜品数
+     */
+    @Scheduled(fixedDelayString = "${app.sales.flush-interval:5000}")
+    public synchronized int flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        pending.forEach((menuId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(menuId, (int) delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            menuMapper.batchUpdateSales(deltas);
+            logger.debug("刷新菜品销量增量: {} 个菜品", deltas.size());
+            return deltas.size();
+        } catch (RuntimeException e) {
+            deltas.forEach(this::add);
+            logger.warn("刷新菜品销量失败，将在下次重试: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 应用关闭前刷新剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 获取某个菜品尚未刷新的销量增量
+     *
+     * @param menuId 菜品ID
+     * @return 未刷新的增量
+     */
+    public long getPending(Long menuId) {
+        LongAdder adder = pending.get(menuId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 获取所有尚未刷新的销量增量之和
+     *
+     * @return 未刷新增量总和
+     */
+    public double getPendingTotal() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private double getPendingMenuCount() {
+        int count = 0;
+        for (LongAdder adder : pending.values()) {
+            if (adder.sum() != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 记录一笔新销量：累加待刷新增量并更新热销排行榜。刷新失败时放回的增量只走 {@link #add}，不重复计入排行榜。
+     */
+    private void record(Long menuId, Integer quantity) {
+        if (menuId == null || quantity == null || quantity <= 0) {
+            return;
+        }
+        add(menuId, quantity);
+        hotSalesBoard.increment(menuId, quantity);
+    }
+
+    private void add(Long menuId, int quantity) {
+        pending.computeIfAbsent(menuId, id -> new LongAdder()).add(quantity);
+    }
+}
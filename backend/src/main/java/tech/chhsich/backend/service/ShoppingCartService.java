@@ -1,12 +1,15 @@
 package tech.chhsich.backend.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import tech.chhsich.backend.cache.TwoLevelCache;
 import tech.chhsich.backend.entity.Menu;
 import tech.chhsich.backend.entity.ShoppingCart;
 import tech.chhsich.backend.mapper.MenuMapper;
 import tech.chhsich.backend.mapper.ShoppingCartMapper;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,18 +27,33 @@ import java.util.List;
 @Service
 public class ShoppingCartService {
 
+    private static final String CART_KEY_PREFIX = "cart:";
+
     private final ShoppingCartMapper shoppingCartMapper;
     private final MenuMapper menuMapper;
+    private final CatalogCache catalogCache;
+    private final TwoLevelCache twoLevelCache;
+    private final Duration cartTtl;
 
     /**
      * 构造函数注入依赖
      *
      * @param shoppingCartMapper 购物车数据访问层
      * @param menuMapper 菜单数据访问层
+     * @param catalogCache 菜品目录缓存，用于加购时查询商品
+     * @param twoLevelCache 两级缓存，购物车只使用共享的二级缓存
+     * @param cartTtlSeconds 购物车缓存过期时间（秒）
      */
-    public ShoppingCartService(ShoppingCartMapper shoppingCartMapper, MenuMapper menuMapper) {
+    public ShoppingCartService(ShoppingCartMapper shoppingCartMapper,
+                               MenuMapper menuMapper,
+                               CatalogCache catalogCache,
+                               TwoLevelCache twoLevelCache,
+                               @Value("${app.cache.l2.cart-ttl-seconds:300}") long cartTtlSeconds) {
         this.shoppingCartMapper = shoppingCartMapper;
         this.menuMapper = menuMapper;
+        this.catalogCache = catalogCache;
+        this.twoLevelCache = twoLevelCache;
+        this.cartTtl = Duration.ofSeconds(Math.max(1, cartTtlSeconds));
     }
 
     /**
@@ -52,7 +70,7 @@ public class ShoppingCartService {
      * @throws RuntimeException 当商品不存在、已下架或添加失败时抛出异常
      */
     public boolean addToCart(String username, Long productId, Integer quantity) {
-        Menu menu = menuMapper.selectById(productId);
+        Menu menu = findMenu(productId);
         if (menu == null || menu.getProductLock() == 1) {
             throw new RuntimeException("商品不存在或已下架");
         }
@@ -76,6 +94,7 @@ public class ShoppingCartService {
             shoppingCartMapper.insert(cartItem);
         }
 
+        evictCart(username);
         return true;
     }
 
@@ -86,10 +105,11 @@ public class ShoppingCartService {
      * 用于前端展示购物车内容和订单确认页面。
      *
      * @param username 用户名，用于标识购物车归属
-     * @return List<ShoppingCart> 购物车商品列表，如果没有商品则返回空列表
+     * @return List<ShoppingCart> 购物车商品列表，如果没有商品则返回空列表；每次调用返回新的列表
      */
     public List<ShoppingCart> getUserCart(String username) {
-        return shoppingCartMapper.findByUsername(username);
+        return twoLevelCache.get(CART_KEY_PREFIX + username, twoLevelCache.codec().listOf(ShoppingCart.class),
+                false, cartTtl, () -> shoppingCartMapper.findByUsername(username));
     }
 
     /**
@@ -117,7 +137,9 @@ public class ShoppingCartService {
         cartItem.setQuantity(quantity);
         cartItem.setUpdateTime(LocalDateTime.now());
 
-        return shoppingCartMapper.updateById(cartItem) > 0;
+        boolean updated = shoppingCartMapper.updateById(cartItem) > 0;
+        evictCart(username);
+        return updated;
     }
 
     /**
@@ -135,7 +157,9 @@ public class ShoppingCartService {
         queryWrapper.eq("username", username)
                    .eq("product_id", productId);
 
-        return shoppingCartMapper.delete(queryWrapper) > 0;
+        boolean removed = shoppingCartMapper.delete(queryWrapper) > 0;
+        evictCart(username);
+        return removed;
     }
 
     /**
@@ -150,7 +174,9 @@ public class ShoppingCartService {
     public boolean clearUserCart(String username) {
         QueryWrapper<ShoppingCart> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("username", username);
-        return shoppingCartMapper.delete(queryWrapper) > 0;
+        boolean cleared = shoppingCartMapper.delete(queryWrapper) > 0;
+        evictCart(username);
+        return cleared;
     }
 
     /**
@@ -179,7 +205,7 @@ public class ShoppingCartService {
      * @return int 购物车商品总数量，如果没有商品则返回0
      */
     public int getCartItemCount(String username) {
-        return shoppingCartMapper.countByUsername(username);
+        return getUserCart(username).size();
     }
 
     /**
@@ -194,4 +220,21 @@ public class ShoppingCartService {
     public ShoppingCart findByUsernameAndProductId(String username, Long productId) {
         return shoppingCartMapper.findByUsernameAndProductId(username, productId);
     }
-}
\ No newline at end of file
+
+    /**
+     * 优先从菜品目录快照查询商品，快照中没有（如已下架）或未启用缓存时查询数据库
+     */
+    private Menu findMenu(Long productId) {
+        if (catalogCache.isEnabled()) {
+            Menu menu = catalogCache.snapshot().getMenu(productId);
+            if (menu != null) {
+                return menu;
+            }
+        }
+        return menuMapper.selectById(productId);
+    }
+
+    private void evictCart(String username) {
+        twoLevelCache.invalidateShared(CART_KEY_PREFIX + username);
+    }
+}
@@ -0,0 +1,319 @@
+package tech.chhsich.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.chhsich.backend.dto.MenuSaleRecord;
+import tech.chhsich.backend.dto.TrendingMenuDTO;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.event.OrderCreatedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.utils.SlidingWindowCounter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 趋势菜品服务
+ *
+ * <p>为每个菜品维护三组 {@link SlidingWindowCounter}：60个1分钟桶、24个1小时桶和7个1天桶，
+ * 分别对应最近1小时、24小时和7天的下单份数。新订单在事务提交后通过 {@link OrderCreatedEvent} 计入，
+ * 按订单创建时间落桶；下单后取消的订单不会扣回。</p>
+ *
+ * <p>排名按窗口内份数从高到低，相同时按菜品ID升序。每个窗口的排名在同一个桶内且没有新订单时复用，
+ * 否则重新汇总所有计数器。</p>
+ *
+ * <p>应用启动时用一条流式查询读取最近7天的订单条目重建计数器，不把结果集整体载入内存。
+ * 重建开始前先取定截止时间，查询只读取创建时间早于它的订单；重建完成之前，
+ * 实时事件中创建时间早于截止时间的订单交由重建查询计入，不再重复计数，之后的订单只由实时事件计入。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final Integer PRODUCT_STATUS_ACTIVE = 0;
+
+    /**
+     * 统计窗口
+     */
+    public enum Window {
+        HOUR("1h", 60_000L, 60),
+        DAY("24h", 3_600_000L, 24),
+        WEEK("7d", 86_400_000L, 7);
+
+        private final String param;
+        private final long bucketMillis;
+        private final int bucketCount;
+
+        Window(String param, long bucketMillis, int bucketCount) {
+            this.param = param;
+            this.bucketMillis = bucketMillis;
+            this.bucketCount = bucketCount;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        /**
+         * 根据请求参数获取窗口
+         *
+         * @param param 1h、24h或7d
+         * @return 对应的窗口
+         * @throws IllegalArgumentException 参数不是支持的窗口
+         */
+        public static Window fromParam(String param) {
+            for (Window window : values()) {
+                if (window.param.equalsIgnoreCase(param)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("不支持的时间窗口: " + param + "，可选值为 1h、24h、7d");
+        }
+    }
+
+    private final OrderEntryMapper orderEntryMapper;
+    private final MenuMapper menuMapper;
+    private final CatalogCache catalogCache;
+
+    /**
+     * 菜品ID到按 {@link Window#ordinal()} 排列的计数器
+     */
+    private final ConcurrentHashMap<Long, SlidingWindowCounter[]> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 每计入一笔销量加一，用于判断缓存的排名是否仍然有效
+     */
+    private final AtomicLong updates = new AtomicLong();
+
+    private final AtomicReferenceArray<Ranking> rankings = new AtomicReferenceArray<>(Window.values().length);
+
+    /**
+     * 创建时间早于该值的实时订单不计入，由重建查询负责；重建开始前为最大值，重建完成后为最小值
+     */
+    private volatile LocalDateTime liveCutoff = LocalDateTime.MAX;
+
+    public TrendingService(OrderEntryMapper orderEntryMapper, MenuMapper menuMapper, CatalogCache catalogCache) {
+        this.orderEntryMapper = orderEntryMapper;
+        this.menuMapper = menuMapper;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * 启动时用一条流式查询重建最近7天的计数器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        long cutoff = currentTimeMillis();
+        long since = cutoff - Window.WEEK.bucketMillis * Window.WEEK.bucketCount;
+        LocalDateTime until = toLocalDateTime(cutoff);
+        liveCutoff = until;
+        long[] rows = new long[1];
+        try {
+            orderEntryMapper.streamSalesBetween(toLocalDateTime(since), until, context -> {
+                MenuSaleRecord record = context.getResultObject();
+                record(record.getProductId(), record.getProductNum(), record.getCreateTime());
+                rows[0]++;
+            });
+        } finally {
+            liveCutoff = LocalDateTime.MIN;
+        }
+        logger.info("趋势计数器已重建: {} 条订单条目, {} 个菜品, 耗时 {}ms", rows[0], counters.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * 新订单提交后计入销量
+     *
+     * @param event 订单创建事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        LocalDateTime createTime = event.getOrder().getCreateTime();
+        if (createTime != null && createTime.isBefore(liveCutoff)) {
+            return;
+        }
+        for (OrderEntry entry : event.getEntries()) {
+            record(entry.getProductId(), entry.getProductNum(), createTime);
+        }
+    }
+
+    /**
+     * 获取窗口内下单份数最多的上架菜品
+     *
+     * @param window 统计窗口
+     * @param limit 返回数量，不大于0时返回全部
+     * @return 按窗口内份数从高到低排列的菜品，窗口内没有订单的菜品不在其中
+     */
+    public List<TrendingMenuDTO> getTrending(Window window, int limit) {
+        Ranking ranking = ranking(window, currentTimeMillis());
+        int size = limit > 0 ? limit : Integer.MAX_VALUE;
+        Map<Long, Menu> menus = resolveMenus(ranking, size);
+
+        List<TrendingMenuDTO> result = new ArrayList<>(Math.min(size, ranking.menuIds.length));
+        for (int i = 0; i < ranking.menuIds.length && result.size() < size; i++) {
+            Menu menu = menus.get(ranking.menuIds[i]);
+            if (menu != null && PRODUCT_STATUS_ACTIVE.equals(menu.getProductLock())) {
+                result.add(toDTO(menu, ranking.totals[i]));
+            }
+        }
+        return result;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void record(Long menuId, Integer quantity, LocalDateTime createTime) {
+        if (menuId == null || quantity == null || quantity <= 0) {
+            return;
+        }
+        long timeMillis = createTime != null
+                ? createTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : currentTimeMillis();
+        SlidingWindowCounter[] menuCounters = counters.computeIfAbsent(menuId, id -> newCounters());
+        for (SlidingWindowCounter counter : menuCounters) {
+            counter.add(timeMillis, quantity);
+        }
+        updates.incrementAndGet();
+    }
+
+    private static SlidingWindowCounter[] newCounters() {
+        Window[] windows = Window.values();
+        SlidingWindowCounter[] menuCounters = new SlidingWindowCounter[windows.length];
+        for (Window window : windows) {
+            menuCounters[window.ordinal()] = new SlidingWindowCounter(window.bucketMillis, window.bucketCount);
+        }
+        return menuCounters;
+    }
+
+    /**
+     * 获取窗口的排名；桶和计数都没有变化时复用上次的结果
+     */
+    private Ranking ranking(Window window, long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, window.bucketMillis);
+        long version = updates.get();
+        Ranking cached = rankings.get(window.ordinal());
+        if (cached != null && cached.bucket == bucket && cached.version == version) {
+            return cached;
+        }
+
+        List<Score> scores = new ArrayList<>();
+        counters.forEach((menuId, menuCounters) -> {
+            long total = menuCounters[window.ordinal()].sum(nowMillis);
+            if (total > 0) {
+                scores.add(new Score(menuId, total));
+            }
+        });
+        scores.sort(Comparator.comparingLong((Score score) -> score.total).reversed()
+                .thenComparingLong(score -> score.menuId));
+
+        long[] menuIds = new long[scores.size()];
+        long[] totals = new long[scores.size()];
+        for (int i = 0; i < scores.size(); i++) {
+            menuIds[i] = scores.get(i).menuId;
+            totals[i] = scores.get(i).total;
+        }
+        Ranking rebuilt = new Ranking(bucket, version, menuIds, totals);
+        rankings.set(window.ordinal(), rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * 目录缓存开启时从快照取菜品，否则按排名中的菜品ID批量查询一次
+     */
+    private Map<Long, Menu> resolveMenus(Ranking ranking, int size) {
+        if (ranking.menuIds.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Menu> menus = new HashMap<>();
+        if (catalogCache.isEnabled()) {
+            CatalogSnapshot snapshot = catalogCache.snapshot();
+            for (int i = 0; i < ranking.menuIds.length && menus.size() < size; i++) {
+                Menu menu = snapshot.getMenu(ranking.menuIds[i]);
+                if (menu != null) {
+                    menus.put(menu.getId(), menu);
+                }
+            }
+            return menus;
+        }
+        List<Long> ids = new ArrayList<>(ranking.menuIds.length);
+        for (long menuId : ranking.menuIds) {
+            ids.add(menuId);
+        }
+        for (Menu menu : menuMapper.selectBatchIds(ids)) {
+            menus.put(menu.getId(), menu);
+        }
+        return menus;
+    }
+
+    private static TrendingMenuDTO toDTO(Menu menu, long windowSales) {
+        TrendingMenuDTO dto = new TrendingMenuDTO();
+        dto.setId(menu.getId());
+        dto.setCreateTime(menu.getCreateTime());
+        dto.setImgPath(menu.getImgPath());
+        dto.setInfo(menu.getInfo());
+        dto.setName(menu.getName());
+        dto.setIsRecommend(menu.getIsRecommend());
+        dto.setOriginalPrice(menu.getOriginalPrice());
+        dto.setHotPrice(menu.getHotPrice());
+        dto.setProductLock(menu.getProductLock());
+        dto.setSales(menu.getSales());
+        dto.setCategoryId(menu.getCategoryId());
+        dto.setWindowSales(windowSales);
+        return dto;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Score {
+
+        private final long menuId;
+        private final long total;
+
+        private Score(long menuId, long total) {
+            this.menuId = menuId;
+            this.total = total;
+        }
+    }
+
+    /**
+     * 某个窗口在某个桶、某个更新次数下的排名
+     */
+    private static final class Ranking {
+
+        private final long bucket;
+        private final long version;
+        private final long[] menuIds;
+        private final long[] totals;
+
+        private Ranking(long bucket, long version, long[] menuIds, long[] totals) {
+            this.bucket = bucket;
+            this.version = version;
+            this.menuIds = menuIds;
+            this.totals = totals;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tech.chhsich.backend.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.chhsich.backend.service.OrderIdGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于Snowflake算法的订单号生成器
+ *
+ * <p>64位ID布局：41位毫秒时间戳（相对于 {@link #EPOCH}）+ 10位节点ID + 12位毫秒内序列号。
+ * 生成的ID随时间单调递增，写入 {@code cg_info.uk_orderid} 索引时总是追加在B+树末尾，
+ * 也可以按订单号范围扫描最近的订单。</p>
+ *
+ * <p>时间戳与序列号保存在同一个 {@link AtomicLong} 中，通过CAS推进，不需要加锁。
+ * 同一毫秒内序列号用尽或系统时钟回拨时，逻辑时钟直接向前借用下一毫秒，保证不重复、不阻塞。</p>
+ *
+ * <p>订单号格式为 "ORD" + 19位十进制数字（左侧补零），定长且字典序与数值序一致。</p>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+@Component
+public class SnowflakeOrderIdGenerator implements OrderIdGenerator {
+
+    /**
+     * 自定义纪元：2025-01-01T00:00:00Z
+     */
+    static final long EPOCH = 1735689600000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int DIGITS = 19;
+
+    private final long nodeId;
+
+    /**
+     * 上一次发号的状态：(相对时间戳 << SEQUENCE_BITS) | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param nodeId 节点ID，多实例部署时每个实例必须不同，取值范围 0~1023
+     */
+    public SnowflakeOrderIdGenerator(@Value("${app.order.id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点ID必须在 0~" + MAX_NODE_ID + " 之间: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String nextId() {
+        return format(nextRawId());
+    }
+
+    /**
+     * 生成原始的64位ID
+     *
+     * @return 单调递增的正数ID
+     */
+    public long nextRawId() {
+        long now = currentTimeMillis() - EPOCH;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            long prevTimestamp = prev >>> SEQUENCE_BITS;
+            if (now > prevTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒内或时钟回拨：在上一次状态基础上递增，序列号溢出时自动进位到下一毫秒
+                next = prev + 1;
+            }
+        } while (!state.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 从订单号中解析出生成时间（毫秒时间戳）
+     *
+     * @param orderId 由本生成器生成的订单号
+     * @return 生成时的Unix毫秒时间戳
+     * @throws IllegalArgumentException 如果订单号格式不正确
+     */
+    public static long extractTimestamp(String orderId) {
+        if (orderId == null || !orderId.startsWith(PREFIX) || orderId.length() != PREFIX.length() + DIGITS) {
+            throw new IllegalArgumentException("订单号格式不正确: " + orderId);
+        }
+        long raw = Long.parseLong(orderId.substring(PREFIX.length()));
+        return (raw >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * 获取当前时间，便于测试覆盖
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static String format(long rawId) {
+        char[] buf = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), buf, 0);
+        long value = rawId;
+        for (int i = buf.length - 1; i >= PREFIX.length(); i--) {
+            buf[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        return new String(buf);
+    }
+}
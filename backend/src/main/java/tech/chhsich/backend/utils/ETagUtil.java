@@ -0,0 +1,62 @@
+package tech.chhsich.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * ETag生成工具
+ *
+ * <p>由数据内容计算指纹，而不是使用节点内递增的版本号：多个节点加载到相同的数据时得到相同的ETag，
+ * 浏览器或CDN向任意节点发起的条件请求都能命中。实体均使用Lombok生成的 {@code toString()}，
+ * 包含全部字段，任一字段变化都会改变指纹。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class ETagUtil {
+
+    /**
+     * 指纹保留的字节数，128位足以避免碰撞
+     */
+    private static final int FINGERPRINT_BYTES = 16;
+
+    private ETagUtil() {
+    }
+
+    /**
+     * 计算列表内容的指纹
+     *
+     * @param items 列表，元素顺序参与计算
+     * @return 32位十六进制字符串，不含引号
+     */
+    public static String fingerprint(List<?> items) {
+        MessageDigest digest = newDigest();
+        for (Object item : items) {
+            digest.update(String.valueOf(item).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, FINGERPRINT_BYTES);
+    }
+
+    /**
+     * 计算一段文本的指纹
+     *
+     * @param content 文本内容
+     * @return 32位十六进制字符串，不含引号
+     */
+    public static String fingerprint(CharSequence content) {
+        byte[] hash = newDigest().digest(content.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, FINGERPRINT_BYTES);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
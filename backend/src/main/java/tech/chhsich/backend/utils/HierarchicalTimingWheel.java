@@ -0,0 +1,168 @@
+package tech.chhsich.backend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ *
+ * <p>用于大量定时任务的O(1)登记：第0层每格 {@code tickMillis}，共 {@code wheelSize} 格；
+ * 第N层每格等于第N-1层一整圈的时长。登记时根据到期时间直接放入对应层的格子，
+ * 时间推进到高层格子的起点时，把该格中的条目降级重新放入低层，最终在第0层到期。
+ * 超出最高层范围的条目暂存在溢出列表中，最高层每转一圈重新分配一次。</p>
+ *
+ * <p>条目不会提前到期，最多延迟一个tick。所有方法都在同一把锁下执行，登记和推进都只涉及常数次数组操作
+ * （推进时的降级成本按条目均摊）。</p>
+ *
+ * @param <T> 条目类型
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final List<Entry<T>>[][] buckets;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+
+    private long currentTime;
+    private int size;
+
+    /**
+     * 构造函数
+     *
+     * @param tickMillis 第0层每格的时长（毫秒）
+     * @param wheelSize 每层的格数
+     * @param levels 层数
+     * @param startMillis 起始时间（毫秒时间戳）
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1 || levels <= 0) {
+            throw new IllegalArgumentException("时间轮参数不合法");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levels];
+        this.buckets = new List[levels][wheelSize];
+        long levelTick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTicks[level] = levelTick;
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * 登记条目
+     *
+     * @param item 条目
+     * @param deadlineMillis 到期时间（毫秒时间戳）
+     * @return 已登记返回true；如果条目已经到期则不登记并返回false，由调用方立即处理
+     */
+    public synchronized boolean schedule(T item, long deadlineMillis) {
+        if (!place(new Entry<>(item, deadlineMillis))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * 把时间轮推进到指定时间，返回期间到期的条目
+     *
+     * @param nowMillis 当前时间（毫秒时间戳）
+     * @return 到期的条目，没有则返回空列表
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            // 上一个tick的格子中的条目都已到期
+            List<Entry<T>> due = takeBucket(0, currentTime);
+            currentTime += tickMillis;
+            if (due != null) {
+                for (Entry<T> entry : due) {
+                    expired.add(entry.item);
+                }
+                size -= due.size();
+            }
+
+            long topInterval = levelTicks[levelTicks.length - 1] * wheelSize;
+            if (!overflow.isEmpty() && Math.floorMod(currentTime, topInterval) == 0) {
+                List<Entry<T>> far = new ArrayList<>(overflow);
+                overflow.clear();
+                reinsert(far, expired);
+            }
+
+            // 从高层到低层依次降级到达起点的格子
+            for (int level = levelTicks.length - 1; level >= 1; level--) {
+                if (Math.floorMod(currentTime, levelTicks[level]) == 0) {
+                    List<Entry<T>> bucket = takeBucket(level, currentTime);
+                    if (bucket != null) {
+                        reinsert(bucket, expired);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 获取尚未到期的条目数
+     *
+     * @return 条目数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void reinsert(List<Entry<T>> entries, List<T> expired) {
+        for (Entry<T> entry : entries) {
+            if (!place(entry)) {
+                expired.add(entry.item);
+                size--;
+            }
+        }
+    }
+
+    private boolean place(Entry<T> entry) {
+        long deadline = entry.deadline;
+        if (deadline < currentTime) {
+            return false;
+        }
+        for (int level = 0; level < levelTicks.length; level++) {
+            long levelTick = levelTicks[level];
+            long levelStart = currentTime - Math.floorMod(currentTime, levelTick);
+            if (deadline < levelStart + levelTick * wheelSize) {
+                int slot = (int) Math.floorMod(Math.floorDiv(deadline, levelTick), (long) wheelSize);
+                List<Entry<T>> bucket = buckets[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets[level][slot] = bucket;
+                }
+                bucket.add(entry);
+                return true;
+            }
+        }
+        overflow.add(entry);
+        return true;
+    }
+
+    private List<Entry<T>> takeBucket(int level, long time) {
+        int slot = (int) Math.floorMod(Math.floorDiv(time, levelTicks[level]), (long) wheelSize);
+        List<Entry<T>> bucket = buckets[level][slot];
+        buckets[level][slot] = null;
+        return bucket;
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadline;
+
+        Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
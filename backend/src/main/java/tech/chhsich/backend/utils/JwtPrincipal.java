@@ -0,0 +1,52 @@
+package tech.chhsich.backend.utils;
+
+import java.time.Instant;
+
+/**
+ * 已校验JWT token的主体信息
+ *
+ * <p>由 {@link JwtUtil#verifyAndExtract(String)} 在校验通过后创建，不可变，可以在请求内安全地传递和复用。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class JwtPrincipal {
+
+    private final String username;
+    private final Integer role;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String username, Integer role, Instant expiresAt) {
+        this.username = username;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return 用户名（token的subject）
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return 角色代码，token中没有role声明时为null
+     */
+    public Integer getRole() {
+        return role;
+    }
+
+    /**
+     * @return 过期时间，token中没有exp声明时为null
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return 是否为管理员（role为1）
+     */
+    public boolean isAdmin() {
+        return role != null && role == 1;
+    }
+}
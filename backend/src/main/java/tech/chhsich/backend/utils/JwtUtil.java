@@ -2,6 +2,7 @@ package tech.chhsich.backend.utils;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,11 +22,20 @@ import java.util.HashMap;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:qwqw}")
-    private String secret;
+    private final Long expiration;
 
-    @Value("${jwt.expiration:86400}")
-    private Long expiration;
+    /**
+     * 签名算法和校验器都是线程安全的，构造时创建一次后复用，
+     * 避免每次签发和校验都重新构建HMAC密钥和校验器
+     */
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public JwtUtil(@Value("${jwt.secret:qwqw}") String secret, @Value("${jwt.expiration:86400}") Long expiration) {
+        this.expiration = expiration;
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).build();
+    }
 
     /**
      * 生成JWT token
@@ -48,8 +58,6 @@ public class JwtUtil {
         Date now = new Date();
         Date expirationDate = new Date(now.getTime() + expiration * 1000);
 
-        Algorithm algorithm = Algorithm.HMAC256(secret);
-
         com.auth0.jwt.JWTCreator.Builder builder = JWT.create()
                 .withSubject(username)
                 .withIssuedAt(now)
@@ -90,7 +98,7 @@ public class JwtUtil {
                 .withClaim("type", "refresh")
                 .withIssuedAt(now)
                 .withExpiresAt(expirationDate)
-                .sign(Algorithm.HMAC256(secret));
+                .sign(algorithm);
     }
 
     /**
@@ -101,8 +109,7 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWT.require(algorithm).build().verify(token);
+            verifier.verify(token);
             return true;
         } catch (JWTVerificationException e) {
             return false;
@@ -117,8 +124,23 @@ public class JwtUtil {
      * @throws JWTVerificationException token无效时抛出异常
      */
     public DecodedJWT parseToken(String token) throws JWTVerificationException {
-        Algorithm algorithm = Algorithm.HMAC256(secret);
-        return JWT.require(algorithm).build().verify(token);
+        return verifier.verify(token);
+    }
+
+    /**
+     * 校验token并一次性提取认证所需的信息
+     *
+     * <p>只做一次签名和过期校验，供过滤器在整个请求中使用，
+     * 替代依次调用 validateToken、isTokenExpired、getUsernameFromToken、getClaimsFromToken。</p>
+     *
+     * @param token JWT token
+     * @return 不可变的token主体信息
+     * @throws com.auth0.jwt.exceptions.TokenExpiredException token已过期时抛出
+     * @throws JWTVerificationException token签名或格式无效时抛出
+     */
+    public JwtPrincipal verifyAndExtract(String token) throws JWTVerificationException {
+        DecodedJWT jwt = verifier.verify(token);
+        return new JwtPrincipal(jwt.getSubject(), jwt.getClaim("role").asInt(), jwt.getExpiresAtAsInstant());
     }
 
     /**
@@ -0,0 +1,138 @@
+package tech.chhsich.backend.utils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形缓冲区（多生产者、单消费者）
+ *
+ * <p>每个槽位带一个序号：生产者通过CAS抢占写入位置，写完后推进槽位序号发布数据；
+ * 唯一的消费者按序号判断槽位是否可读，读完后把序号推进一圈，槽位即可被再次写入。
+ * 生产者之间只在写入位置上竞争一次CAS，不会阻塞，缓冲区满时 {@link #offer} 立即返回false。</p>
+ *
+ * <p>{@link #poll} 和 {@link #drainTo} 只能由同一个线程调用。</p>
+ *
+ * @param <E> 元素类型
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * 构造函数
+     *
+     * @param requestedCapacity 期望容量，向上取整到2的幂
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("容量必须在 1~2^30 之间: " + requestedCapacity);
+        }
+        this.capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入元素，可由任意线程并发调用
+     *
+     * @param element 元素，不能为null
+     * @return 写入成功返回true；缓冲区已满返回false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出一个元素，只能由消费者线程调用
+     *
+     * @return 元素；当前没有可读元素时返回null
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = buffer.get(index);
+        buffer.set(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * 批量取出元素，只能由消费者线程调用
+     *
+     * @param target 接收元素的列表
+     * @param maxElements 最多取出的元素数
+     * @return 实际取出的元素数
+     */
+    public int drainTo(List<? super E> target, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 当前元素数（近似值，供监控使用）
+     *
+     * @return 元素数
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * @return 是否没有已写入的元素（近似值）
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return 实际容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,67 @@
+package tech.chhsich.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 订单列表的分页游标
+ *
+ * <p>记录上一页最后一条订单的 (createtime, id)，下一页从该位置之后继续读取，
+ * 不需要像OFFSET那样扫描并丢弃前面的行。对外以URL安全的Base64编码成不透明令牌，
+ * 调用方不应解析或拼装令牌内容。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public final class OrderCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createTime;
+    private final long id;
+
+    public OrderCursor(LocalDateTime createTime, long id) {
+        this.createTime = createTime;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * 编码为不透明令牌
+     *
+     * @return 令牌字符串
+     */
+    public String encode() {
+        String raw = createTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析令牌
+     *
+     * @param token 令牌字符串
+     * @return 游标
+     * @throws IllegalArgumentException 令牌格式不正确
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            LocalDateTime createTime = LocalDateTime.parse(raw.substring(0, Math.max(separator, 0)));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new OrderCursor(createTime, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // Base64解码失败和NumberFormatException都是IllegalArgumentException
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
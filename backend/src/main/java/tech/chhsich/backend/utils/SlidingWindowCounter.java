@@ -0,0 +1,80 @@
+package tech.chhsich.backend.utils;
+
+import java.util.Arrays;
+
+/**
+ * 按时间分桶的滑动窗口计数器
+ *
+ * <p>固定数量的桶组成环形数组，每个桶覆盖 {@code bucketMillis} 毫秒，并记录它当前对应的桶序号
+ * （时间戳除以桶宽）。写入时如果槽位里是一圈以前的旧桶就先清零再累加，因此不需要后台任务推进窗口；
+ * 比槽位中已有的桶还旧的写入说明已滑出窗口，直接丢弃。</p>
+ *
+ * <p>{@link #sum(long)} 返回当前桶及之前 {@code bucketCount - 1} 个桶的合计，即窗口长度在
+ * {@code (bucketCount - 1) * bucketMillis} 到 {@code bucketCount * bucketMillis} 之间，随当前桶已过去的时间变化。</p>
+ *
+ * <p>所有方法都是同步的，单个计数器上的竞争只来自同一菜品的并发下单。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final long[] counts;
+    private final long[] buckets;
+
+    /**
+     * 构造函数
+     *
+     * @param bucketMillis 每个桶覆盖的毫秒数
+     * @param bucketCount 桶的数量
+     */
+    public SlidingWindowCounter(long bucketMillis, int bucketCount) {
+        if (bucketMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("桶宽和桶数必须为正数: " + bucketMillis + ", " + bucketCount);
+        }
+        this.bucketMillis = bucketMillis;
+        this.counts = new long[bucketCount];
+        this.buckets = new long[bucketCount];
+        Arrays.fill(buckets, Long.MIN_VALUE);
+    }
+
+    /**
+     * 在某个时刻累加计数
+     *
+     * @param timeMillis 事件发生的时间戳（毫秒）
+     * @param amount 增加的数量
+     * @return 是否计入；已滑出窗口的事件返回false
+     */
+    public synchronized boolean add(long timeMillis, long amount) {
+        long bucket = Math.floorDiv(timeMillis, bucketMillis);
+        int slot = (int) Math.floorMod(bucket, (long) counts.length);
+        if (buckets[slot] > bucket) {
+            return false;
+        }
+        if (buckets[slot] < bucket) {
+            buckets[slot] = bucket;
+            counts[slot] = 0;
+        }
+        counts[slot] += amount;
+        return true;
+    }
+
+    /**
+     * 获取窗口内的合计
+     *
+     * @param nowMillis 当前时间戳（毫秒）
+     * @return 当前桶及之前的桶在窗口内的计数之和
+     */
+    public synchronized long sum(long nowMillis) {
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        long oldest = current - counts.length + 1;
+        long total = 0;
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (buckets[slot] >= oldest && buckets[slot] <= current) {
+                total += counts[slot];
+            }
+        }
+        return total;
+    }
+}
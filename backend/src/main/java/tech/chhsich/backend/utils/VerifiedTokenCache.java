@@ -0,0 +1,199 @@
+package tech.chhsich.backend.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 已校验JWT token缓存
+ *
+ * <p>客户端在一次会话中会反复携带同一个token，命中缓存时直接返回上次校验得到的 {@link JwtPrincipal}，
+ * 跳过签名校验和声明解析。缓存键是token的SHA-256摘要，不在内存中保留原始token。</p>
+ *
+ * <p>容量有上限，超出时按插入顺序（近似）淘汰最早的条目；每个条目的有效期取配置的TTL与token自身exp中较早者，
+ * 因此缓存永远不会让已过期的token继续通过认证。登出时可以显式移除对应条目。
+ * 注意这里只是缓存，不是吊销列表：被移除的token如果尚未过期，再次使用时会重新校验并通过。</p>
+ *
+ * <p>命中、未命中和淘汰次数通过Micrometer暴露为 jwt.cache.requests{result=hit|miss} 和 jwt.cache.evictions。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("jwt.cache.requests").tag("result", "hit")
+                .description("已校验token缓存查询次数").register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache.requests").tag("result", "miss")
+                .description("已校验token缓存查询次数").register(meterRegistry);
+        this.evictions = Counter.builder("jwt.cache.evictions")
+                .description("因过期、容量或登出被移除的token缓存条目数").register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, Map::size)
+                .description("已校验token缓存条目数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 是否启用缓存
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 查询token对应的已校验主体
+     *
+     * @param token JWT token
+     * @return 缓存的主体；未启用、未命中或条目已过期时返回null
+     */
+    public JwtPrincipal get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = hash(token);
+        CachedPrincipal cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.expiresAtMillis <= currentTimeMillis()) {
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.principal;
+    }
+
+    /**
+     * 缓存校验通过的token
+     *
+     * @param token JWT token
+     * @param principal 校验得到的主体
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (!enabled) {
+            return;
+        }
+        long now = currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (principal.getExpiresAt() != null) {
+            expiresAt = Math.min(expiresAt, principal.getExpiresAt().toEpochMilli());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        String key = hash(token);
+        if (entries.put(key, new CachedPrincipal(principal, expiresAt)) == null) {
+            insertionOrder.add(key);
+            insertionOrderSize.incrementAndGet();
+            evictOverflow();
+        }
+    }
+
+    /**
+     * 移除token对应的缓存条目（登出时调用）
+     *
+     * @param token JWT token
+     */
+    public void invalidate(String token) {
+        if (!enabled || token == null) {
+            return;
+        }
+        if (entries.remove(hash(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return 当前条目数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 当前时间，测试中可覆盖
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 超出容量时按插入顺序淘汰。队列中可能残留已被移除的键，出队时跳过即可；
+     * 残留键过多时整体清理一次，防止反复失效再插入使队列无限增长。
+     */
+    private void evictOverflow() {
+        while (entries.size() > maxSize) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            if (entries.remove(eldest) != null) {
+                evictions.increment();
+            }
+        }
+        if (insertionOrderSize.get() > maxSize * 2) {
+            synchronized (insertionOrder) {
+                if (insertionOrderSize.get() > maxSize * 2) {
+                    int before = insertionOrder.size();
+                    insertionOrder.removeIf(key -> !entries.containsKey(key));
+                    insertionOrderSize.addAndGet(insertionOrder.size() - before);
+                }
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    private static final class CachedPrincipal {
+        final JwtPrincipal principal;
+        final long expiresAtMillis;
+
+        CachedPrincipal(JwtPrincipal principal, long expiresAtMillis) {
+            this.principal = principal;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
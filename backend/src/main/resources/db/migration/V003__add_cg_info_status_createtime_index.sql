@@ -0,0 +1,3 @@
+-- 订单状态+创建时间覆盖索引
+-- 用于启动时一次性扫描待支付订单以重建超时取消时间轮（SELECT orderid, createtime WHERE status = 0）
+CREATE INDEX idx_cg_info_status_createtime ON cg_info (status, createtime, orderid);
@@ -0,0 +1,10 @@
+-- 订单列表游标分页索引
+-- 列表按 (createtime DESC, id DESC) 排序并从上一页最后一条记录之后继续读取，
+-- 过滤和排序都由索引完成，每页只回表LIMIT行，与翻到第几页无关。
+-- InnoDB二级索引隐含主键id，这里显式列出以表明排序键。
+-- 按状态分页不能复用V003的 (status, createtime, orderid)：orderid位于createtime和隐含的id之间，
+-- 无法按 (createtime DESC, id DESC) 排序，会对该状态的所有行filesort，因此单独建 (status, createtime, id)。
+-- 按用户且带状态过滤时仍走 username 索引，状态在索引扫描中过滤（单个用户的订单量有限）。
+CREATE INDEX idx_cg_info_username_createtime ON cg_info (username, createtime, id);
+CREATE INDEX idx_cg_info_createtime ON cg_info (createtime, id);
+CREATE INDEX idx_cg_info_status_createtime_id ON cg_info (status, createtime, id);
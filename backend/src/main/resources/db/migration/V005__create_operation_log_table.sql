@@ -0,0 +1,18 @@
+-- 创建操作日志表（由OperationLogWriter异步批量写入）
+CREATE TABLE IF NOT EXISTS operation_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NULL COMMENT '操作用户名',
+    role INT NULL COMMENT '用户角色',
+    operation_type VARCHAR(255) NULL COMMENT '操作类型（类名.方法名）',
+    description VARCHAR(255) NULL COMMENT '操作描述',
+    method VARCHAR(255) NULL COMMENT '请求URI',
+    params TEXT NULL COMMENT '请求参数',
+    result VARCHAR(32) NULL COMMENT '执行结果',
+    execution_time BIGINT NULL COMMENT '执行时间（毫秒）',
+    ip VARCHAR(64) NULL COMMENT 'IP地址',
+    status INT NOT NULL DEFAULT 1 COMMENT '操作状态（0-失败/1-成功）',
+    error_message VARCHAR(1000) NULL COMMENT '错误信息',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_username_create_time (username, create_time),
+    INDEX idx_create_time (create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表';
@@ -0,0 +1,6 @@
+-- 订单条目按订单号的覆盖索引，替换原有的单列 idx_order_entry_orderid
+-- 启动时重建趋势计数器：按 idx_cg_info_createtime 范围扫描最近的订单，再按订单号连接条目，
+-- 条目侧只读 productid、productnum，不回表。
+-- 新索引以 orderid 为最左列，按订单号查询条目的语句都能使用，旧索引是它的前缀，只增加写入开销，一并删除。
+CREATE INDEX idx_order_entry_orderid_product ON the_order_entry (orderid, productid, productnum);
+DROP INDEX idx_order_entry_orderid ON the_order_entry;
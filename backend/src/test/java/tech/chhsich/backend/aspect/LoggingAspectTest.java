@@ -0,0 +1,122 @@
+package tech.chhsich.backend.aspect;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.chhsich.backend.controller.CategoryController;
+import tech.chhsich.backend.service.OperationLogWriter;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 日志切面控制器计时测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class LoggingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private LoggingAspect aspect;
+
+    @BeforeEach
+    public void setUp() {
+        aspect = new LoggingAspect(mock(OperationLogWriter.class), meterRegistry, 1.0,
+                new String[]{"CategoryController.getCategoryById=0"},
+                new String[]{"CategoryController.getAllCategories"}, 64, true);
+        ReflectionTestUtils.setField(aspect, "request", request);
+    }
+
+    /**
+     * 测试免日志接口仍记录延迟直方图，且不读取请求信息
+     */
+    @Test
+    public void testQuietEndpointRecordsLatencyOnly() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getAllCategories");
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertEquals("ok", aspect.aroundControllerAdvice(joinPoint));
+        assertEquals("ok", aspect.aroundControllerAdvice(joinPoint));
+
+        assertEquals(2, timer("getAllCategories", "success").count());
+        verifyNoInteractions(request);
+    }
+
+    /**
+     * 测试失败请求即使未被采样也记录失败耗时并输出日志
+     */
+    @Test
+    public void testFailureAlwaysRecorded() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getCategoryById");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.aroundControllerAdvice(joinPoint));
+
+        assertEquals(1, timer("getCategoryById", "error").count());
+        verify(request).getRequestURI();
+    }
+
+    /**
+     * 测试被采样的请求只采集一次请求信息
+     */
+    @Test
+    public void testSampledRequestCapturesMetadataOnce() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getCategoryByName");
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        aspect.aroundControllerAdvice(joinPoint);
+
+        verify(request, times(1)).getRequestURI();
+        assertEquals(1, timer("getCategoryByName", "success").count());
+    }
+
+    /**
+     * 测试参数渲染按长度截断
+     */
+    @Test
+    public void testLazyArgsTruncation() {
+        assertEquals("无参数", new LoggingAspect.LazyArgs(new Object[0], 32).toString());
+        assertEquals("[a, 1]", new LoggingAspect.LazyArgs(new Object[]{"a", 1}, 32).toString());
+
+        String rendered = new LoggingAspect.LazyArgs(new Object[]{"x".repeat(100)}, 32).toString();
+        assertTrue(rendered.startsWith("[" + "x".repeat(31)));
+        assertTrue(rendered.endsWith("...(已截断)"));
+    }
+
+    private ProceedingJoinPoint joinPoint(String methodName) {
+        Method method = findMethod(methodName);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        return joinPoint;
+    }
+
+    private static Method findMethod(String name) {
+        for (Method method : CategoryController.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.get("http.controller.requests")
+                .tag("controller", "CategoryController")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
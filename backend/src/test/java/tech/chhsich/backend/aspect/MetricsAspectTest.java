@@ -0,0 +1,117 @@
+package tech.chhsich.backend.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.controller.CategoryController;
+import tech.chhsich.backend.exception.OrderStatusTransitionException;
+import tech.chhsich.backend.mapper.LtypeMapper;
+import tech.chhsich.backend.service.OrderService;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 指标切面测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class MetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsAspect aspect;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new MetricsAspect(meterRegistry, false);
+    }
+
+    /**
+     * 测试Mapper计时使用接口名，并按请求统计数据库调用次数
+     */
+    @Test
+    public void testMapperCallsCountedPerRequest() throws Throwable {
+        ProceedingJoinPoint mapperCall = joinPoint(mapperProxy(), method(LtypeMapper.class, "findByCatelock"));
+        when(mapperCall.proceed()).thenReturn(null);
+        ProceedingJoinPoint controllerCall = joinPoint(mock(CategoryController.class),
+                method(CategoryController.class, "getAllCategories"));
+        when(controllerCall.proceed()).thenAnswer(invocation -> {
+            aspect.aroundMapper(mapperCall);
+            aspect.aroundMapper(mapperCall);
+            return "ok";
+        });
+
+        assertEquals("ok", aspect.aroundController(controllerCall));
+
+        assertEquals(2, meterRegistry.get("db.mapper.duration")
+                .tag("class", "LtypeMapper").tag("method", "findByCatelock").tag("outcome", "success")
+                .timer().count());
+        var summary = meterRegistry.get("http.request.db.calls")
+                .tag("controller", "CategoryController").tag("method", "getAllCategories").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    /**
+     * 测试请求之外的Mapper调用只计时，不影响下一个请求的计数
+     */
+    @Test
+    public void testMapperCallOutsideRequest() throws Throwable {
+        ProceedingJoinPoint mapperCall = joinPoint(mapperProxy(), method(LtypeMapper.class, "findByCatelock"));
+        aspect.aroundMapper(mapperCall);
+
+        ProceedingJoinPoint controllerCall = joinPoint(mock(CategoryController.class),
+                method(CategoryController.class, "getAllCategories"));
+        aspect.aroundController(controllerCall);
+
+        assertEquals(0.0, meterRegistry.get("http.request.db.calls").summary().totalAmount());
+    }
+
+    /**
+     * 测试服务方法失败时按异常类型计时
+     */
+    @Test
+    public void testServiceFailureTaggedByException() throws Throwable {
+        ProceedingJoinPoint serviceCall = joinPoint(mock(OrderService.class), method(OrderService.class, "payOrder"));
+        when(serviceCall.proceed()).thenThrow(new OrderStatusTransitionException("当前状态 已支付 不允许支付"));
+
+        assertThrows(OrderStatusTransitionException.class, () -> aspect.aroundService(serviceCall));
+
+        assertEquals(1, meterRegistry.get("service.method.duration")
+                .tag("method", "payOrder").tag("outcome", "error")
+                .tag("exception", "OrderStatusTransitionException")
+                .timer().count());
+    }
+
+    private static LtypeMapper mapperProxy() {
+        return (LtypeMapper) Proxy.newProxyInstance(LtypeMapper.class.getClassLoader(),
+                new Class<?>[]{LtypeMapper.class}, (proxy, method, args) -> null);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object target, Method method) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn(method.getName());
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(target);
+        return joinPoint;
+    }
+
+    private static Method method(Class<?> type, String name) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,109 @@
+package tech.chhsich.backend.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.chhsich.backend.controller.AdminController;
+import tech.chhsich.backend.entity.OperationLog;
+import tech.chhsich.backend.entity.ResponseMessage;
+import tech.chhsich.backend.service.AdminService;
+import tech.chhsich.backend.service.OperationLogWriter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 操作日志切面测试：通过代理调用真实控制器，验证后台写操作的日志到达写入器
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OperationLogAspectTest {
+
+    private final OperationLogWriter operationLogWriter = mock(OperationLogWriter.class);
+    private final AdminService adminService = mock(AdminService.class);
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private AdminController controller;
+
+    @BeforeEach
+    public void setUp() {
+        LoggingAspect aspect = new LoggingAspect(operationLogWriter, new SimpleMeterRegistry(), 1.0,
+                new String[0], new String[0], 64, false);
+        ReflectionTestUtils.setField(aspect, "request", request);
+        when(request.getRequestURI()).thenReturn("/WebOrderSystem/admin/update");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new AdminController(adminService));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        controller = factory.getProxy();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("admin", null, "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试后台写操作生成一条操作日志
+     */
+    @Test
+    public void testAdminWriteIsAudited() {
+        when(adminService.updatePassword(any(), anyString(), anyString())).thenReturn(ResponseMessage.success("ok"));
+
+        controller.updatePassword(request, "old-secret", "new-secret");
+
+        ArgumentCaptor<OperationLog> captor = ArgumentCaptor.forClass(OperationLog.class);
+        verify(operationLogWriter).publish(captor.capture());
+        OperationLog operationLog = captor.getValue();
+        assertEquals("AdminController.updatePassword", operationLog.getOperationType());
+        assertEquals("admin", operationLog.getUsername());
+        assertEquals(1, operationLog.getRole());
+        assertEquals("/WebOrderSystem/admin/update", operationLog.getMethod());
+        assertEquals("10.0.0.1", operationLog.getIp());
+        assertEquals(1, operationLog.getStatus());
+        assertEquals("(HttpServletRequest request, String oldPassword, String newPassword)", operationLog.getParams());
+        assertFalse(operationLog.getParams().contains("secret"));
+    }
+
+    /**
+     * 测试写操作抛出异常时记录失败日志
+     */
+    @Test
+    public void testFailedAdminWriteIsAudited() {
+        when(adminService.deleteMember(anyString())).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> controller.deleteMember("alice"));
+
+        ArgumentCaptor<OperationLog> captor = ArgumentCaptor.forClass(OperationLog.class);
+        verify(operationLogWriter).publish(captor.capture());
+        assertEquals(0, captor.getValue().getStatus());
+        assertEquals("boom", captor.getValue().getErrorMessage());
+    }
+
+    /**
+     * 测试后台只读接口不生成操作日志
+     */
+    @Test
+    public void testAdminReadIsNotAudited() {
+        when(adminService.getAllMembers()).thenReturn(List.of());
+
+        controller.getAllMembers();
+
+        verify(operationLogWriter, never()).publish(any());
+    }
+}
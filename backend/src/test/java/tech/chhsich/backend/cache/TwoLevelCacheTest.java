@@ -0,0 +1,163 @@
+package tech.chhsich.backend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.chhsich.backend.entity.Menu;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 两级缓存测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class TwoLevelCacheTest {
+
+    private InMemorySharedCache sharedCache;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        sharedCache = new InMemorySharedCache(100);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache(sharedCache, meterRegistry, 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * 测试读取顺序：一级缓存、二级缓存、加载函数
+     */
+    @Test
+    public void testReadThroughOrder() {
+        Menu first = cache.get("menu:1", cache.codec().type(Menu.class), true, null, () -> load(1L));
+        Menu second = cache.get("menu:1", cache.codec().type(Menu.class), true, null, () -> load(1L));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("cache.requests", "level", "l1", "result", "hit").count());
+
+        TwoLevelCache otherNode = new TwoLevelCache(sharedCache, meterRegistry, 100, 60);
+        Menu fromShared = otherNode.get("menu:1", otherNode.codec().type(Menu.class), true, null, () -> load(1L));
+        assertNotSame(first, fromShared);
+        assertEquals("菜品1", fromShared.getName());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * 测试不使用一级缓存时每次都得到新解码的对象
+     */
+    @Test
+    public void testSharedOnlyReturnsFreshCopies() {
+        List<Menu> first = cache.get("cart:alice", cache.codec().listOf(Menu.class), false, null,
+                () -> new ArrayList<>(List.of(load(1L))));
+        first.clear();
+
+        List<Menu> second = cache.get("cart:alice", cache.codec().listOf(Menu.class), false, null,
+                () -> new ArrayList<>(List.of(load(1L))));
+        assertEquals(1, second.size());
+        assertEquals(1, loads.get());
+
+        cache.invalidateShared("cart:alice");
+        cache.get("cart:alice", cache.codec().listOf(Menu.class), false, null, () -> List.of(load(1L)));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试一个节点失效后其他节点的一级缓存同时被清除，并通知回调
+     */
+    @Test
+    public void testInvalidationBroadcast() {
+        TwoLevelCache otherNode = new TwoLevelCache(sharedCache, meterRegistry, 100, 60);
+        List<String> remoteKeys = new ArrayList<>();
+        otherNode.onRemoteInvalidation(remoteKeys::add);
+        List<String> ownKeys = new ArrayList<>();
+        cache.onRemoteInvalidation(ownKeys::add);
+
+        Menu cached = otherNode.get("menu:1", otherNode.codec().type(Menu.class), true, null, () -> load(1L));
+        cache.invalidate("menu:1");
+
+        assertEquals(List.of("menu:1"), remoteKeys);
+        assertTrue(ownKeys.isEmpty());
+        assertNull(sharedCache.get("menu:1"));
+        Menu reloaded = otherNode.get("menu:1", otherNode.codec().type(Menu.class), true, null, () -> load(1L));
+        assertNotSame(cached, reloaded);
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试事务中失效时，事务结束后再次清除并广播，其他节点在提交前读到的旧值不会留在一级缓存
+     */
+    @Test
+    public void testInvalidationRepeatedAfterTransaction() {
+        TwoLevelCache otherNode = new TwoLevelCache(sharedCache, meterRegistry, 100, 60);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("menu:1");
+            otherNode.get("menu:1", otherNode.codec().type(Menu.class), true, null, () -> load(1L));
+            assertNotNull(sharedCache.get("menu:1"));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(sharedCache.get("menu:1"));
+        otherNode.get("menu:1", otherNode.codec().type(Menu.class), true, null, () -> load(1L));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试加载结果为null时不缓存
+     */
+    @Test
+    public void testNullNotCached() {
+        assertNull(cache.get("menu:99", cache.codec().type(Menu.class), true, null, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.get("menu:99", cache.codec().type(Menu.class), true, null, () -> load(99L));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试Smile编解码保留时间字段，并忽略未知字段
+     */
+    @Test
+    public void testCodecRoundTrip() {
+        CacheCodec codec = new CacheCodec();
+        Menu menu = load(1L);
+        menu.setCreateTime(LocalDateTime.of(2025, 10, 17, 12, 30, 15));
+
+        Menu decoded = codec.decode(codec.encode(menu), codec.type(Menu.class));
+        assertEquals(menu, decoded);
+
+        byte[] extended = codec.encode(Map.of("id", 5, "name", "新菜品", "unknownField", true));
+        Menu tolerant = codec.decode(extended, codec.type(Menu.class));
+        assertEquals(5L, tolerant.getId());
+        assertThrows(IllegalStateException.class, () -> codec.decode(new byte[]{1, 2, 3}, codec.type(Menu.class)));
+    }
+
+    private Menu load(Long id) {
+        loads.incrementAndGet();
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName("菜品" + id);
+        menu.setHotPrice(18.0);
+        menu.setSales(3);
+        return menu;
+    }
+}
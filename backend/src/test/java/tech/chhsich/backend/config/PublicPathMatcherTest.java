@@ -0,0 +1,69 @@
+package tech.chhsich.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 公开路径匹配器测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class PublicPathMatcherTest {
+
+    private final PublicPathMatcher matcher = new PublicPathMatcher(new String[]{
+            "/api/user/login", " /api/menu/** ", "/swagger-ui.html", "/actuator/**"
+    });
+
+    /**
+     * 测试精确路径
+     */
+    @Test
+    public void testExactPath() {
+        assertTrue(matcher.matches("/api/user/login"));
+        assertFalse(matcher.matches("/api/user/login/extra"));
+        assertFalse(matcher.matches("/api/user"));
+        assertTrue(matcher.matches("/swagger-ui.html"));
+    }
+
+    /**
+     * 测试前缀路径包含自身及子路径，但不匹配同前缀的其他路径
+     */
+    @Test
+    public void testPrefixPath() {
+        assertTrue(matcher.matches("/api/menu"));
+        assertTrue(matcher.matches("/api/menu/"));
+        assertTrue(matcher.matches("/api/menu/1/detail"));
+        assertFalse(matcher.matches("/api/menus"));
+        assertFalse(matcher.matches("/api/orders"));
+    }
+
+    /**
+     * 测试去除上下文路径
+     */
+    @Test
+    public void testContextPath() {
+        assertTrue(matcher.matches("/WebOrderSystem/api/menu/1", "/WebOrderSystem"));
+        assertTrue(matcher.matches("/actuator/health", ""));
+        assertFalse(matcher.matches("/WebOrderSystem/api/orders", "/WebOrderSystem"));
+    }
+
+    /**
+     * 测试模式列表去除空白
+     */
+    @Test
+    public void testPatterns() {
+        assertArrayEquals(new String[]{"/api/user/login", "/api/menu/**", "/swagger-ui.html", "/actuator/**"},
+                matcher.getPatterns());
+    }
+
+    /**
+     * 测试不支持的通配写法
+     */
+    @Test
+    public void testRejectsInnerWildcard() {
+        assertThrows(IllegalArgumentException.class, () -> new PublicPathMatcher(new String[]{"/api/*/list"}));
+    }
+}
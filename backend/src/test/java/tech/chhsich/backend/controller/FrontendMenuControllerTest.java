@@ -12,9 +12,12 @@ import org.springframework.test.web.servlet.MvcResult;
 import tech.chhsich.backend.entity.Menu;
 import tech.chhsich.backend.service.MenuService;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -454,6 +457,66 @@ class FrontendMenuControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testConditionalGetReturnsNotModified() throws Exception {
+        // 测试场景8.1：公开菜品和类别接口带ETag，If-None-Match匹配时返回304且没有响应体
+        String[] endpoints = {"/api/menu", "/api/menu/recommended", "/api/menu/hot-sales", "/api/categories"};
+
+        for (String endpoint : endpoints) {
+            MvcResult first = mockMvc.perform(get(endpoint))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(header().string("Cache-Control", containsString("public")))
+                    .andReturn();
+            String etag = first.getResponse().getHeader("ETag");
+            assertTrue(etag.startsWith("\""), "应该是强ETag: " + etag);
+
+            MvcResult second = mockMvc.perform(get(endpoint).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andReturn();
+            assertEquals(0, second.getResponse().getContentAsByteArray().length, "304响应不应该有响应体");
+
+            mockMvc.perform(get(endpoint).header("If-None-Match", "\"stale\""))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void testPrerenderedGzipResponse() throws Exception {
+        // 测试场景8.2：菜品列表和推荐菜品按Accept-Encoding返回gzip字节，解压后与未压缩响应相同，ETag随编码不同
+        for (String endpoint : new String[]{"/api/menu", "/api/menu/recommended"}) {
+            MvcResult plain = mockMvc.perform(get(endpoint))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                    .andExpect(jsonPath("$.code").value(0))
+                    .andReturn();
+
+            MvcResult gzip = mockMvc.perform(get(endpoint).header("Accept-Encoding", "gzip, deflate, br"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                    .andReturn();
+
+            byte[] decompressed;
+            try (GZIPInputStream in = new GZIPInputStream(
+                    new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+                decompressed = in.readAllBytes();
+            }
+            assertArrayEquals(plain.getResponse().getContentAsByteArray(), decompressed, "解压后应与未压缩响应相同");
+            assertNotEquals(plain.getResponse().getHeader("ETag"), gzip.getResponse().getHeader("ETag"),
+                    "不同编码的ETag应该不同");
+
+            mockMvc.perform(get(endpoint).header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", gzip.getResponse().getHeader("ETag")))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get(endpoint).header("Accept-Encoding", "gzip;q=0"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"));
+        }
+    }
+
     @Test
     void testControllerDependenciesInjection() {
         // 测试场景9：验证Controller依赖注入正确
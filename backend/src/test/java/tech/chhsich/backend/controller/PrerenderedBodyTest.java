@@ -0,0 +1,53 @@
+package tech.chhsich.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预渲染响应体测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class PrerenderedBodyTest {
+
+    /**
+     * 测试gzip版本解压后与原始JSON相同，ETag随编码不同
+     */
+    @Test
+    public void testGzipVariant() throws IOException {
+        byte[] json = "{\"code\":0,\"message\":\"success\",\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+        PrerenderedBody body = PrerenderedBody.of("abc", json);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.getGzip()))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertEquals("abc", body.getETag());
+        assertNotEquals(body.getETag(), body.getGzipETag());
+    }
+
+    /**
+     * 测试Accept-Encoding解析，包括q值和通配符
+     */
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(PrerenderedBody.acceptsGzip("gzip"));
+        assertTrue(PrerenderedBody.acceptsGzip("deflate, GZIP;q=0.8, br"));
+        assertTrue(PrerenderedBody.acceptsGzip("*"));
+        assertTrue(PrerenderedBody.acceptsGzip("x-gzip"));
+        assertFalse(PrerenderedBody.acceptsGzip(null));
+        assertFalse(PrerenderedBody.acceptsGzip(""));
+        assertFalse(PrerenderedBody.acceptsGzip("br, deflate"));
+        assertFalse(PrerenderedBody.acceptsGzip("gzip;q=0"));
+        assertFalse(PrerenderedBody.acceptsGzip("gzip; q=0.0"));
+        assertFalse(PrerenderedBody.acceptsGzip("identity"));
+        assertFalse(PrerenderedBody.acceptsGzip("gzip;q=0, *"));
+    }
+}
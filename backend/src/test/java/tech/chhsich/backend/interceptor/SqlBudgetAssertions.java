@@ -0,0 +1,94 @@
+package tech.chhsich.backend.interceptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 集成测试用的SQL预算断言
+ *
+ * <p>在当前线程上开始统计后执行请求（MockMvc在测试线程上同步处理请求），
+ * {@link SqlBudgetInterceptor} 会沿用这份统计，请求结束后据此断言。用法：</p>
+ * <pre>
+ * SqlBudgetAssertions.assertWithinBudget(sqlBudgetInterceptor, "POST /api/orders",
+ *         () -&gt; mockMvc.perform(post("/api/orders").content(body)));
+ * </pre>
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public final class SqlBudgetAssertions {
+
+    private SqlBudgetAssertions() {
+    }
+
+    /**
+     * 测试中要统计的操作
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * 执行操作并返回期间的SQL统计
+     *
+     * @param action 要执行的操作
+     * @return SQL统计
+     */
+    public static SqlStatementStats record(Action action) throws Exception {
+        if (SqlStatementStats.current() != null) {
+            fail("当前线程已有进行中的SQL统计");
+        }
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            action.run();
+            return stats;
+        } finally {
+            SqlStatementStats.end();
+        }
+    }
+
+    /**
+     * 断言操作执行的语句数不超过上限
+     */
+    public static SqlStatementStats assertMaxStatements(int maxStatements, Action action) throws Exception {
+        SqlStatementStats stats = record(action);
+        if (stats.getStatementCount() > maxStatements) {
+            fail(String.format("执行了 %d 条SQL，上限为 %d", stats.getStatementCount(), maxStatements));
+        }
+        return stats;
+    }
+
+    /**
+     * 断言同一语句的执行次数不超过上限
+     */
+    public static SqlStatementStats assertNoRepeatedStatements(int maxRepeats, Action action) throws Exception {
+        SqlStatementStats stats = record(action);
+        Map<String, Integer> repeated = stats.getRepeatedStatements(maxRepeats + 1);
+        if (!repeated.isEmpty()) {
+            fail("疑似N+1查询: " + repeated);
+        }
+        return stats;
+    }
+
+    /**
+     * 按应用配置的接口预算断言
+     *
+     * @param interceptor 应用中的SQL预算拦截器
+     * @param endpoint 接口，如 {@code POST /api/orders}
+     * @param action 发起请求的操作
+     * @return SQL统计
+     */
+    public static SqlStatementStats assertWithinBudget(SqlBudgetInterceptor interceptor, String endpoint,
+                                                       Action action) throws Exception {
+        SqlStatementStats stats = record(action);
+        List<String> violations = interceptor.checkBudget(endpoint, stats);
+        if (!violations.isEmpty()) {
+            fail(endpoint + " 超出SQL预算: " + violations);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,164 @@
+package tech.chhsich.backend.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 每请求SQL预算检查测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class SqlBudgetInterceptorTest {
+
+    private static final String SELECT_MENU = "SELECT * FROM menu\n        WHERE id = ?";
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlBudgetInterceptor budgetInterceptor;
+    private SqlStatementInterceptor statementInterceptor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        budgetInterceptor = new SqlBudgetInterceptor(meterRegistry, true, 5, 2,
+                new String[]{"POST /api/orders=10"});
+        statementInterceptor = new SqlStatementInterceptor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SqlStatementStats.end();
+    }
+
+    /**
+     * 测试请求内的语句被计数，请求结束后统计被清除
+     */
+    @Test
+    public void testCountsStatementsPerRequest() throws Throwable {
+        MockHttpServletRequest request = request("GET", "/api/menu/{id}");
+
+        budgetInterceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        execute(SELECT_MENU);
+        execute("SELECT * FROM ltype");
+        SqlStatementStats stats = SqlStatementStats.current();
+        budgetInterceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertEquals(2, stats.getStatementCount());
+        assertNull(SqlStatementStats.current());
+        assertEquals(2.0, meterRegistry.get("sql.request.statements")
+                .tag("endpoint", "GET /api/menu/{id}").summary().totalAmount());
+        assertTrue(meterRegistry.find("sql.budget.exceeded").counters().isEmpty());
+    }
+
+    /**
+     * 测试请求之外的语句不计数
+     */
+    @Test
+    public void testIgnoresStatementsOutsideRequest() throws Throwable {
+        assertEquals(List.of(), execute(SELECT_MENU));
+        assertNull(SqlStatementStats.current());
+    }
+
+    /**
+     * 测试同一语句形状重复执行时报告N+1
+     */
+    @Test
+    public void testRepeatedStatementReported() throws Throwable {
+        MockHttpServletRequest request = request("POST", "/api/orders");
+
+        budgetInterceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        for (int i = 0; i < 3; i++) {
+            execute(SELECT_MENU);
+        }
+        budgetInterceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertEquals(1.0, meterRegistry.get("sql.budget.exceeded")
+                .tag("endpoint", "POST /api/orders").counter().count());
+    }
+
+    /**
+     * 测试按接口配置的预算
+     */
+    @Test
+    public void testPerEndpointBudget() {
+        assertEquals(10, budgetInterceptor.budgetFor("POST /api/orders"));
+        assertEquals(5, budgetInterceptor.budgetFor("GET /api/orders"));
+
+        SqlStatementStats stats = new SqlStatementStats();
+        for (int i = 0; i < 6; i++) {
+            stats.record("SELECT " + i, 1000);
+        }
+        List<String> violations = budgetInterceptor.checkBudget("GET /api/orders", stats);
+        assertEquals(1, violations.size());
+        assertTrue(budgetInterceptor.checkBudget("POST /api/orders", stats).isEmpty());
+    }
+
+    /**
+     * 测试断言API：测试先开始的统计被拦截器沿用，超出预算时断言失败
+     */
+    @Test
+    public void testAssertionApi() throws Exception {
+        SqlStatementStats stats = SqlBudgetAssertions.assertWithinBudget(budgetInterceptor, "POST /api/orders",
+                () -> simulateRequest("POST", "/api/orders", 2));
+        assertEquals(2, stats.getStatementCount());
+
+        assertThrows(AssertionError.class, () -> SqlBudgetAssertions.assertNoRepeatedStatements(2,
+                () -> simulateRequest("GET", "/api/menu/{id}", 3)));
+        assertThrows(AssertionError.class, () -> SqlBudgetAssertions.assertMaxStatements(1,
+                () -> simulateRequest("GET", "/api/menu/{id}", 2)));
+    }
+
+    /**
+     * 测试SQL形状的空白归一化
+     */
+    @Test
+    public void testNormalize() {
+        assertEquals("SELECT * FROM menu WHERE id = ?", SqlStatementStats.normalize("  " + SELECT_MENU + "\n"));
+    }
+
+    private void simulateRequest(String method, String pattern, int statements) throws Exception {
+        MockHttpServletRequest request = request(method, pattern);
+        budgetInterceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        try {
+            for (int i = 0; i < statements; i++) {
+                execute(SELECT_MENU);
+            }
+        } catch (Throwable e) {
+            throw new Exception(e);
+        }
+        budgetInterceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+    }
+
+    private Object execute(String sql) throws Throwable {
+        StatementHandler handler = mock(StatementHandler.class);
+        when(handler.getBoundSql()).thenReturn(new BoundSql(new Configuration(), sql, List.of(), null));
+        when(handler.query(any(), any())).thenReturn(List.of());
+        Invocation invocation = new Invocation(handler,
+                StatementHandler.class.getMethod("query", Statement.class, ResultHandler.class),
+                new Object[]{mock(Statement.class), null});
+        return statementInterceptor.intercept(invocation);
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
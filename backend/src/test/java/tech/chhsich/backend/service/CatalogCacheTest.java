@@ -0,0 +1,166 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.chhsich.backend.cache.InMemorySharedCache;
+import tech.chhsich.backend.cache.TwoLevelCache;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 菜品目录快照缓存测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class CatalogCacheTest {
+
+    private MenuMapper menuMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private InMemorySharedCache sharedCache;
+    private long now;
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    public void setUp() {
+        menuMapper = mock(MenuMapper.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(menuMapper.findByProductLock(0)).thenReturn(List.of(
+                menu(3L, 1L, 1, 5),
+                menu(1L, 1L, 0, 20),
+                menu(2L, 2L, 1, 20)));
+        now = 1_000_000L;
+        sharedCache = new InMemorySharedCache(100);
+        catalogCache = newNode();
+    }
+
+    private CatalogCache newNode() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TwoLevelCache twoLevelCache = new TwoLevelCache(sharedCache, meterRegistry, 100, 60);
+        return new CatalogCache(menuMapper, twoLevelCache, eventPublisher, meterRegistry, true, 60) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    /**
+     * 测试快照只构建一次，索引内容正确
+     */
+    @Test
+    public void testSnapshotIndexes() {
+        CatalogSnapshot snapshot = catalogCache.snapshot();
+        assertSame(snapshot, catalogCache.snapshot());
+        verify(menuMapper, times(1)).findByProductLock(0);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(snapshot.getMenus()));
+        assertEquals(List.of(1L, 3L), ids(snapshot.getMenusByCategory(1L)));
+        assertTrue(snapshot.getMenusByCategory(99L).isEmpty());
+        assertEquals(List.of(2L, 3L), ids(snapshot.getRecommended()));
+        assertEquals(List.of(1L, 2L, 3L), ids(snapshot.getBySales()));
+        assertEquals(List.of(1L, 2L), ids(snapshot.getTopSales(2)));
+        assertEquals(2L, snapshot.getMenu(2L).getId());
+        assertNull(snapshot.getMenu(99L));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getMenus().clear());
+    }
+
+    /**
+     * 测试失效后重建并递增版本、发布事件
+     */
+    @Test
+    public void testInvalidateRebuilds() {
+        CatalogSnapshot first = catalogCache.snapshot();
+        assertEquals(1, first.getVersion());
+
+        catalogCache.invalidate();
+
+        CatalogSnapshot second = catalogCache.snapshot();
+        assertNotSame(first, second);
+        assertEquals(2, second.getVersion());
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals(2, catalogCache.getVersion());
+        verify(eventPublisher, times(2)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    /**
+     * 测试事务中的失效在提交后才重建
+     */
+    @Test
+    public void testInvalidateAfterCommit() {
+        catalogCache.snapshot();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogCache.invalidate();
+            assertEquals(1, catalogCache.getVersion());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(2, catalogCache.getVersion());
+    }
+
+    /**
+     * 测试TTL过期后重建
+     */
+    @Test
+    public void testTtlExpiry() {
+        CatalogSnapshot first = catalogCache.snapshot();
+        now += 59_000;
+        assertSame(first, catalogCache.snapshot());
+
+        now += 1_000;
+        assertNotSame(first, catalogCache.snapshot());
+        verify(menuMapper, times(2)).findByProductLock(0);
+    }
+
+    /**
+     * 测试多节点：冷启动从二级缓存加载，一个节点修改后其他节点从二级缓存重建，不访问数据库
+     */
+    @Test
+    public void testOtherNodeRebuildsFromSharedCache() {
+        CatalogSnapshot first = catalogCache.snapshot();
+        CatalogCache otherNode = newNode();
+        assertEquals(3, otherNode.snapshot().getMenus().size());
+        verify(menuMapper, times(1)).findByProductLock(0);
+        assertEquals(catalogCache.snapshot().getETag(), otherNode.snapshot().getETag());
+
+        when(menuMapper.findByProductLock(0)).thenReturn(List.of(menu(1L, 1L, 0, 20)));
+        catalogCache.refresh();
+
+        verify(menuMapper, times(2)).findByProductLock(0);
+        assertEquals(List.of(1L), ids(otherNode.snapshot().getMenus()));
+        assertNotEquals(first.getETag(), otherNode.snapshot().getETag());
+        assertEquals(2, otherNode.getVersion());
+    }
+
+    private static Menu menu(Long id, Long categoryId, int recommend, int sales) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName("菜品" + id);
+        menu.setCategoryId(categoryId);
+        menu.setIsRecommend(recommend);
+        menu.setSales(sales);
+        menu.setProductLock(0);
+        return menu;
+    }
+
+    private static List<Long> ids(List<Menu> menus) {
+        return menus.stream().map(Menu::getId).toList();
+    }
+}
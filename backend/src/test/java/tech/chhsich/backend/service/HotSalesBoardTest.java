@@ -0,0 +1,131 @@
+package tech.chhsich.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 热销菜品排行榜测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class HotSalesBoardTest {
+
+    private MenuMapper menuMapper;
+    private CatalogCache catalogCache;
+    private HotSalesBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        menuMapper = mock(MenuMapper.class);
+        catalogCache = mock(CatalogCache.class);
+        List<Menu> menus = List.of(menu(1L, "鸡腿堡", 30), menu(2L, "鸡米花", 90), menu(3L, "薯条", 60));
+        when(catalogCache.snapshot()).thenReturn(CatalogSnapshot.build(1, 0, menus));
+        when(menuMapper.findByProductLock(0)).thenReturn(menus);
+        board = new HotSalesBoard(menuMapper, catalogCache, 2);
+        board.seed();
+    }
+
+    /**
+     * 测试按销量排序、数量限制和超过缓存名次的读取
+     */
+    @Test
+    public void testTopBySales() {
+        assertEquals(List.of(2L, 3L), ids(board.getTop(2).getMenus()));
+        assertEquals(List.of(2L), ids(board.getTop(1).getMenus()));
+        assertEquals(List.of(2L, 3L, 1L), ids(board.getTop(null).getMenus()));
+        assertEquals(List.of(2L, 3L, 1L), ids(board.getTop(10).getMenus()));
+    }
+
+    /**
+     * 测试累加销量后排名和ETag随之变化，返回的是带实时销量的副本
+     */
+    @Test
+    public void testIncrementReordersAndChangesETag() {
+        String before = board.getTop(2).getETag();
+        assertEquals(before, board.getTop(2).getETag());
+
+        board.increment(1L, 100);
+        board.increment(99L, 1000);
+
+        HotSalesBoard.Ranking ranking = board.getTop(2);
+        assertEquals(List.of(1L, 2L), ids(ranking.getMenus()));
+        assertEquals(130, ranking.getMenus().get(0).getSales());
+        assertNotEquals(before, ranking.getETag());
+        assertEquals(30, catalogCache.snapshot().getMenu(1L).getSales());
+    }
+
+    /**
+     * 测试同一份缓存下的数量限制视图只生成一次，前K名之外的销量变化不会使缓存失效
+     */
+    @Test
+    public void testViewsMemoizedAndOutsideIncrementKeepsCache() {
+        HotSalesBoard.Ranking full = board.getTop(2);
+        HotSalesBoard.Ranking first = board.getTop(1);
+        String etag = first.getETag();
+        assertSame(first, board.getTop(1));
+
+        board.increment(1L, 10);
+
+        assertSame(full, board.getTop(2));
+        assertSame(first, board.getTop(1));
+        assertEquals(etag, board.getTop(1).getETag());
+
+        board.increment(1L, 30);
+
+        assertNotSame(full, board.getTop(2));
+        assertEquals(List.of(2L, 1L), ids(board.getTop(2).getMenus()));
+    }
+
+    /**
+     * 测试与数据库对齐时保留本节点尚未刷新的增量，并吸收其他节点的销量
+     */
+    @Test
+    public void testResyncKeepsLargerSales() {
+        board.increment(1L, 100);
+        when(menuMapper.findByProductLock(0)).thenReturn(List.of(
+                menu(1L, "鸡腿堡", 50), menu(2L, "鸡米花", 90), menu(3L, "薯条", 500)));
+
+        board.resync();
+
+        assertEquals(List.of(3L, 1L, 2L), ids(board.getTop(null).getMenus()));
+        assertEquals(130, board.getTop(null).getMenus().get(1).getSales());
+    }
+
+    /**
+     * 测试目录变更后下架的菜品移出排行榜，新菜品加入
+     */
+    @Test
+    public void testCatalogChangeUpdatesMembership() {
+        board.increment(2L, 5);
+        board.onCatalogChanged(new CatalogChangedEvent(CatalogSnapshot.build(2, 0, List.of(
+                menu(2L, "鸡米花（大）", 90), menu(4L, "可乐", 70)))));
+
+        List<Menu> top = board.getTop(null).getMenus();
+        assertEquals(List.of(2L, 4L), ids(top));
+        assertEquals("鸡米花（大）", top.get(0).getName());
+        assertEquals(95, top.get(0).getSales());
+    }
+
+    private static Menu menu(Long id, String name, int sales) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName(name);
+        menu.setSales(sales);
+        menu.setProductLock(0);
+        return menu;
+    }
+
+    private static List<Long> ids(List<Menu> menus) {
+        return menus.stream().map(Menu::getId).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package tech.chhsich.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.event.CatalogChangedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 菜品搜索倒排索引测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class MenuSearchIndexTest {
+
+    private MenuSearchIndex searchIndex;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex = new MenuSearchIndex();
+        snapshot = CatalogSnapshot.build(1, 0, List.of(
+                menu(1L, "巨无霸", "经典双层牛肉汉堡", 50),
+                menu(2L, "巨无霸套餐", "汉堡加薯条可乐", 80),
+                menu(3L, "香辣鸡腿堡", "鸡腿肉汉堡", 120),
+                menu(4L, "薯条", "现炸薯条", 200),
+                menu(5L, "Big Mac", "Ｂｅｅｆ burger", 10)));
+    }
+
+    /**
+     * 测试名称完全匹配、前缀匹配、简介匹配的排序，同档按销量
+     */
+    @Test
+    public void testRankByMatchQualityThenSales() {
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search(snapshot, "巨无霸", 0, 10)));
+        assertEquals(List.of(4L, 2L), ids(searchIndex.search(snapshot, "薯条", 0, 10)));
+        assertEquals(List.of(3L, 2L, 1L), ids(searchIndex.search(snapshot, "汉堡", 0, 10)));
+        assertEquals(List.of(3L), ids(searchIndex.search(snapshot, "鸡", 0, 10)));
+    }
+
+    /**
+     * 测试n-gram交集后的子串校验排除误命中
+     */
+    @Test
+    public void testRejectsNonContiguousGrams() {
+        CatalogSnapshot tricky = CatalogSnapshot.build(1, 0, List.of(menu(9L, "香辣鸡x辣鸡腿", null, 1)));
+        assertTrue(searchIndex.search(tricky, "香辣鸡腿", 0, 10).isEmpty());
+        assertEquals(List.of(9L), ids(searchIndex.search(tricky, "辣鸡腿", 0, 10)));
+        assertTrue(searchIndex.search(snapshot, "披萨", 0, 10).isEmpty());
+    }
+
+    /**
+     * 测试全角、大小写、空格归一化和多词查询
+     */
+    @Test
+    public void testNormalizationAndMultipleTerms() {
+        assertEquals(List.of(5L), ids(searchIndex.search(snapshot, "bigmac", 0, 10)));
+        assertEquals(List.of(5L), ids(searchIndex.search(snapshot, "ＢＩＧ mac", 0, 10)));
+        assertEquals(List.of(5L), ids(searchIndex.search(snapshot, "beef", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search(snapshot, "巨无霸 可乐", 0, 10)));
+        assertTrue(searchIndex.search(snapshot, "  ！！ ", 0, 10).isEmpty());
+    }
+
+    /**
+     * 测试分页
+     */
+    @Test
+    public void testPagination() {
+        assertEquals(List.of(3L, 2L), ids(searchIndex.search(snapshot, "汉堡", 0, 2)));
+        assertEquals(List.of(1L), ids(searchIndex.search(snapshot, "汉堡", 2, 2)));
+        assertTrue(searchIndex.search(snapshot, "汉堡", 4, 2).isEmpty());
+    }
+
+    /**
+     * 测试目录变更后索引重建，修改过名称的菜品重新切分
+     */
+    @Test
+    public void testRebuildOnCatalogChange() {
+        searchIndex.search(snapshot, "巨无霸", 0, 10);
+
+        CatalogSnapshot changed = CatalogSnapshot.build(2, 0, List.of(
+                menu(1L, "双层吉士堡", "经典双层牛肉汉堡", 50),
+                menu(4L, "薯条", "现炸薯条", 200)));
+        searchIndex.onCatalogChanged(new CatalogChangedEvent(changed));
+
+        assertTrue(searchIndex.search(changed, "巨无霸", 0, 10).isEmpty());
+        assertEquals(List.of(1L), ids(searchIndex.search(changed, "吉士", 0, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search(changed, "薯条", 0, 10)));
+    }
+
+    private static Menu menu(Long id, String name, String info, int sales) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName(name);
+        menu.setInfo(info);
+        menu.setSales(sales);
+        menu.setProductLock(0);
+        return menu;
+    }
+
+    private static List<Long> ids(List<Menu> menus) {
+        return menus.stream().map(Menu::getId).toList();
+    }
+}
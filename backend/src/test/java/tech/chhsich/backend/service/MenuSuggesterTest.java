@@ -0,0 +1,93 @@
+package tech.chhsich.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.dto.MenuSuggestion;
+import tech.chhsich.backend.entity.Ltype;
+import tech.chhsich.backend.entity.Menu;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 搜索输入提示前缀树测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class MenuSuggesterTest {
+
+    private MenuSuggester.Trie trie;
+
+    @BeforeEach
+    public void setUp() {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(1, 0, List.of(
+                menu(1L, "鸡腿堡", 1L, 30),
+                menu(2L, "鸡米花", 2L, 90),
+                menu(3L, "鸡翅", 2L, 60),
+                menu(4L, "薯条", 2L, 200),
+                menu(5L, "Big Mac", 1L, 10)));
+        trie = MenuSuggester.Trie.build(snapshot, List.of(category(1L, "汉堡"), category(2L, "鸡肉小食")), 3);
+    }
+
+    /**
+     * 测试每个前缀按销量返回前k项，类别权重为其下菜品销量之和
+     */
+    @Test
+    public void testTopKBySales() {
+        assertEquals(List.of("鸡肉小食", "鸡米花", "鸡翅"), texts(trie.lookup("鸡", 10)));
+        assertEquals(List.of("鸡肉小食"), texts(trie.lookup("鸡肉", 10)));
+        assertEquals(List.of("鸡肉小食", "鸡米花"), texts(trie.lookup("鸡", 2)));
+        assertEquals(List.of("汉堡"), texts(trie.lookup("汉", 10)));
+
+        MenuSuggestion category = trie.lookup("汉", 1).get(0);
+        assertEquals(MenuSuggester.TYPE_CATEGORY, category.getType());
+        assertEquals(1L, category.getId());
+        assertEquals(MenuSuggester.TYPE_MENU, trie.lookup("鸡腿", 1).get(0).getType());
+    }
+
+    /**
+     * 测试全角、大小写和空格归一化
+     */
+    @Test
+    public void testNormalization() {
+        assertEquals(List.of("Big Mac"), texts(trie.lookup("bigm", 10)));
+        assertEquals(List.of("Big Mac"), texts(trie.lookup("ＢＩＧ m", 10)));
+    }
+
+    /**
+     * 测试没有匹配、前缀为空
+     */
+    @Test
+    public void testNoMatch() {
+        assertTrue(trie.lookup("披萨", 10).isEmpty());
+        assertTrue(trie.lookup("鸡腿堡套餐", 10).isEmpty());
+        assertTrue(trie.lookup("", 10).isEmpty());
+        assertTrue(trie.lookup("  ", 10).isEmpty());
+        assertTrue(trie.lookup(null, 10).isEmpty());
+    }
+
+    private static Menu menu(Long id, String name, Long categoryId, int sales) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName(name);
+        menu.setCategoryId(categoryId);
+        menu.setSales(sales);
+        menu.setProductLock(0);
+        return menu;
+    }
+
+    private static Ltype category(Long id, String name) {
+        Ltype category = new Ltype();
+        category.setId(id);
+        category.setCateName(name);
+        category.setCateLock(0);
+        return category;
+    }
+
+    private static List<String> texts(List<MenuSuggestion> suggestions) {
+        return suggestions.stream().map(MenuSuggestion::getText).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.entity.OperationLog;
+import tech.chhsich.backend.mapper.OperationLogMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 操作日志异步写入器测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OperationLogWriterTest {
+
+    private final OperationLogMapper operationLogMapper = mock(OperationLogMapper.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OperationLogWriter writer;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    /**
+     * 测试攒满一批后用一条INSERT写入
+     */
+    @Test
+    public void testBatchInsert() {
+        writer = newWriter(64, 3, 60_000, "drop");
+        writer.start();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writer.publish(new OperationLog()));
+        }
+
+        verify(operationLogMapper, timeout(2000)).insertBatch(argThat(logs -> logs.size() == 3));
+    }
+
+    /**
+     * 测试写入线程空闲退避到较长休眠后，攒满一批仍会被立即唤醒写入
+     */
+    @Test
+    public void testIdleWriterWokenByFullBatch() throws InterruptedException {
+        writer = newWriter(64, 3, 60_000, "drop");
+        writer.start();
+        Thread.sleep(300);
+
+        for (int i = 0; i < 3; i++) {
+            writer.publish(new OperationLog());
+        }
+
+        verify(operationLogMapper, timeout(1000)).insertBatch(argThat(logs -> logs.size() == 3));
+    }
+
+    /**
+     * 测试未攒满时按时间刷新
+     */
+    @Test
+    public void testFlushInterval() {
+        writer = newWriter(64, 100, 20, "drop");
+        writer.start();
+
+        writer.publish(new OperationLog());
+
+        verify(operationLogMapper, timeout(2000)).insertBatch(argThat(logs -> logs.size() == 1));
+    }
+
+    /**
+     * 测试停止时写完剩余日志
+     */
+    @Test
+    public void testStopFlushesRemaining() throws InterruptedException {
+        writer = newWriter(64, 100, 60_000, "drop");
+        writer.start();
+        writer.publish(new OperationLog());
+        writer.publish(new OperationLog());
+
+        writer.stop();
+
+        verify(operationLogMapper).insertBatch(argThat(logs -> logs.size() == 2));
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    /**
+     * 测试缓冲区满时丢弃并计数（写入线程未启动）
+     */
+    @Test
+    public void testDropWhenFull() {
+        writer = newWriter(2, 100, 1000, "drop");
+
+        assertTrue(writer.publish(new OperationLog()));
+        assertTrue(writer.publish(new OperationLog()));
+        assertFalse(writer.publish(new OperationLog()));
+
+        assertEquals(1.0, meterRegistry.get("audit.log.dropped").tag("reason", "buffer_full").counter().count());
+        assertEquals(2, writer.getQueueSize());
+    }
+
+    /**
+     * 测试阻塞策略超时后丢弃
+     */
+    @Test
+    public void testBlockPolicyTimesOut() {
+        writer = newWriter(1, 100, 1000, "block");
+        writer.publish(new OperationLog());
+
+        long start = System.nanoTime();
+        assertFalse(writer.publish(new OperationLog()));
+        assertTrue(System.nanoTime() - start >= 5_000_000L);
+    }
+
+    /**
+     * 测试写入失败时计数，不影响写入线程
+     */
+    @Test
+    public void testWriteFailureIsCounted() {
+        when(operationLogMapper.insertBatch(anyList())).thenThrow(new RuntimeException("db down"));
+        writer = newWriter(64, 100, 1000, "drop");
+
+        writer.flush(List.of(new OperationLog(), new OperationLog()));
+
+        assertEquals(2.0, meterRegistry.get("audit.log.dropped").tag("reason", "write_failed").counter().count());
+    }
+
+    private OperationLogWriter newWriter(int bufferSize, int batchSize, long flushIntervalMillis, String policy) {
+        return new OperationLogWriter(operationLogMapper, meterRegistry, true, bufferSize, batchSize,
+                flushIntervalMillis, policy, 10);
+    }
+}
@@ -0,0 +1,113 @@
+package tech.chhsich.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import tech.chhsich.backend.dto.OrderTransitionResult;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单批量状态转换测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderBulkTransitionTest {
+
+    private OrderInfoMapper orderInfoMapper;
+    private OrderHistoryService orderHistoryService;
+    private OrderStateMachine orderStateMachine;
+    private OrderService orderService;
+
+    @BeforeEach
+    public void setUp() {
+        orderInfoMapper = mock(OrderInfoMapper.class);
+        orderHistoryService = mock(OrderHistoryService.class);
+        orderStateMachine = mock(OrderStateMachine.class);
+        orderService = new OrderService(orderInfoMapper, mock(OrderEntryMapper.class), mock(UserService.class),
+                mock(MenuMapper.class), orderStateMachine, mock(OrderIdGenerator.class),
+                mock(SalesAccumulator.class), orderHistoryService, mock(ApplicationEventPublisher.class));
+    }
+
+    /**
+     * 测试批量开始配送：合法订单一条UPDATE，非法和不存在的订单单独失败
+     */
+    @Test
+    public void testBulkStartDelivery() {
+        when(orderInfoMapper.findStatusByOrderidsForUpdate(anyCollection())).thenReturn(List.of(
+                status("ORD1", OrderStatus.PAID),
+                status("ORD2", OrderStatus.PAID),
+                status("ORD3", OrderStatus.PENDING_PAYMENT)
+        ));
+        when(orderInfoMapper.updateStatusByOrderidsIfStatus(eq(List.of("ORD1", "ORD2")), eq(2), eq(1))).thenReturn(2);
+
+        List<OrderTransitionResult> results = orderService.bulkTransitionOrders(
+                List.of("ORD1", "ORD2", "ORD3", "ORD404"), OrderStatus.DELIVERING, "批量配送", "dispatcher");
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        verify(orderInfoMapper, times(1)).updateStatusByOrderidsIfStatus(anyCollection(), anyInt(), anyInt());
+        verify(orderHistoryService).recordStatusChanges(
+                Map.of("ORD1", OrderStatus.PAID, "ORD2", OrderStatus.PAID),
+                OrderStatus.DELIVERING, "批量配送", "dispatcher", "批量配送");
+        verify(orderStateMachine).recordTransitions(OrderStatus.PAID, OrderStatus.DELIVERING, 2);
+    }
+
+    /**
+     * 测试条件UPDATE影响行数与加锁读取的不一致时整体失败，不把并发修改的订单记为本次转换
+     */
+    @Test
+    public void testUpdateCountMismatchRollsBack() {
+        when(orderInfoMapper.findStatusByOrderidsForUpdate(anyCollection()))
+                .thenReturn(List.of(status("ORD1", OrderStatus.PAID), status("ORD2", OrderStatus.PAID)));
+        when(orderInfoMapper.updateStatusByOrderidsIfStatus(anyCollection(), anyInt(), anyInt())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> orderService.bulkTransitionOrders(
+                List.of("ORD1", "ORD2"), OrderStatus.DELIVERING, "批量配送", "dispatcher"));
+        verify(orderHistoryService, never()).recordStatusChanges(anyMap(), any(), any(), any(), any());
+        verify(orderStateMachine, never()).recordTransitions(any(), any(), anyInt());
+    }
+
+    /**
+     * 测试无法识别的状态码只让该订单失败，其他订单照常处理
+     */
+    @Test
+    public void testUnknownStatusFailsOnlyThatOrder() {
+        OrderInfo corrupt = new OrderInfo();
+        corrupt.setOrderId("ORD9");
+        corrupt.setStatus(99);
+        when(orderInfoMapper.findStatusByOrderidsForUpdate(anyCollection()))
+                .thenReturn(List.of(corrupt, status("ORD1", OrderStatus.PENDING_PAYMENT)));
+        when(orderInfoMapper.updateStatusByOrderidsIfStatus(eq(List.of("ORD1")), eq(4), eq(0))).thenReturn(1);
+
+        List<OrderTransitionResult> results = orderService.cancelExpiredOrders(List.of("ORD9", "ORD1"), "超时");
+
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        verify(orderHistoryService).recordStatusChanges(
+                Map.of("ORD1", OrderStatus.PENDING_PAYMENT), OrderStatus.CANCELLED, "超时", "系统", "超时");
+        verify(orderStateMachine).recordTransitions(OrderStatus.PENDING_PAYMENT, OrderStatus.CANCELLED, 1);
+    }
+
+    private static OrderInfo status(String orderId, OrderStatus status) {
+        OrderInfo info = new OrderInfo();
+        info.setOrderId(orderId);
+        info.setStatus(status.getCode());
+        return info;
+    }
+}
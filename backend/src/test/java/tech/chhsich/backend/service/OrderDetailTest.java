@@ -0,0 +1,95 @@
+package tech.chhsich.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import tech.chhsich.backend.dto.OrderDetailDTO;
+import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.entity.OrderHistory;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单详情聚合查询测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderDetailTest {
+
+    private OrderInfoMapper orderInfoMapper;
+    private OrderEntryMapper orderEntryMapper;
+    private OrderHistoryService orderHistoryService;
+    private OrderService orderService;
+
+    @BeforeEach
+    public void setUp() {
+        orderInfoMapper = mock(OrderInfoMapper.class);
+        orderEntryMapper = mock(OrderEntryMapper.class);
+        orderHistoryService = mock(OrderHistoryService.class);
+        orderService = new OrderService(orderInfoMapper, orderEntryMapper, mock(UserService.class),
+                mock(MenuMapper.class), mock(OrderStateMachine.class), mock(OrderIdGenerator.class),
+                mock(SalesAccumulator.class), orderHistoryService, mock(ApplicationEventPublisher.class));
+    }
+
+    /**
+     * 测试聚合查询：订单只读取一次，转换和最终状态在内存中计算
+     */
+    @Test
+    public void testGetOrderDetail() {
+        OrderInfo order = new OrderInfo();
+        order.setOrderId("ORD1");
+        order.setStatus(OrderStatus.PAID.getCode());
+        List<OrderEntry> items = List.of(new OrderEntry());
+        List<OrderHistory> history = List.of(new OrderHistory());
+        when(orderInfoMapper.findByOrderid("ORD1")).thenReturn(order);
+        when(orderEntryMapper.findByOrderid("ORD1")).thenReturn(items);
+        when(orderHistoryService.getFormattedOrderHistory("ORD1")).thenReturn(history);
+
+        OrderDetailDTO detail = orderService.getOrderDetail("ORD1");
+
+        assertSame(order, detail.getOrder());
+        assertSame(items, detail.getItems());
+        assertSame(history, detail.getHistory());
+        assertEquals(OrderStatus.PAID.getDescription(), detail.getStatusDescription());
+        assertArrayEquals(OrderStatus.getAvailableTransitions(OrderStatus.PAID), detail.getAvailableTransitions());
+        assertFalse(detail.isFinalStatus());
+        verify(orderInfoMapper, times(1)).findByOrderid(anyString());
+    }
+
+    /**
+     * 测试订单不存在时不再查询订单项和历史
+     */
+    @Test
+    public void testGetOrderDetailNotFound() {
+        assertNull(orderService.getOrderDetail("ORD404"));
+        verifyNoInteractions(orderEntryMapper, orderHistoryService);
+    }
+
+    /**
+     * 测试最终状态在JSON中只输出一个isFinal字段
+     */
+    @Test
+    public void testFinalStatusSerializedOnce() throws Exception {
+        OrderDetailDTO detail = new OrderDetailDTO();
+        detail.setFinalStatus(true);
+
+        JsonNode json = new ObjectMapper().valueToTree(detail);
+
+        assertTrue(json.get("isFinal").asBoolean());
+        assertFalse(json.has("final"));
+        assertFalse(json.has("finalStatus"));
+    }
+}
@@ -0,0 +1,87 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.dto.OrderTransitionResult;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.event.OrderCreatedEvent;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单超时取消服务测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderExpiryServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+
+    /**
+     * 测试取消成功后订单不再重试
+     */
+    @Test
+    public void testCancelsExpiredOrder() {
+        when(orderService.cancelExpiredOrders(anyList(), anyString()))
+                .thenReturn(List.of(OrderTransitionResult.success("ORD1", 0, 4)));
+        OrderExpiryService expiryService = expiryService(3);
+        expire(expiryService, "ORD1");
+
+        expiryService.tick();
+        expiryService.tick();
+
+        verify(orderService, times(1)).cancelExpiredOrders(List.of("ORD1"), "订单超时未支付，系统自动取消");
+    }
+
+    /**
+     * 测试失败的批次按退避重新登记，不在下一个tick立即重试
+     */
+    @Test
+    public void testFailedBatchBacksOff() {
+        when(orderService.cancelExpiredOrders(anyList(), anyString())).thenThrow(new RuntimeException("db down"));
+        OrderExpiryService expiryService = expiryService(3);
+        expire(expiryService, "ORD1");
+
+        expiryService.tick();
+        expiryService.tick();
+
+        verify(orderService, times(1)).cancelExpiredOrders(anyList(), anyString());
+        assertEquals(1, expiryService.getScheduledCount());
+    }
+
+    /**
+     * 测试达到最大尝试次数后放弃该订单
+     */
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        when(orderService.cancelExpiredOrders(anyList(), anyString())).thenThrow(new RuntimeException("db down"));
+        OrderExpiryService expiryService = expiryService(1);
+        expire(expiryService, "ORD1");
+
+        expiryService.tick();
+        expiryService.tick();
+
+        verify(orderService, times(1)).cancelExpiredOrders(anyList(), anyString());
+        assertEquals(0, expiryService.getScheduledCount());
+    }
+
+    private OrderExpiryService expiryService(int maxAttempts) {
+        return new OrderExpiryService(orderService, mock(OrderInfoMapper.class), new SimpleMeterRegistry(),
+                30, 200, maxAttempts);
+    }
+
+    private static void expire(OrderExpiryService expiryService, String orderId) {
+        OrderInfo order = new OrderInfo();
+        order.setOrderId(orderId);
+        order.setCreateTime(LocalDateTime.now().minusHours(1));
+        expiryService.onOrderCreated(new OrderCreatedEvent(order, List.of()));
+    }
+}
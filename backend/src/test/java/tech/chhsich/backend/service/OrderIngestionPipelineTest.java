@@ -0,0 +1,74 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.entity.OrderInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单批量写入管道测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderIngestionPipelineTest {
+
+    /**
+     * 测试整批提交失败时逐个重试，只有出错的订单失败
+     */
+    @Test
+    public void testFailureIsolation() {
+        OrderService orderService = mock(OrderService.class);
+        OrderIngestionPipeline pipeline = new OrderIngestionPipeline(orderService, new SimpleMeterRegistry(),
+                false, 50, 5, 10, 1, 1000);
+
+        OrderService.PreparedOrder good = prepared("ORD1");
+        OrderService.PreparedOrder bad = prepared("ORD2");
+        when(orderService.persistOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderService.PreparedOrder> orders = invocation.getArgument(0);
+            if (orders.contains(bad)) {
+                throw new RuntimeException("constraint violation");
+            }
+            List<OrderInfo> saved = new ArrayList<>();
+            orders.forEach(order -> saved.add(order.getOrder()));
+            return saved;
+        });
+
+        OrderIngestionPipeline.PendingOrder first = new OrderIngestionPipeline.PendingOrder(good);
+        OrderIngestionPipeline.PendingOrder second = new OrderIngestionPipeline.PendingOrder(bad);
+        pipeline.commit(new ArrayList<>(List.of(first, second)));
+
+        assertEquals("ORD1", first.future.join().getOrderId());
+        assertTrue(second.future.isCompletedExceptionally());
+        verify(orderService, times(3)).persistOrders(anyList());
+    }
+
+    /**
+     * 测试队列已满时拒绝新订单
+     */
+    @Test
+    public void testRejectWhenQueueFull() {
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.prepareOrder(any(), any(), any(), any())).thenAnswer(invocation -> prepared("ORD"));
+        OrderIngestionPipeline pipeline = new OrderIngestionPipeline(orderService, new SimpleMeterRegistry(),
+                false, 50, 5, 1, 1, 1000);
+
+        pipeline.submit("user", List.of(), "address", "13900139000");
+        assertThrows(tech.chhsich.backend.exception.OrderIngestionRejectedException.class,
+                () -> pipeline.submit("user", List.of(), "address", "13900139000"));
+    }
+
+    private static OrderService.PreparedOrder prepared(String orderId) {
+        OrderInfo order = new OrderInfo();
+        order.setOrderId(orderId);
+        return new OrderService.PreparedOrder(order, List.of(), Map.of());
+    }
+}
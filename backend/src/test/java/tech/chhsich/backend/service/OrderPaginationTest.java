@@ -0,0 +1,107 @@
+package tech.chhsich.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import tech.chhsich.backend.dto.CursorPage;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+import tech.chhsich.backend.utils.OrderCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单游标分页测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderPaginationTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 10, 1, 12, 0);
+
+    private OrderInfoMapper orderInfoMapper;
+    private OrderService orderService;
+
+    @BeforeEach
+    public void setUp() {
+        orderInfoMapper = mock(OrderInfoMapper.class);
+        orderService = new OrderService(orderInfoMapper, mock(OrderEntryMapper.class), mock(UserService.class),
+                mock(MenuMapper.class), mock(OrderStateMachine.class), mock(OrderIdGenerator.class),
+                mock(SalesAccumulator.class), mock(OrderHistoryService.class), mock(ApplicationEventPublisher.class));
+    }
+
+    /**
+     * 测试首页：多查一行判断是否有下一页，游标指向本页最后一条
+     */
+    @Test
+    public void testFirstPageHasMore() {
+        when(orderInfoMapper.findPageByUsername("alice", null, null, null, 3)).thenReturn(orders(3));
+
+        CursorPage<OrderInfo> page = orderService.getUserOrdersPage("alice", null, null, 2);
+
+        assertEquals(2, page.getRecords().size());
+        assertTrue(page.isHasMore());
+        OrderCursor cursor = OrderCursor.decode(page.getNextCursor());
+        assertEquals(page.getRecords().get(1).getCreateTime(), cursor.getCreateTime());
+        assertEquals(page.getRecords().get(1).getId(), cursor.getId());
+    }
+
+    /**
+     * 测试续页：游标解码后作为keyset条件传给Mapper，最后一页没有游标
+     */
+    @Test
+    public void testNextPageUsesCursor() {
+        String token = new OrderCursor(BASE_TIME, 42L).encode();
+        when(orderInfoMapper.findPageByUsername("alice", 1, BASE_TIME, 42L, 3)).thenReturn(orders(1));
+
+        CursorPage<OrderInfo> page = orderService.getUserOrdersPage("alice", 1, token, 2);
+
+        assertEquals(1, page.getRecords().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * 测试每页条数上限
+     */
+    @Test
+    public void testPageSizeIsCapped() {
+        when(orderInfoMapper.findPageByStatus(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        orderService.getOrdersPage(0, null, 10_000);
+
+        verify(orderInfoMapper).findPageByStatus(0, null, null, OrderService.MAX_PAGE_SIZE + 1);
+    }
+
+    /**
+     * 测试无效游标
+     */
+    @Test
+    public void testInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getUserOrdersPage("alice", null, "not-a-cursor", 10));
+        verifyNoInteractions(orderInfoMapper);
+    }
+
+    private List<OrderInfo> orders(int count) {
+        List<OrderInfo> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            OrderInfo order = new OrderInfo();
+            order.setId(100L - i);
+            order.setOrderId("ORD" + i);
+            order.setCreateTime(BASE_TIME.minusMinutes(i));
+            orders.add(order);
+        }
+        return orders;
+    }
+}
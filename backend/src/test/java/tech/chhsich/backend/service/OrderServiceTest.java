@@ -204,4 +204,22 @@ public class OrderServiceTest {
             assertTrue(entry.getProductNum() > 0);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试同一菜品出现多次时仍为每个请求项生成订单条目
+     */
+    @Test
+    public void testCreateOrderWithRepeatedMenu() {
+        List<OrderService.OrderItemRequest> items = List.of(
+            createOrderItemRequest(1L, 1),
+            createOrderItemRequest(1L, 2)
+        );
+
+        OrderInfo order = orderService.createOrder("test_admin", items, "测试地址", "13900139000");
+        assertNotNull(order);
+
+        List<OrderEntry> orderItems = orderService.getOrderItems(order.getOrderId());
+        assertEquals(2, orderItems.size());
+        assertEquals(3, orderItems.stream().mapToInt(OrderEntry::getProductNum).sum());
+    }
+}
@@ -0,0 +1,131 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.dto.OrderTransitionResult;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.enums.OrderStatus;
+import tech.chhsich.backend.exception.OrderStatusTransitionException;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 订单状态机CAS转换测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class OrderStateMachineTest {
+
+    private OrderInfoMapper orderInfoMapper;
+    private OrderHistoryService orderHistoryService;
+    private OrderStateMachine stateMachine;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        orderInfoMapper = mock(OrderInfoMapper.class);
+        orderHistoryService = mock(OrderHistoryService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        stateMachine = new OrderStateMachine(orderHistoryService, orderInfoMapper, meterRegistry);
+    }
+
+    /**
+     * 测试前驱状态与 isValidTransition 保持一致
+     */
+    @Test
+    public void testValidPredecessors() {
+        assertArrayEquals(new OrderStatus[]{OrderStatus.PENDING_PAYMENT},
+                OrderStatus.getValidPredecessors(OrderStatus.PAID));
+        assertArrayEquals(new OrderStatus[]{OrderStatus.PENDING_PAYMENT, OrderStatus.PAID},
+                OrderStatus.getValidPredecessors(OrderStatus.CANCELLED));
+        assertArrayEquals(new OrderStatus[]{OrderStatus.PAID, OrderStatus.COMPLETED},
+                OrderStatus.getValidPredecessors(OrderStatus.REFUNDING));
+        assertEquals(0, OrderStatus.getValidPredecessors(OrderStatus.PENDING_PAYMENT).length);
+    }
+
+    /**
+     * 测试转换成功时只执行一条UPDATE，不读取订单
+     */
+    @Test
+    public void testSuccessfulTransitionDoesNotRead() {
+        when(orderInfoMapper.updateStatusByOrderidIfIn(eq("ORD1"), eq(1), eq(List.of(0)))).thenReturn(1);
+
+        OrderTransitionResult result = stateMachine.compareAndTransition("ORD1", OrderStatus.PAID, "用户支付完成", "支付");
+
+        assertTrue(result.isSuccess());
+        assertEquals(OrderStatus.PENDING_PAYMENT.getCode(), result.getFromStatus());
+        assertEquals(OrderStatus.PAID.getCode(), result.getToStatus());
+        verify(orderInfoMapper, never()).findByOrderid(anyString());
+        verify(orderHistoryService).recordStatusChange("ORD1", OrderStatus.PENDING_PAYMENT, OrderStatus.PAID,
+                "用户支付完成", "系统", "用户支付完成");
+    }
+
+    /**
+     * 测试多个前驱状态时依次尝试，并记录实际的原状态
+     */
+    @Test
+    public void testCancelFromPaid() {
+        when(orderInfoMapper.updateStatusByOrderidIfIn(eq("ORD1"), eq(4), eq(List.of(0)))).thenReturn(0);
+        when(orderInfoMapper.updateStatusByOrderidIfIn(eq("ORD1"), eq(4), eq(List.of(1)))).thenReturn(1);
+
+        stateMachine.compareAndTransition("ORD1", OrderStatus.CANCELLED, "用户取消", "取消");
+
+        verify(orderHistoryService).recordStatusChange("ORD1", OrderStatus.PAID, OrderStatus.CANCELLED,
+                "用户取消", "系统", "用户取消");
+        assertEquals(1.0, meterRegistry.get("order.status.transitions")
+                .tag("from", "PAID").tag("to", "CANCELLED").counter().count());
+        assertEquals(0.0, meterRegistry.get("order.status.transitions")
+                .tag("from", "PENDING_PAYMENT").tag("to", "CANCELLED").counter().count());
+    }
+
+    /**
+     * 测试状态不允许时读取订单并抛出异常
+     */
+    @Test
+    public void testRejectedTransition() {
+        when(orderInfoMapper.updateStatusByOrderidIfIn(anyString(), anyInt(), anyCollection())).thenReturn(0);
+        OrderInfo current = new OrderInfo();
+        current.setOrderId("ORD1");
+        current.setStatus(OrderStatus.PAID.getCode());
+        when(orderInfoMapper.findByOrderid("ORD1")).thenReturn(current);
+
+        assertThrows(OrderStatusTransitionException.class,
+                () -> stateMachine.compareAndTransition("ORD1", OrderStatus.PAID, "用户支付完成", "支付"));
+        verifyNoInteractions(orderHistoryService);
+        assertEquals(1.0, meterRegistry.get("order.status.transitions.rejected")
+                .tag("from", "PAID").tag("to", "PAID").counter().count());
+    }
+
+    /**
+     * 测试订单不存在
+     */
+    @Test
+    public void testMissingOrder() {
+        when(orderInfoMapper.updateStatusByOrderidIfIn(anyString(), anyInt(), anyCollection())).thenReturn(0);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> stateMachine.compareAndTransition("ORD404", OrderStatus.PAID, "用户支付完成", "支付"));
+        assertFalse(e instanceof OrderStatusTransitionException);
+    }
+
+    /**
+     * 测试批量转换的计数计入同一组转换计数器，非法转换被忽略
+     */
+    @Test
+    public void testRecordTransitions() {
+        stateMachine.recordTransitions(OrderStatus.PENDING_PAYMENT, OrderStatus.CANCELLED, 3);
+        stateMachine.recordTransitions(OrderStatus.COMPLETED, OrderStatus.PAID, 2);
+
+        assertEquals(3.0, meterRegistry.get("order.status.transitions")
+                .tag("from", "PENDING_PAYMENT").tag("to", "CANCELLED").counter().count());
+    }
+
+}
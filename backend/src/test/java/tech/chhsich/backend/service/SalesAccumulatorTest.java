@@ -0,0 +1,89 @@
+package tech.chhsich.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.mapper.MenuMapper;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * 菜品销量累加器测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class SalesAccumulatorTest {
+
+    private MenuMapper menuMapper;
+    private HotSalesBoard hotSalesBoard;
+    private SimpleMeterRegistry meterRegistry;
+    private SalesAccumulator accumulator;
+
+    @BeforeEach
+    public void setUp() {
+        menuMapper = mock(MenuMapper.class);
+        hotSalesBoard = mock(HotSalesBoard.class);
+        meterRegistry = new SimpleMeterRegistry();
+        accumulator = new SalesAccumulator(menuMapper, hotSalesBoard, meterRegistry);
+    }
+
+    /**
+     * 测试增量被聚合后一次性写回
+     */
+    @Test
+    public void testFlushAggregatesDeltas() {
+        accumulator.increment(1L, 2);
+        accumulator.increment(1L, 3);
+        accumulator.increment(2L, 1);
+
+        assertEquals(6.0, meterRegistry.get("menu.sales.pending").gauge().value());
+
+        int flushed = accumulator.flush();
+
+        assertEquals(2, flushed);
+        verify(menuMapper, times(1)).batchUpdateSales(Map.of(1L, 5, 2L, 1));
+        assertEquals(0.0, meterRegistry.get("menu.sales.pending").gauge().value());
+    }
+
+    /**
+     * 测试没有增量时不访问数据库
+     */
+    @Test
+    public void testFlushWithoutDeltas() {
+        assertEquals(0, accumulator.flush());
+        verifyNoInteractions(menuMapper);
+    }
+
+    /**
+     * 测试写库失败时增量会保留到下一次刷新
+     */
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        when(menuMapper.batchUpdateSales(anyMap())).thenThrow(new RuntimeException("db down"));
+        accumulator.increment(1L, 4);
+
+        assertEquals(0, accumulator.flush());
+        assertEquals(4, accumulator.getPending(1L));
+        verify(hotSalesBoard, times(1)).increment(1L, 4);
+    }
+
+    /**
+     * 测试新销量同时计入热销排行榜
+     */
+    @Test
+    public void testIncrementUpdatesHotSalesBoard() {
+        accumulator.increment(1L, 2);
+        accumulator.incrementAll(Map.of(2L, 3));
+        accumulator.increment(3L, 0);
+
+        verify(hotSalesBoard).increment(1L, 2);
+        verify(hotSalesBoard).increment(2L, 3);
+        verifyNoMoreInteractions(hotSalesBoard);
+    }
+}
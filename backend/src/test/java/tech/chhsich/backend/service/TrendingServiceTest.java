@@ -0,0 +1,202 @@
+package tech.chhsich.backend.service;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.chhsich.backend.dto.MenuSaleRecord;
+import tech.chhsich.backend.dto.TrendingMenuDTO;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.entity.OrderEntry;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.event.OrderCreatedEvent;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 趋势菜品服务测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class TrendingServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 17, 12, 30);
+
+    private OrderEntryMapper orderEntryMapper;
+    private TrendingService trendingService;
+    private long nowMillis;
+
+    @BeforeEach
+    public void setUp() {
+        orderEntryMapper = mock(OrderEntryMapper.class);
+        CatalogCache catalogCache = mock(CatalogCache.class);
+        when(catalogCache.isEnabled()).thenReturn(true);
+        when(catalogCache.snapshot()).thenReturn(CatalogSnapshot.build(1, 0, List.of(
+                menu(1L, "鸡腿堡"), menu(2L, "鸡米花"), menu(3L, "薯条"))));
+        nowMillis = NOW.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        trendingService = new TrendingService(orderEntryMapper, mock(MenuMapper.class), catalogCache) {
+            @Override
+            protected long currentTimeMillis() {
+                return nowMillis;
+            }
+        };
+    }
+
+    /**
+     * 测试不同窗口按各自时间范围计数排名
+     */
+    @Test
+    public void testRankingPerWindow() {
+        rebuilt();
+        order(NOW.minusMinutes(5), entry(1L, 2));
+        order(NOW.minusHours(3), entry(2L, 5));
+        order(NOW.minusDays(3), entry(3L, 9));
+
+        assertEquals(List.of(1L), ids(trendingService.getTrending(TrendingService.Window.HOUR, 10)));
+        assertEquals(List.of(2L, 1L), ids(trendingService.getTrending(TrendingService.Window.DAY, 10)));
+        assertEquals(List.of(3L, 2L, 1L), ids(trendingService.getTrending(TrendingService.Window.WEEK, 10)));
+        assertEquals(List.of(3L), ids(trendingService.getTrending(TrendingService.Window.WEEK, 1)));
+        assertEquals(9L, trendingService.getTrending(TrendingService.Window.WEEK, 1).get(0).getWindowSales());
+    }
+
+    /**
+     * 测试新订单使缓存的排名失效，时间推移后旧订单滑出窗口
+     */
+    @Test
+    public void testRankingUpdatesWithOrdersAndTime() {
+        rebuilt();
+        order(NOW.minusMinutes(30), entry(1L, 2));
+        assertEquals(List.of(1L), ids(trendingService.getTrending(TrendingService.Window.HOUR, 10)));
+
+        order(NOW, entry(2L, 1), entry(3L, 3));
+        assertEquals(List.of(3L, 1L, 2L), ids(trendingService.getTrending(TrendingService.Window.HOUR, 10)));
+
+        nowMillis += 45 * 60_000L;
+        assertEquals(List.of(3L, 2L), ids(trendingService.getTrending(TrendingService.Window.HOUR, 10)));
+    }
+
+    /**
+     * 测试不在目录快照中的菜品（已下架）被跳过
+     */
+    @Test
+    public void testSkipsInactiveMenus() {
+        rebuilt();
+        order(NOW, entry(99L, 100), entry(1L, 1));
+
+        assertEquals(List.of(1L), ids(trendingService.getTrending(TrendingService.Window.DAY, 10)));
+    }
+
+    /**
+     * 测试启动时通过流式查询重建计数器
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebuildFromStreamingQuery() {
+        doAnswer(invocation -> {
+            ResultHandler<MenuSaleRecord> handler = invocation.getArgument(2);
+            for (MenuSaleRecord record : List.of(record(2L, 4, NOW.minusHours(2)), record(1L, 1, NOW.minusDays(2)))) {
+                ResultContext<MenuSaleRecord> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(record);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(orderEntryMapper).streamSalesBetween(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(ResultHandler.class));
+
+        trendingService.rebuild();
+
+        verify(orderEntryMapper).streamSalesBetween(eq(NOW.minusDays(7)), eq(NOW), any(ResultHandler.class));
+        assertEquals(List.of(2L), ids(trendingService.getTrending(TrendingService.Window.DAY, 10)));
+        assertEquals(List.of(2L, 1L), ids(trendingService.getTrending(TrendingService.Window.WEEK, 10)));
+    }
+
+    /**
+     * 测试重建期间截止时间之前的实时订单由重建查询计入，不重复计数；截止时间之后的和重建完成后的订单正常计入
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebuildDoesNotDoubleCountLiveOrders() {
+        order(NOW.minusMinutes(10), entry(1L, 2));
+        doAnswer(invocation -> {
+            nowMillis += 60_000L;
+            order(NOW.minusMinutes(5), entry(2L, 3));
+            order(NOW.plusSeconds(30), entry(3L, 1));
+            ResultHandler<MenuSaleRecord> handler = invocation.getArgument(2);
+            for (MenuSaleRecord record : List.of(record(1L, 2, NOW.minusMinutes(10)), record(2L, 3, NOW.minusMinutes(5)))) {
+                ResultContext<MenuSaleRecord> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(record);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(orderEntryMapper).streamSalesBetween(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(ResultHandler.class));
+
+        trendingService.rebuild();
+        order(NOW.minusMinutes(1), entry(1L, 4));
+
+        List<TrendingMenuDTO> trending = trendingService.getTrending(TrendingService.Window.HOUR, 10);
+        assertEquals(List.of(1L, 2L, 3L), ids(trending));
+        assertEquals(List.of(6L, 3L, 1L), trending.stream().map(TrendingMenuDTO::getWindowSales).toList());
+    }
+
+    /**
+     * 测试窗口参数解析
+     */
+    @Test
+    public void testWindowFromParam() {
+        assertEquals(TrendingService.Window.HOUR, TrendingService.Window.fromParam("1h"));
+        assertEquals(TrendingService.Window.WEEK, TrendingService.Window.fromParam("7D"));
+        assertThrows(IllegalArgumentException.class, () -> TrendingService.Window.fromParam("30d"));
+    }
+
+    /**
+     * 以空的历史数据完成启动重建，之后的订单都由实时事件计入
+     */
+    private void rebuilt() {
+        trendingService.rebuild();
+    }
+
+    private void order(LocalDateTime createTime, OrderEntry... entries) {
+        OrderInfo order = new OrderInfo();
+        order.setCreateTime(createTime);
+        trendingService.onOrderCreated(new OrderCreatedEvent(order, List.of(entries)));
+    }
+
+    private static OrderEntry entry(Long menuId, int quantity) {
+        OrderEntry entry = new OrderEntry();
+        entry.setProductId(menuId);
+        entry.setProductNum(quantity);
+        return entry;
+    }
+
+    private static MenuSaleRecord record(Long menuId, int quantity, LocalDateTime createTime) {
+        MenuSaleRecord record = new MenuSaleRecord();
+        record.setProductId(menuId);
+        record.setProductNum(quantity);
+        record.setCreateTime(createTime);
+        return record;
+    }
+
+    private static Menu menu(Long id, String name) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setName(name);
+        menu.setSales(0);
+        menu.setProductLock(0);
+        return menu;
+    }
+
+    private static List<Long> ids(List<TrendingMenuDTO> menus) {
+        return menus.stream().map(TrendingMenuDTO::getId).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package tech.chhsich.backend.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snowflake订单号生成器测试类
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class SnowflakeOrderIdGeneratorTest {
+
+    /**
+     * 测试订单号格式：ORD前缀 + 19位数字
+     */
+    @Test
+    public void testIdFormat() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(1);
+        String id = generator.nextId();
+
+        assertTrue(id.startsWith("ORD"));
+        assertEquals(22, id.length());
+        assertTrue(id.substring(3).chars().allMatch(Character::isDigit));
+    }
+
+    /**
+     * 测试订单号单调递增
+     */
+    @Test
+    public void testIdsAreMonotonic() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(3);
+        String previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            String current = generator.nextId();
+            assertTrue(current.compareTo(previous) > 0, "订单号必须单调递增");
+            previous = current;
+        }
+    }
+
+    /**
+     * 测试时钟回拨时仍保持递增
+     */
+    @Test
+    public void testClockMovesBackwards() {
+        long[] now = {SnowflakeOrderIdGenerator.EPOCH + 10_000};
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(0) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+
+        long first = generator.nextRawId();
+        now[0] -= 5_000;
+        long second = generator.nextRawId();
+
+        assertTrue(second > first);
+    }
+
+    /**
+     * 测试并发生成时不产生重复订单号
+     */
+    @Test
+    public void testConcurrentUniqueness() throws InterruptedException {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    /**
+     * 测试从订单号中解析时间戳
+     */
+    @Test
+    public void testExtractTimestamp() {
+        SnowflakeOrderIdGenerator generator = new SnowflakeOrderIdGenerator(0);
+        long before = System.currentTimeMillis();
+        String id = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        long timestamp = SnowflakeOrderIdGenerator.extractTimestamp(id);
+        assertTrue(timestamp >= before && timestamp <= after + 1);
+    }
+
+    /**
+     * 测试非法节点ID
+     */
+    @Test
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderIdGenerator(1024));
+    }
+}
@@ -0,0 +1,70 @@
+package tech.chhsich.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分层时间轮测试类
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class HierarchicalTimingWheelTest {
+
+    /**
+     * 测试条目在到期的tick内被取出
+     */
+    @Test
+    public void testEntriesExpireOnTime() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 4, 0);
+        assertTrue(wheel.schedule("a", 5_000));
+        assertTrue(wheel.schedule("b", 30 * 60_000));
+
+        assertTrue(wheel.advance(5_000).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(6_000));
+        assertTrue(wheel.advance(30 * 60_000).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(30 * 60_000 + 1_000));
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * 测试已到期的条目不会被登记
+     */
+    @Test
+    public void testAlreadyDue() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 2, 10_000);
+        assertFalse(wheel.schedule("late", 9_000));
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * 测试跨层降级与溢出列表：随机到期时间的条目都在对应的tick到期
+     */
+    @Test
+    public void testRandomDeadlinesAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 2, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long deadline = 10 + random.nextInt(5_000);
+            deadlines.add(deadline);
+            assertTrue(wheel.schedule(deadline, deadline));
+        }
+
+        int fired = 0;
+        for (long now = 10; now <= 5_100; now += 10) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline < now, "不应提前到期");
+                assertTrue(deadline >= now - 10, "最多延迟一个tick");
+                fired++;
+            }
+        }
+        assertEquals(deadlines.size(), fired);
+        assertEquals(0, wheel.size());
+    }
+}
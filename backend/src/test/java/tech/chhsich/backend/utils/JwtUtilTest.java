@@ -0,0 +1,68 @@
+package tech.chhsich.backend.utils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT工具类测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class JwtUtilTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3600L);
+
+    /**
+     * 测试一次校验提取用户名、角色和过期时间
+     */
+    @Test
+    public void testVerifyAndExtract() {
+        String token = jwtUtil.generateToken("alice", Map.of("role", 1));
+
+        JwtPrincipal principal = jwtUtil.verifyAndExtract(token);
+
+        assertEquals("alice", principal.getUsername());
+        assertEquals(1, principal.getRole());
+        assertTrue(principal.isAdmin());
+        assertTrue(principal.getExpiresAt().isAfter(Instant.now()));
+    }
+
+    /**
+     * 测试没有角色声明的token
+     */
+    @Test
+    public void testVerifyAndExtractWithoutRole() {
+        JwtPrincipal principal = jwtUtil.verifyAndExtract(jwtUtil.generateToken("bob"));
+
+        assertNull(principal.getRole());
+        assertFalse(principal.isAdmin());
+    }
+
+    /**
+     * 测试过期token和其他密钥签发的token
+     */
+    @Test
+    public void testVerifyAndExtractRejectsInvalidTokens() {
+        String expired = JWT.create()
+                .withSubject("alice")
+                .withExpiresAt(Instant.now().minusSeconds(60))
+                .sign(Algorithm.HMAC256(SECRET));
+        String foreign = new JwtUtil("other-secret", 3600L).generateToken("alice");
+
+        assertThrows(TokenExpiredException.class, () -> jwtUtil.verifyAndExtract(expired));
+        assertThrows(JWTVerificationException.class, () -> jwtUtil.verifyAndExtract(foreign));
+        assertFalse(jwtUtil.validateToken(foreign));
+    }
+}
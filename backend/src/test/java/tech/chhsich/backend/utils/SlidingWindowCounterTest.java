@@ -0,0 +1,55 @@
+package tech.chhsich.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 滑动窗口计数器测试类
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+public class SlidingWindowCounterTest {
+
+    /**
+     * 测试窗口内的计数求和，滑出窗口的桶不再计入
+     */
+    @Test
+    public void testSumWithinWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000, 3);
+        counter.add(500, 1);
+        counter.add(1500, 2);
+        counter.add(2999, 4);
+
+        assertEquals(7, counter.sum(2999));
+        assertEquals(6, counter.sum(3000));
+        assertEquals(4, counter.sum(4000));
+        assertEquals(0, counter.sum(5000));
+    }
+
+    /**
+     * 测试槽位被新一圈的桶复用时先清零
+     */
+    @Test
+    public void testSlotReuseResetsCount() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000, 3);
+        counter.add(0, 5);
+        counter.add(3000, 1);
+
+        assertEquals(1, counter.sum(3000));
+    }
+
+    /**
+     * 测试已滑出窗口的事件被丢弃
+     */
+    @Test
+    public void testRejectsEventsOlderThanSlot() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(1000, 3);
+        assertTrue(counter.add(3500, 1));
+        assertFalse(counter.add(500, 10));
+        assertTrue(counter.add(2500, 2));
+
+        assertEquals(3, counter.sum(3500));
+    }
+}
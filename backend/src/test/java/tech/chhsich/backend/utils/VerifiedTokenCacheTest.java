@@ -0,0 +1,123 @@
+package tech.chhsich.backend.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 已校验token缓存测试
+ *
+ * @author chhsich
+ * @version 1.0
+ * @since 2025-10-17
+ */
+public class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private long now;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = 1_000_000L;
+        cache = newCache(true, 2, 60);
+    }
+
+    /**
+     * 测试命中、未命中计数
+     */
+    @Test
+    public void testHitAndMiss() {
+        JwtPrincipal principal = principal(now + 3_600_000);
+
+        assertNull(cache.get("t1"));
+        cache.put("t1", principal);
+        assertSame(principal, cache.get("t1"));
+
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    /**
+     * 测试条目有效期不超过token的exp
+     */
+    @Test
+    public void testEntryNeverOutlivesTokenExpiry() {
+        cache.put("t1", principal(now + 10_000));
+
+        now += 10_000;
+
+        assertNull(cache.get("t1"));
+        assertEquals(0, cache.size());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.evictions").counter().count());
+    }
+
+    /**
+     * 测试TTL到期
+     */
+    @Test
+    public void testTtlExpiry() {
+        cache.put("t1", principal(now + 3_600_000));
+
+        now += 59_999;
+        assertNotNull(cache.get("t1"));
+        now += 1;
+        assertNull(cache.get("t1"));
+    }
+
+    /**
+     * 测试超出容量时淘汰最早插入的条目
+     */
+    @Test
+    public void testSizeBound() {
+        cache.put("t1", principal(now + 3_600_000));
+        cache.put("t2", principal(now + 3_600_000));
+        cache.put("t3", principal(now + 3_600_000));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("t1"));
+        assertNotNull(cache.get("t3"));
+    }
+
+    /**
+     * 测试登出失效
+     */
+    @Test
+    public void testInvalidate() {
+        cache.put("t1", principal(now + 3_600_000));
+
+        cache.invalidate("t1");
+
+        assertNull(cache.get("t1"));
+    }
+
+    /**
+     * 测试未启用时不缓存
+     */
+    @Test
+    public void testDisabled() {
+        VerifiedTokenCache disabled = newCache(false, 2, 60);
+        disabled.put("t1", principal(now + 3_600_000));
+
+        assertNull(disabled.get("t1"));
+        assertEquals(0, disabled.size());
+    }
+
+    private VerifiedTokenCache newCache(boolean enabled, int maxSize, long ttlSeconds) {
+        return new VerifiedTokenCache(enabled, maxSize, ttlSeconds, meterRegistry) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    private static JwtPrincipal principal(long expiresAtMillis) {
+        return new JwtPrincipal("alice", 0, Instant.ofEpochMilli(expiresAtMillis));
+    }
+}
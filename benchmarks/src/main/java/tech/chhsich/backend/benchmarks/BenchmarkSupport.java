@@ -0,0 +1,75 @@
+package tech.chhsich.backend.benchmarks;
+
+import tech.chhsich.backend.entity.Administrator;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.service.OrderService;
+import tech.chhsich.backend.utils.JwtUtil;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试公共构造工具
+ *
+ * <p>被测组件在应用中由Spring注入配置值和依赖，这里不启动容器，直接构造并通过反射写入字段。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+final class BenchmarkSupport {
+
+    static final String USERNAME = "bench_user";
+
+    private BenchmarkSupport() {
+    }
+
+    static final String JWT_SECRET = "benchmark-secret-benchmark-secret";
+
+    static JwtUtil newJwtUtil() {
+        return new JwtUtil(JWT_SECRET, 86400L);
+    }
+
+    static Administrator user() {
+        Administrator user = new Administrator();
+        user.setUsername(USERNAME);
+        return user;
+    }
+
+    /**
+     * 构造上架菜品，ID从1开始连续编号
+     */
+    static List<Menu> menus(int count) {
+        List<Menu> menus = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            menus.add(new Menu(id, LocalDateTime.of(2025, 1, 1, 0, 0), "/images/menu" + id + ".jpg",
+                    "招牌菜品简介" + id, "菜品" + id, (int) (id % 2), 30.0 + id, 25.0 + id, 0, (int) (id * 7), 1L));
+        }
+        return menus;
+    }
+
+    /**
+     * 构造一个包含 {@code itemCount} 个不同菜品的下单请求
+     */
+    static List<OrderService.OrderItemRequest> orderItems(int itemCount) {
+        List<OrderService.OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (long id = 1; id <= itemCount; id++) {
+            OrderService.OrderItemRequest item = new OrderService.OrderItemRequest();
+            item.setMenuId(id);
+            item.setQuantity(2);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法设置字段 " + name, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package tech.chhsich.backend.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+import tech.chhsich.backend.service.HotSalesBoard;
+import tech.chhsich.backend.service.OrderHistoryService;
+import tech.chhsich.backend.service.OrderService;
+import tech.chhsich.backend.service.OrderStateMachine;
+import tech.chhsich.backend.service.SalesAccumulator;
+import tech.chhsich.backend.service.UserService;
+import tech.chhsich.backend.service.impl.SnowflakeOrderIdGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 下单基准测试（模拟Mapper）
+ *
+ * <p>Mapper全部替换为不记录调用的桩对象，测量的是 {@link OrderService#createOrder} 自身的校验、计价、
+ * 订单号生成、销量累加和事件发布开销，不含数据库往返。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int itemCount;
+
+    private OrderService orderService;
+    private List<OrderService.OrderItemRequest> items;
+
+    @Setup
+    public void setUp() {
+        OrderInfoMapper orderInfoMapper = stub(OrderInfoMapper.class);
+        OrderEntryMapper orderEntryMapper = stub(OrderEntryMapper.class);
+        MenuMapper menuMapper = stub(MenuMapper.class);
+        UserService userService = stub(UserService.class);
+
+        when(userService.getUserByUsername(anyString())).thenReturn(BenchmarkSupport.user());
+        when(menuMapper.selectBatchIds(anyCollection())).thenReturn(BenchmarkSupport.menus(itemCount));
+        when(orderInfoMapper.insert(any(OrderInfo.class))).thenReturn(1);
+        when(orderEntryMapper.insertBatch(anyList())).thenReturn(itemCount);
+
+        orderService = new OrderService(orderInfoMapper, orderEntryMapper, userService, menuMapper,
+                stub(OrderStateMachine.class), new SnowflakeOrderIdGenerator(0),
+                new SalesAccumulator(menuMapper, stub(HotSalesBoard.class), new SimpleMeterRegistry()),
+                stub(OrderHistoryService.class), event -> { });
+        items = BenchmarkSupport.orderItems(itemCount);
+    }
+
+    @Benchmark
+    public OrderInfo createOrder() {
+        return orderService.createOrder(BenchmarkSupport.USERNAME, items, "测试地址", "13900139000");
+    }
+
+    /**
+     * 不记录调用历史的桩对象，避免长时间运行时调用记录无限增长
+     */
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}
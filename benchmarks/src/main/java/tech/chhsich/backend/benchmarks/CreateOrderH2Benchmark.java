@@ -0,0 +1,134 @@
+package tech.chhsich.backend.benchmarks;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.chhsich.backend.entity.Menu;
+import tech.chhsich.backend.entity.OrderInfo;
+import tech.chhsich.backend.mapper.MenuMapper;
+import tech.chhsich.backend.mapper.OrderEntryMapper;
+import tech.chhsich.backend.mapper.OrderInfoMapper;
+import tech.chhsich.backend.service.HotSalesBoard;
+import tech.chhsich.backend.service.OrderHistoryService;
+import tech.chhsich.backend.service.OrderService;
+import tech.chhsich.backend.service.OrderStateMachine;
+import tech.chhsich.backend.service.SalesAccumulator;
+import tech.chhsich.backend.service.UserService;
+import tech.chhsich.backend.service.impl.SnowflakeOrderIdGenerator;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 下单基准测试（嵌入式H2）
+ *
+ * <p>订单、订单项和菜品Mapper使用真实的MyBatis-Plus映射语句，连接MySQL兼容模式的内存H2数据库，
+ * 测量的是 {@link OrderService#createOrder} 加上SQL生成、参数绑定和JDBC执行的开销。
+ * 不启动Spring容器，因此没有事务代理，每条语句自动提交。
+ * 每轮迭代结束后清空订单表，避免表持续增长影响后续迭代。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateOrderH2Benchmark {
+
+    @Param({"1", "5", "20"})
+    private int itemCount;
+
+    private JdbcDataSource dataSource;
+    private SqlSession session;
+    private OrderService orderService;
+    private List<OrderService.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bench_" + itemCount + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Reader schema = new InputStreamReader(
+                     getClass().getResourceAsStream("/benchmark-schema.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, schema);
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(OrderInfoMapper.class);
+        configuration.addMapper(OrderEntryMapper.class);
+        configuration.addMapper(MenuMapper.class);
+        SqlSessionFactory sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+        session = sqlSessionFactory.openSession(true);
+
+        MenuMapper menuMapper = session.getMapper(MenuMapper.class);
+        for (Menu menu : BenchmarkSupport.menus(itemCount)) {
+            menuMapper.insert(menu);
+        }
+
+        // 用户校验走AdminMapper，与下单路径的数据库开销无关，这里用桩对象代替
+        UserService userService = mock(UserService.class, withSettings().stubOnly());
+        when(userService.getUserByUsername(anyString())).thenReturn(BenchmarkSupport.user());
+
+        orderService = new OrderService(session.getMapper(OrderInfoMapper.class),
+                session.getMapper(OrderEntryMapper.class), userService, menuMapper,
+                mock(OrderStateMachine.class, withSettings().stubOnly()), new SnowflakeOrderIdGenerator(0),
+                new SalesAccumulator(menuMapper, mock(HotSalesBoard.class, withSettings().stubOnly()),
+                        new SimpleMeterRegistry()),
+                mock(OrderHistoryService.class, withSettings().stubOnly()), event -> { });
+        items = BenchmarkSupport.orderItems(itemCount);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearOrders() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE the_order_entry");
+            statement.execute("TRUNCATE TABLE cg_info");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public OrderInfo createOrder() {
+        return orderService.createOrder(BenchmarkSupport.USERNAME, items, "测试地址", "13900139000");
+    }
+}
@@ -0,0 +1,76 @@
+package tech.chhsich.backend.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.chhsich.backend.utils.JwtPrincipal;
+import tech.chhsich.backend.utils.JwtUtil;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT工具类基准测试
+ *
+ * <p>覆盖登录时的令牌生成和每个已认证请求都会执行的令牌校验。
+ * {@link #filterPerRequestLegacy} 复现了旧版认证过滤器每个请求的开销：四次重新构建算法和校验器并完整校验签名；
+ * {@link #filterPerRequest} 是当前过滤器的做法，复用校验器只校验一次。两者对比即每个请求节省的CPU。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.newJwtUtil();
+        token = jwtUtil.generateToken("bench_user", Map.of("role", 1));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench_user", Map.of("role", 1));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal filterPerRequest() {
+        return jwtUtil.verifyAndExtract(token);
+    }
+
+    @Benchmark
+    public void filterPerRequestLegacy(Blackhole blackhole) {
+        // validateToken、isTokenExpired、getUsernameFromToken、getClaimsFromToken 各自构建一次并校验一次
+        for (int i = 0; i < 4; i++) {
+            blackhole.consume(JWT.require(Algorithm.HMAC256(BenchmarkSupport.JWT_SECRET)).build().verify(token));
+        }
+    }
+}
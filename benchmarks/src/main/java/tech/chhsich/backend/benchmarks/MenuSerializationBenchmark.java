@@ -0,0 +1,114 @@
+package tech.chhsich.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tech.chhsich.backend.controller.CacheableResponses;
+import tech.chhsich.backend.controller.CatalogResponseRenderer;
+import tech.chhsich.backend.controller.FrontendMenuController;
+import tech.chhsich.backend.service.CatalogSnapshot;
+import tech.chhsich.backend.service.MenuService;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 前台菜单接口序列化基准测试
+ *
+ * <p>调用 {@link FrontendMenuController#getAllAvailableMenus(String)}，测量菜单列表接口在数据库查询之外的CPU开销。
+ * 目录缓存开启时控制器写出同一快照的预渲染字节，分别测量原始JSON和gzip两种编码；
+ * 另外测量快照替换后第一次请求的渲染开销，以及目录缓存关闭时每次用Jackson序列化的回退路径。
+ * ObjectMapper与 application.yml 中的 spring.jackson 配置一致。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int menuCount;
+
+    private ObjectMapper objectMapper;
+    private CatalogSnapshot snapshot;
+
+    /**
+     * 目录缓存开启：菜单来自快照，响应为预渲染字节
+     */
+    private FrontendMenuController controller;
+
+    /**
+     * 目录缓存关闭：菜单来自MenuService，响应由Jackson序列化
+     */
+    private FrontendMenuController fallbackController;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .simpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                .timeZone(TimeZone.getTimeZone("Asia/Shanghai"))
+                .build();
+        snapshot = CatalogSnapshot.build(1, System.currentTimeMillis(), BenchmarkSupport.menus(menuCount));
+        CacheableResponses cacheableResponses = new CacheableResponses(30, 60);
+
+        MenuService menuService = mock(MenuService.class, withSettings().stubOnly());
+        when(menuService.getCatalogSnapshot()).thenReturn(snapshot);
+        controller = controller(menuService, cacheableResponses);
+        // 预先渲染，测量的是同一快照下的稳态请求
+        controller.getAllAvailableMenus(null);
+
+        MenuService fallbackMenuService = mock(MenuService.class, withSettings().stubOnly());
+        when(fallbackMenuService.getAllAvailableMenus()).thenReturn(BenchmarkSupport.menus(menuCount));
+        fallbackController = controller(fallbackMenuService, cacheableResponses);
+    }
+
+    @Benchmark
+    public Object prerenderedIdentity() {
+        return controller.getAllAvailableMenus(null).getBody();
+    }
+
+    @Benchmark
+    public Object prerenderedGzip() {
+        return controller.getAllAvailableMenus("gzip, deflate, br").getBody();
+    }
+
+    /**
+     * 快照替换后的第一次请求：序列化并压缩菜品列表和推荐列表
+     */
+    @Benchmark
+    public Object renderNewSnapshot() {
+        return new CatalogResponseRenderer(objectMapper).allMenus(snapshot);
+    }
+
+    @Benchmark
+    public byte[] jacksonFallback() throws Exception {
+        return objectMapper.writeValueAsBytes(fallbackController.getAllAvailableMenus(null).getBody());
+    }
+
+    private FrontendMenuController controller(MenuService menuService, CacheableResponses cacheableResponses) {
+        FrontendMenuController menuController = new FrontendMenuController();
+        BenchmarkSupport.setField(menuController, "menuService", menuService);
+        BenchmarkSupport.setField(menuController, "cacheableResponses", cacheableResponses);
+        BenchmarkSupport.setField(menuController, "catalogResponseRenderer", new CatalogResponseRenderer(objectMapper));
+        return menuController;
+    }
+}
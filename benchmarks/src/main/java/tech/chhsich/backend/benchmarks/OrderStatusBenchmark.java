@@ -0,0 +1,58 @@
+package tech.chhsich.backend.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.chhsich.backend.enums.OrderStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单状态枚举基准测试
+ *
+ * <p>覆盖每次状态转换都会经过的 {@link OrderStatus#fromCode} 和 {@link OrderStatus#isValidTransition}。
+ * 所有状态码和所有状态对各执行一遍，避免JIT只针对单一分支优化。</p>
+ *
+ * @author chhsich
+ * @since 2025-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStatusBenchmark {
+
+    private final OrderStatus[] statuses = OrderStatus.values();
+    private final int[] codes = new int[statuses.length];
+
+    {
+        for (int i = 0; i < statuses.length; i++) {
+            codes[i] = statuses[i].getCode();
+        }
+    }
+
+    @Benchmark
+    public void fromCode(Blackhole blackhole) {
+        for (int code : codes) {
+            blackhole.consume(OrderStatus.fromCode(code));
+        }
+    }
+
+    @Benchmark
+    public void isValidTransition(Blackhole blackhole) {
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                blackhole.consume(OrderStatus.isValidTransition(from, to));
+            }
+        }
+    }
+}
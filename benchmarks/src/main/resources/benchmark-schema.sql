@@ -0,0 +1,40 @@
+-- 基准测试用H2（MySQL兼容模式）表结构，列定义与 docs/db/01_create_database_and_tables.sql 保持一致
+-- 省略外键和 cg_info.uk_phone，便于反复插入同一用户的订单
+CREATE TABLE menu (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    createtime DATETIME NOT NULL,
+    imgpath VARCHAR(255) NOT NULL,
+    info5 VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NULL,
+    newstuijian INT NULL DEFAULT 0,
+    price1 DOUBLE NOT NULL,
+    price2 DOUBLE NOT NULL,
+    productlock INT NULL DEFAULT 0,
+    xiaoliang INT NULL DEFAULT 0,
+    cateid BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE cg_info (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    address VARCHAR(255) NOT NULL,
+    createtime DATETIME NOT NULL,
+    orderid VARCHAR(255) NOT NULL,
+    phone VARCHAR(255) NOT NULL,
+    status INT NULL DEFAULT 0,
+    totalprice DOUBLE NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_orderid (orderid)
+);
+
+CREATE TABLE the_order_entry (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    price DOUBLE NOT NULL,
+    productid BIGINT NOT NULL,
+    productname VARCHAR(255) NOT NULL,
+    productnum INT NULL DEFAULT 1,
+    orderid VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_orderid (orderid)
+);